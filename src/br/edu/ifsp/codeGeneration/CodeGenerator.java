@@ -1,67 +1,209 @@
 package br.edu.ifsp.codeGeneration;
 
-import java.io.File;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-
+import java.util.stream.IntStream;
+
+import br.edu.ifsp.logicalPlan.*;
+import br.edu.ifsp.optimizer.CommonSubexpressions;
+import br.edu.ifsp.optimizer.KeyAnalysis;
+import br.edu.ifsp.optimizer.NaturalJoinExpansion;
+import br.edu.ifsp.optimizer.RuleEngine;
+import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
 import br.edu.ifsp.symbolTable.Relation;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
 import br.edu.ifsp.symbolTable.SymbolTable;
-import br.edu.ifsp.syntacticTree.*;
+import br.edu.ifsp.syntacticTree.ListNode;
+import br.edu.ifsp.syntacticTree.Node;
+import br.edu.ifsp.syntacticTree.QueryNode;
+import br.edu.ifsp.syntacticTree.ReadyOnlyOperationsNode;
+import br.edu.ifsp.syntacticTree.RelationalOperationsNode;
 
 public class CodeGenerator {
 
-	File f;
-	PrintWriter pw;
-	String output = "";
-	ArrayList<String> attributes = new ArrayList<String>();
-	SymbolTable schema;
+	/**
+	 * Condition of the SELECT of an empty relation; a boolean literal is not
+	 * valid in every database.
+	 */
+	static final Expression NO_TUPLES = new BinaryExpression("=", Expression.Level.COMPARISON,
+			new Constant("1", RelationalQueryLanguageConstants.INTEGER),
+			new Constant("0", RelationalQueryLanguageConstants.INTEGER));
+
+	/**
+	 * Rewrites the natural joins for the dialects without NATURAL JOIN.
+	 */
+	static final RuleEngine NATURAL_JOIN_EXPANSION = new RuleEngine(new NaturalJoinExpansion());
+
+	/**
+	 * Number of statements from which a program is generated in parallel.
+	 */
+	public static final int PARALLEL_STATEMENTS = 8;
+
+	Appendable out;
+	Writer writer;
+	StringBuilder sql = new StringBuilder();
+	List<String> commonTableExpressions = new ArrayList<String>();
+	Map<PlanNode, String> commonTableNames = new IdentityHashMap<PlanNode, String>();
+	boolean recursive;
+	/* Statements that fill the temporary tables used by the statement */
+	StringBuilder setup = new StringBuilder();
+	List<String> temporaryTables = new ArrayList<String>();
+	SchemaSnapshot schema;
+	String version;
+	GenerationOptions options = GenerationOptions.DEFAULT;
+	PlanBuilder planBuilder = new PlanBuilder();
+	RuleEngine optimizer;
+	KeyAnalysis keys;
+	CommonSubexpressions subexpressions;
 	int globalScope;
 
 	/**
-	 * Method used to initialize the generator
+	 * Method used to initialize the generator that writes on the given output
 	 */
-	public CodeGenerator(SymbolTable schema, String outputFile, String version) throws IOException {
+	public CodeGenerator(SchemaSnapshot schema, Appendable out, String version) {
 		this.schema = schema;
+		this.out = out;
+		this.version = version;
+		optimizer = RuleEngine.defaultEngine(schema);
 		globalScope = 0;
+	}
+
+	/**
+	 * Method used to initialize a generator of single statements with the
+	 * schema, options and optimizer of the given one
+	 */
+	private CodeGenerator(CodeGenerator parent) {
+		schema = parent.schema;
+		options = parent.options;
+		optimizer = parent.optimizer;
+	}
+
+	/**
+	 * Method used to initialize the generator that writes on a file
+	 */
+	public CodeGenerator(SchemaSnapshot schema, String outputFile, String version) throws IOException {
+		this(schema, (Appendable) null, version);
 		System.out.println(outputFile);
-		f = new File(outputFile);
-		// if (f.canWrite()) {
-		if (!f.exists())
-			f.createNewFile();
-		pw = new PrintWriter(f);
-		// } else {
-		// System.out.println("Permission denied for output location");
-		// }
-		output = "/*" + version + "*/\r\n\r\n";
+		writer = new BufferedWriter(new FileWriter(outputFile));
+		out = writer;
+	}
+
+	/**
+	 * Method used to initialize the generator from a symbol table
+	 */
+	public CodeGenerator(SymbolTable schema, Appendable out, String version) {
+		this(schema == null ? null : SchemaSnapshot.of(schema), out, version);
 	}
 
 	/**
-	 * Method used to generate the SQL from analysis
-	 * 
+	 * Method used to initialize the generator that writes on a file from a
+	 * symbol table
+	 */
+	public CodeGenerator(SymbolTable schema, String outputFile, String version) throws IOException {
+		this(schema == null ? null : SchemaSnapshot.of(schema), outputFile, version);
+	}
+
+	public void setOptions(GenerationOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * Method used to replace the rules applied to the logical plan of every
+	 * statement before its SQL is generated.
+	 */
+	public void setOptimizer(RuleEngine optimizer) {
+		this.optimizer = optimizer;
+	}
+
+	/**
+	 * Method used to generate the SQL from analysis. Every statement is built
+	 * once on a reusable buffer and then written on the output, so the output is
+	 * never rewound. The version header is omitted when the version is null.
+	 *
+	 * The statements are independent and each one numbers its own scopes, so a
+	 * program with many statements is generated in parallel by generators of
+	 * single statements and their SQL is written in the order of the program.
+	 *
 	 * @param root
 	 */
-	public void generate(ListNode root) {
-		generateRelationalOperationsNodeList(root);
-		System.out.println(output);
-		pw.println(output);
-		pw.close();
+	public void generate(ListNode root) throws IOException {
+		try {
+			if (version != null)
+				out.append("/*").append(version).append("*/\r\n\r\n");
+			generateRelationalOperationsNodeList(root);
+		} finally {
+			if (writer != null)
+				writer.close();
+		}
 	}
 
 	/*
 	 * *********************************************************************
-	 * Generate the output SQL from syntactic tree
+	 * Generate the output SQL from the logical plan of every statement
 	 **********************************************************************/
 
-	public void generateRelationalOperationsNodeList(ListNode x) {
-		if (x == null) {
+	public void generateRelationalOperationsNodeList(ListNode x) throws IOException {
+		if (x == null)
+			return;
+		if (x.size() < PARALLEL_STATEMENTS) {
+			for (Node statement : x)
+				out.append(generateStatement((RelationalOperationsNode) statement));
+			return;
+		}
+
+		String statementsSql[] = new String[x.size()];
+		IntStream.range(0, statementsSql.length).parallel().forEach(i -> statementsSql[i] = new CodeGenerator(this)
+				.generateStatement((RelationalOperationsNode) x.getNode(i)));
+		for (String statementSql : statementsSql)
+			out.append(statementSql);
+	}
+
+	/**
+	 * @return the SQL of a statement, whose scopes are numbered from 1
+	 */
+	private String generateStatement(RelationalOperationsNode x) {
+		sql.setLength(0);
+		setup.setLength(0);
+		temporaryTables.clear();
+		commonTableExpressions.clear();
+		commonTableNames.clear();
+		recursive = false;
+		globalScope = 0;
+		generateRelationalOperationsNode(x);
+		sql.append(";\r\n");
+		StringBuilder statement = new StringBuilder(setup);
+		generateWithClause(statement);
+		statement.append(sql);
+		if (!temporaryTables.isEmpty())
+			statement.append("DROP TABLE ").append(String.join(", ", temporaryTables)).append(";\r\n");
+		return statement.toString();
+	}
+
+	/**
+	 * Writes the common table expressions collected while the statement was
+	 * generated. They are written in the order they were collected, so every
+	 * one comes after the ones it uses.
+	 */
+	private void generateWithClause(StringBuilder statement) {
+		if (commonTableExpressions.isEmpty())
 			return;
+		boolean keyword = recursive && options.getDialect().supports(Dialect.Feature.RECURSIVE_KEYWORD);
+		statement.append(keyword ? "WITH RECURSIVE " : "WITH ");
+		for (int i = 0; i < commonTableExpressions.size(); i++) {
+			if (i > 0)
+				statement.append(", ");
+			statement.append(commonTableExpressions.get(i));
 		}
-		generateRelationalOperationsNode((RelationalOperationsNode) x.getNode());
-		output += ";\r\n";
-		generateRelationalOperationsNodeList(x.getNext());
+		statement.append(' ');
 	}
 
 	public void generateRelationalOperationsNode(RelationalOperationsNode x) {
@@ -75,397 +217,770 @@ public class CodeGenerator {
 		if (x == null)
 			return;
 		if (x.getNode() instanceof ReadyOnlyOperationsNode) {
-			globalScope++;
-			generateReadyOnlyOperationsNode((ReadyOnlyOperationsNode) x.getNode(), true);
+			PlanNode plan = planBuilder.build((ReadyOnlyOperationsNode) x.getNode());
+			keys = new KeyAnalysis();
+			subexpressions = new CommonSubexpressions();
+			plan = optimizer.optimize(plan);
+			if (!options.getDialect().supports(Dialect.Feature.NATURAL_JOIN))
+				plan = NATURAL_JOIN_EXPANSION.optimize(plan);
+			generatePlanNode(subexpressions.intern(plan));
 		}
 	}
 
-	private void generateReadyOnlyOperationsNode(ReadyOnlyOperationsNode x, boolean first) {
-		if (x == null)
-			return;
-		output += "SELECT DISTINCT ";
-		if (x.getNode() instanceof UnitaryOperationsNode)
-			generateUnitaryOperationsNode((UnitaryOperationsNode) x.getNode(), first, globalScope);
-		if (x.getNode() instanceof BinaryOperationsNode)
-			generateBinaryOperationsNode((BinaryOperationsNode) x.getNode(), first, globalScope);
-	}
-
-	private void generateBinaryOperationsNode(BinaryOperationsNode x, boolean first, int scope) {
-		if (x == null)
-			return;
-		output += "* FROM ";
-
-		int binaryScopes[] = new int[2];
-		String binaryRelation[] = new String[2];
-
-		globalScope++;
-		binaryScopes[0] = globalScope;
-		int outputLength = output.length();
-		generateFirstBinaryRelation(x.getBinarySetNode(), first);
-		binaryRelation[0] = output.substring(outputLength, output.length());
-		output = output.substring(0, outputLength);
-		globalScope++;
-		binaryScopes[1] = globalScope;
-
-		if (x.getBinaryOperationsNodeChildren() instanceof DivisionNode) {
-			outputLength = output.length();
-			generateSecondBinaryRelation(x.getBinarySetNode(), first);
-			binaryRelation[1] = output.substring(outputLength, output.length());
-			output = output.substring(0, outputLength);
-			generateBinaryDivisionNode(x, scope, binaryScopes, binaryRelation, first);
-			return;
-		} else {
-			output += binaryRelation[0];
-		}
-
-		if (x.getBinaryOperationsNodeChildren() instanceof UnionNode)
-			output += " UNION ";
-		if (x.getBinaryOperationsNodeChildren() instanceof IntersectionNode)
-			output += " INTERSECT ";
-		if (x.getBinaryOperationsNodeChildren() instanceof DifferenceNode)
-			output += " EXCEPT ";
-		if (x.getBinaryOperationsNodeChildren() instanceof JoinNode) {
-			generateJoinNode((JoinNode) x.getBinaryOperationsNodeChildren());
-			generateSecondBinaryRelation(x.getBinarySetNode(), first);
-			if (((JoinNode) x.getBinaryOperationsNodeChildren()).getLogicalSentenceNode() != null)
-				output += " ON ";
-			generateLogicalSentenceNode(((JoinNode) x.getBinaryOperationsNodeChildren()).getLogicalSentenceNode());
-		} else if (x.getBinaryOperationsNodeChildren() instanceof CrossJoinNode) {
-			output += " CROSS JOIN ";
-			generateSecondBinaryRelation(x.getBinarySetNode(), first);
+	/**
+	 * Emits a complete SELECT for the node. The scope number of the node names
+	 * its derived tables.
+	 */
+	private void generatePlanNode(PlanNode x) {
+		int scope = ++globalScope;
+		if (x instanceof Scan) {
+			appendSelect(keys.needsDistinct(x));
+			sql.append("* FROM ").append(((Scan) x).getRelationName());
+		} else if (x instanceof Closure) {
+			sql.append("SELECT * FROM ").append(generateClosure((Closure) x, scope));
+		} else if (x instanceof UnaryPlanNode) {
+			generateUnaryPlanNode((UnaryPlanNode) x);
+		} else if (x instanceof Division) {
+			generateDivision((Division) x, scope);
+		} else if (isSemiJoin(x)) {
+			generateSemiJoin((BinaryPlanNode) x, scope);
 		} else {
-			output += "SELECT DISTINCT * FROM ";
-			generateSecondBinaryRelation(x.getBinarySetNode(), first);
+			generateBinaryPlanNode((BinaryPlanNode) x);
 		}
 	}
 
-	private void generateBinaryDivisionNode(BinaryOperationsNode x, int scope, int binaryScopes[],
-			String binaryRelation[], boolean first) {
-		if (x == null)
+	/**
+	 * Emits the node as an item of a FROM clause: a relation is referenced by
+	 * its name and any other operation becomes an aliased derived table. A
+	 * common table expression gets an alias, since it may be joined with
+	 * itself.
+	 */
+	private void generateRelationSource(PlanNode x) {
+		if (!(x instanceof Closure) && subexpressions.isShared(x)) {
+			sql.append(generateCommonTableExpression(x)).append(" AS temporaryRelation").append(++globalScope);
 			return;
-		Relation relation1 = schema.getRelation("temporaryRelation" + binaryScopes[0]);
-		Relation relation2 = schema.getRelation("temporaryRelation" + binaryScopes[1]);
-		Set<String> intersection = new HashSet<String>();
-		Set<String> exception = new HashSet<String>();
-
-		// schema.printTable();
-
-		for (String attribute : relation1.getAttributeNames()) {
-			if (relation2.hasAttribute(attribute)) {
-				intersection.add(attribute);// direita
-			} else {
-				exception.add(attribute);// esquerda
-			}
 		}
+		int scope = globalScope + 1;
+		boolean derived = generateRelationExpression(x);
+		if (derived)
+			sql.append(" AS temporaryRelation").append(scope);
+	}
 
-		output += "(SELECT DISTINCT ";
-		for (String attribute : exception) {
-			output += attribute + ", ";
+	/**
+	 * Emits the node as a relation name, as the name of a common table
+	 * expression or as a parenthesized SELECT, without alias. Closures and the
+	 * subexpressions used more than once by the statement are common table
+	 * expressions.
+	 *
+	 * @return true if a derived table was emitted
+	 */
+	private boolean generateRelationExpression(PlanNode x) {
+		if (x instanceof Scan) {
+			sql.append(((Scan) x).getRelationName());
+			return false;
 		}
-
-		output = output.substring(0, output.length() - 2) + " FROM " + binaryRelation[0] + " AS temporaryRelation1"
-				+ " WHERE ( SELECT COUNT(DISTINCT ";
-
-		for (String attribute : intersection) {
-			output += attribute + ", ";
+		if (x instanceof Closure) {
+			// The closure is referenced by the name of its common table expression
+			sql.append(generateClosure((Closure) x, ++globalScope));
+			return false;
 		}
-
-		output = output.substring(0, output.length() - 2) + ") FROM " + binaryRelation[1]
-				+ ") = ( SELECT COUNT(*) FROM " + binaryRelation[0] + " AS temporaryRelation2 WHERE ";
-
-		for (String attribute : exception) {
-			output += "temporaryRelation1." + attribute + " = temporaryRelation2." + attribute + " AND ";
+		if (subexpressions.isShared(x)) {
+			sql.append(generateCommonTableExpression(x));
+			return false;
 		}
-
-		output = output.substring(0, output.length() - 5) + ")) AS temporaryRelation" + scope;
+		sql.append('(');
+		generatePlanNode(x);
+		sql.append(')');
+		return true;
 	}
 
-	private void generateJoinNode(JoinNode x) {
-		if (x == null)
-			return;
-		if (x.getLogicalSentenceNode() == null)
-			output += " NATURAL JOIN ";
-		else
-			output += " INNER JOIN ";
+	/**
+	 * Method used to emit the node as a common table expression, once per
+	 * statement.
+	 *
+	 * @return the name of the common table expression
+	 */
+	private String generateCommonTableExpression(PlanNode x) {
+		String name = commonTableNames.get(x);
+		if (name != null)
+			return name;
+		StringBuilder current = sql;
+		sql = new StringBuilder();
+		name = "temporaryRelation" + (globalScope + 1);
+		generatePlanNode(x);
+		// The expressions it uses were collected while it was generated
+		commonTableExpressions.add(name + " AS (" + sql + ")");
+		sql = current;
+		commonTableNames.put(x, name);
+		return name;
 	}
 
-	private void generateFirstBinaryRelation(BinarySetNode x, boolean first) {
-		if (x == null)
-			return;
-		if (x.getReadyOnlyOperationsNode1() != null) {
-			output += "(";
-			generateReadyOnlyOperationsNode(x.getReadyOnlyOperationsNode1(), first);
-			output += ")";
-		} else
-			output += x.getRelationNode1().getImage();
+	/**
+	 * Renders a fragment that must be repeated in the output on a separate
+	 * buffer, so it is generated only once.
+	 */
+	private String renderRelationExpression(PlanNode x) {
+		StringBuilder current = sql;
+		sql = new StringBuilder();
+		generateRelationExpression(x);
+		String fragment = sql.toString();
+		sql = current;
+		return fragment;
 	}
 
-	private void generateSecondBinaryRelation(BinarySetNode x, boolean first) {
-		if (x == null)
-			return;
-		if (x.getReadyOnlyOperationsNode2() != null) {
-			output += "(";
-			generateReadyOnlyOperationsNode(x.getReadyOnlyOperationsNode2(), first);
-			output += ") AS temporaryRelation" + globalScope;
-		} else
-			output += x.getRelationNode2().getImage();
+	/**
+	 * Method used to start a SELECT, which is DISTINCT only if it may produce
+	 * repeated tuples.
+	 */
+	private void appendSelect(boolean distinct) {
+		sql.append(distinct ? "SELECT DISTINCT " : "SELECT ");
 	}
 
-	private void generateUnitaryOperationsNode(UnitaryOperationsNode x, boolean first, int scope) {
-		if (x == null)
+	/**
+	 * Emits a chain of projections, selections and renamings over the same
+	 * source as a single SELECT. The chain is followed from the source up,
+	 * keeping the source column of every attribute and the conditions written
+	 * over the source columns; a join is usually written directly in the FROM
+	 * clause.
+	 * Without headings every operation gets its own SELECT.
+	 */
+	private void generateUnaryPlanNode(UnaryPlanNode x) {
+		List<UnaryPlanNode> chain = new ArrayList<UnaryPlanNode>();
+		PlanNode source = x;
+		while ((source instanceof Project || source instanceof Select || source instanceof Rename
+				|| source instanceof EmptyRelation)
+				&& (source == x || !subexpressions.isShared(source))) {
+			chain.add(0, (UnaryPlanNode) source);
+			source = ((UnaryPlanNode) source).getInput();
+		}
+		if (source.getHeading() == null) {
+			generateNestedUnaryPlanNode(x);
 			return;
-		if (x.getUnitaryOperationsChildrenNode() instanceof ProjectNode)
-			generateProjectNode((ProjectNode) x.getUnitaryOperationsChildrenNode());
-		else if (x.getUnitaryOperationsChildrenNode() instanceof RenameNode)
-			generateRenameNode((RenameNode) x.getUnitaryOperationsChildrenNode(), scope);
-		else
-			output += "*";
-
-		output += " FROM ";
-
-		if (x.getRelationNode() != null) {
-			if (x.getUnitaryOperationsChildrenNode() instanceof TransitiveCloseNode)
-				generateTransitiveCloseNode((TransitiveCloseNode) x.getUnitaryOperationsChildrenNode(), globalScope,
-						x.getRelationNode().getPosition().image);
-			else if (first)
-				output += x.getRelationNode().getPosition().image;
-			else {
-				output = output.substring(0, output.length() - 23) + x.getRelationNode().getPosition().image;
-			}
+		}
 
-		} else {
-			globalScope++;
-			output += "(";
-
-			int outputLength = output.length();
-			boolean onlyRelation = false;
-			generateReadyOnlyOperationsNode(x.getReadyOnlyOperationsNode(), false);
-			if (x.getUnitaryOperationsChildrenNode() instanceof TransitiveCloseNode) {
-				String relation = output.substring(outputLength, output.length());
-				output = output.substring(0, outputLength);
-				generateTransitiveCloseNode((TransitiveCloseNode) x.getUnitaryOperationsChildrenNode(), globalScope,
-						relation);
-			}
-			if (!output.substring(outputLength).startsWith("SELECT")) {
-				String relation = output.substring(outputLength, output.length());
-				output = output.substring(0, outputLength - 1);
-				output += relation;
-				onlyRelation = true;
+		// Maps the attributes of the current node to the columns of the source
+		Map<String, String> columns = new LinkedHashMap<String, String>();
+		for (String attribute : source.getAttributeNames())
+			columns.put(attribute, attribute);
+		List<Expression> conditions = new ArrayList<Expression>();
+		for (UnaryPlanNode node : chain) {
+			Map<String, String> next = new LinkedHashMap<String, String>();
+			if (node instanceof Select) {
+				conditions.addAll(Expression.conjuncts(((Select) node).getCondition().renameAttributes(columns)));
+				next = columns;
+			} else if (node instanceof EmptyRelation) {
+				conditions.add(NO_TUPLES);
+				next = columns;
+			} else if (node instanceof Rename) {
+				Map<String, String> renames = ((Rename) node).getRenames();
+				for (Map.Entry<String, String> column : columns.entrySet()) {
+					String name = column.getKey();
+					next.put(renames.containsKey(name) ? renames.get(name) : name, column.getValue());
+				}
+				// A new name that is already an attribute keeps both columns
+				if (next.size() < columns.size()) {
+					generateNestedUnaryPlanNode(x);
+					return;
+				}
+			} else {
+				for (String attribute : ((Project) node).getAttributes())
+					next.put(attribute, columns.get(attribute));
 			}
-			output += (onlyRelation ? "" : ")")
-					+ (x.getUnitaryOperationsChildrenNode() instanceof TransitiveCloseNode ? "" : " AS temporaryRelation" + (scope + 1));
+			columns = next;
+		}
 
+		boolean identity = isIdentity(columns, source.getAttributeNames());
+		boolean shared = subexpressions.isShared(source);
+		if (identity && conditions.isEmpty() && !shared) {
+			// The chain does not change its source
+			generatePlanNode(source);
+			return;
 		}
 
-		if (x.getUnitaryOperationsChildrenNode() instanceof SelectNode)
-			generateSelectNode((SelectNode) x.getUnitaryOperationsChildrenNode());
-	}
+		boolean flatJoin = isFlatJoin(source) && !shared;
+		boolean distinct = flatJoin ? joinNeedsDistinct((Join) source) : !keys.hasDistinctTuples(source);
+		// An empty result has no repeated tuples
+		appendSelect(!conditions.contains(NO_TUPLES) && (distinct || !keys.containsKey(source, columns.values())));
+		if (identity) {
+			sql.append('*');
+		} else {
+			boolean first = true;
+			for (Map.Entry<String, String> column : columns.entrySet()) {
+				sql.append(first ? "" : ", ").append(column.getValue());
+				if (!column.getKey().equals(column.getValue()))
+					sql.append(" AS ").append(column.getKey());
+				first = false;
+			}
+		}
 
-	private void generateTransitiveCloseNode(TransitiveCloseNode x, int scope, String scopeRelation) {
-		if (x == null)
-			return;
-		int localScope = 0;
-		Relation relation = schema.getRelation("temporaryRelation" + scope);
-		String attributes[] = new String[relation.getAttributeNames().size()];
-		attributes = relation.getAttributeNames().toArray(attributes);
-		String leftAttribute = attributes[0];
-		String rightAttribute = attributes[1];
-		String scopeParenthesysRelation;
-		String alias = "";
+		sql.append(" FROM ");
+		if (flatJoin)
+			generateJoinSource((Join) source, conditions);
+		else
+			generateRelationSource(source);
 
-		if (scopeRelation.startsWith("SELECT")) {
-			scopeRelation = "(" + scopeRelation + ")";
-			alias = "AS temporaryRelation" + (scope + 1) + "_" + localScope;
+		if (!conditions.isEmpty()) {
+			sql.append(" WHERE ");
+			generateExpression(Expression.conjunction(conditions));
 		}
-		output += "(SELECT DISTINCT * FROM " + scopeRelation + alias + " UNION SELECT temporaryRelation" + scope + "_1."
-				+ rightAttribute + ", temporaryRelation" + scope + "_2." + leftAttribute + " FROM " + scopeRelation
-				+ " AS temporaryRelation" + scope + "_1 INNER JOIN " + scopeRelation + " AS temporaryRelation" + scope
-				+ "_2 ON temporaryRelation" + scope + "_1." + leftAttribute + " = temporaryRelation" + scope + "_2."
-				+ rightAttribute + " WHERE temporaryRelation" + scope + "_2." + leftAttribute
-				+ " IS NOT NULL) AS temporaryRelation" + scope;
 	}
 
-	private void generateProjectNode(ProjectNode x) {
-		if (x == null)
-			return;
-		generateAttributeNodeList(x.getProjectNodeList(), true);
+	/**
+	 * A join is written in the FROM clause of the SELECT over it unless its
+	 * inputs have attributes with the same name that it does not merge, which
+	 * would be ambiguous.
+	 */
+	private static boolean isFlatJoin(PlanNode x) {
+		return x instanceof Join && x.getHeading() != null && !((Join) x).hasDuplicateAttributes();
 	}
 
-	private void generateAttributeNodeList(ListNode x, boolean first) {
-		if (x == null)
-			return;
-		output += (first ? "" : ", ") + x.getNode().getPosition().image;
-		generateAttributeNodeList(x.getNext(), false);
+	/**
+	 * A join used as the left input of another join is written in the same
+	 * FROM clause when it is flat, even under a selection, whose condition
+	 * then goes to the WHERE clause.
+	 *
+	 * @return the join written in the FROM clause, or null
+	 */
+	private Join inlinedJoin(PlanNode x) {
+		if (subexpressions.isShared(x))
+			return null;
+		if (x instanceof Select && !subexpressions.isShared(((Select) x).getInput()))
+			x = ((Select) x).getInput();
+		return isFlatJoin(x) ? (Join) x : null;
 	}
 
-	private void generateRenameNode(RenameNode x, int scope) {
-		if (x == null)
-			return;
-		generateRenameSetNodeList(x.getRenameSetNodeList(), true, scope);
+	/**
+	 * @return true if a relation written in the FROM clause of the join may
+	 *         have repeated tuples
+	 */
+	private boolean joinNeedsDistinct(Join x) {
+		Join left = inlinedJoin(x.getLeft());
+		boolean repeated = left != null ? joinNeedsDistinct(left) : !keys.hasDistinctTuples(x.getLeft());
+		return repeated || !keys.hasDistinctTuples(x.getRight());
+	}
+
+	private static boolean isIdentity(Map<String, String> columns, List<String> attributes) {
+		if (!new ArrayList<String>(columns.keySet()).equals(attributes))
+			return false;
+		for (Map.Entry<String, String> column : columns.entrySet())
+			if (!column.getKey().equals(column.getValue()))
+				return false;
+		return true;
+	}
+
+	private void generateNestedUnaryPlanNode(UnaryPlanNode x) {
+		appendSelect(keys.needsDistinct(x));
+		if (x instanceof Project)
+			appendList(((Project) x).getAttributes(), ", ", "", "");
+		else if (x instanceof Rename)
+			generateRename((Rename) x);
+		else
+			sql.append('*');
+
+		sql.append(" FROM ");
+		generateRelationSource(x.getInput());
+
+		if (x instanceof Select) {
+			sql.append(" WHERE ");
+			generateExpression(((Select) x).getCondition());
+		} else if (x instanceof EmptyRelation) {
+			sql.append(" WHERE ");
+			generateExpression(NO_TUPLES);
+		}
 	}
 
-	private void generateRenameSetNodeList(ListNode x, boolean first, int scope) {
-		if (x == null)
+	/**
+	 * Emits the renamed attributes followed by the remaining attributes of the
+	 * input.
+	 */
+	private void generateRename(Rename x) {
+		boolean first = true;
+		for (Map.Entry<String, String> rename : x.getRenames().entrySet()) {
+			sql.append(first ? "" : ", ").append(rename.getKey()).append(" AS ").append(rename.getValue());
+			first = false;
+		}
+		Relation scope = x.getInput().getHeading();
+		if (scope == null)
 			return;
-		generateRenameSetNode((RenameSetNode) x.getNode(), first);
-		if (x.getNext() == null) {
-			generateRemaingAttributes(scope);
-		} else {
-			generateRenameSetNodeList(x.getNext(), false, scope);
+		for (String attribute : scope.getAttributeNames()) {
+			if (!x.getRenames().containsKey(attribute))
+				sql.append(", ").append(attribute);
 		}
 	}
 
-	private void generateRemaingAttributes(int scope) {
-		for (String attribute : schema.getRelation("temporaryRelation" + (scope + 1)).getAttributeNames()) {
-			if (!attributes.contains(attribute))
-				output += ", " + attribute;
+	/**
+	 * Emits a join, or a set operation over SELECTs of the inputs. The set
+	 * operations remove repeated tuples, except a UNION ALL of disjoint inputs,
+	 * whose inputs must be sets.
+	 */
+	private void generateBinaryPlanNode(BinaryPlanNode x) {
+		if (x instanceof Join) {
+			generateJoin((Join) x);
+			return;
 		}
+		boolean all = x instanceof Union && keys.areDisjoint(x.getLeft(), x.getRight());
+		appendSelect(all && !keys.hasDistinctTuples(x.getLeft()));
+		sql.append("* FROM ");
+		generateRelationSource(x.getLeft());
+
+		if (x instanceof Union)
+			sql.append(all ? " UNION ALL " : " UNION ");
+		if (x instanceof Intersection)
+			sql.append(" INTERSECT ");
+		if (x instanceof Difference)
+			sql.append(" EXCEPT ");
+		appendSelect(all && !keys.hasDistinctTuples(x.getRight()));
+		sql.append("* FROM ");
+		generateRelationSource(x.getRight());
 	}
 
-	private void generateRenameSetNode(RenameSetNode x, boolean first) {
-		output += (first ? "" : ", ") + x.getToRenameAttributeNode().getPosition().image + " AS "
-				+ x.getRenamedAttributeNode().getPosition().image;
-		attributes.add(x.getToRenameAttributeNode().getPosition().image);
+	/**
+	 * An intersection or a difference is written with EXISTS or NOT EXISTS
+	 * when the target database plans them as semi and anti joins and the
+	 * tuples of the inputs can be matched by a key, or when the dialect has no
+	 * INTERSECT and EXCEPT.
+	 */
+	private boolean isSemiJoin(PlanNode x) {
+		if (!(x instanceof Intersection || x instanceof Difference) || x.getHeading() == null)
+			return false;
+		BinaryPlanNode operation = (BinaryPlanNode) x;
+		if (options.hasSemiJoins() && keys.getCorrelationKey(operation.getLeft(), operation.getRight()) != null)
+			return true;
+		Dialect dialect = options.getDialect();
+		return !dialect.supports(Dialect.Feature.SET_OPERATIONS) && dialect.getNullSafeEquality() != null;
 	}
 
-	private void generateSelectNode(SelectNode x) {
-		if (x == null)
-			return;
-		output += " WHERE ";
-		generateLogicalSentenceNode(x.getLogicalSentenceNode());
+	/**
+	 * Emits the tuples of the left input that have (intersection) or do not
+	 * have (difference) a tuple with the same key in the right input. Without
+	 * a key every attribute is compared with the null-safe equality of the
+	 * dialect, as the set operations do.
+	 */
+	private void generateSemiJoin(BinaryPlanNode x, int scope) {
+		String outer = "temporaryRelation" + scope + "_1";
+		String inner = "temporaryRelation" + scope + "_2";
+		Set<String> correlationKey = options.hasSemiJoins() ? keys.getCorrelationKey(x.getLeft(), x.getRight()) : null;
+		List<String> key = new ArrayList<String>(correlationKey != null ? correlationKey : x.getAttributeNames());
+		String comparison = correlationKey != null ? " = " : " " + options.getDialect().getNullSafeEquality() + " ";
+
+		appendSelect(!keys.hasDistinctTuples(x.getLeft()));
+		sql.append("* FROM ");
+		generateRelationExpression(x.getLeft());
+		sql.append(" AS ").append(outer);
+		sql.append(x instanceof Difference ? " WHERE NOT EXISTS (SELECT * FROM " : " WHERE EXISTS (SELECT * FROM ");
+		generateRelationExpression(x.getRight());
+		sql.append(" AS ").append(inner).append(" WHERE ");
+		appendList(key, " AND ", inner + ".", comparison + outer + ".");
+		sql.append(')');
+	}
+
+	private void generateJoin(Join x) {
+		boolean flat = isFlatJoin(x);
+		appendSelect(flat ? joinNeedsDistinct(x) : keys.needsDistinct(x));
+		sql.append("* FROM ");
+		List<Expression> conditions = new ArrayList<Expression>();
+		generateJoinSource(x, conditions);
+		if (!conditions.isEmpty()) {
+			sql.append(" WHERE ");
+			generateExpression(Expression.conjunction(conditions));
+		}
 	}
 
-	private void generateLogicalSentenceNode(LogicalSentenceNode x) {
-		if (x == null)
-			return;
-		if (x.getConditionalSentenceNode() == null)
-			generateLogicalOperatorNode(x.getLogicalOperatorNode());
-		else
-			generateConditionalSentenceNode(x.getConditionalSentenceNode());
+	/**
+	 * Emits the join as the items of a FROM clause. A chain of flat joins on
+	 * the left is written without derived tables; the conditions of the
+	 * selections found in the chain are added to the list.
+	 */
+	private void generateJoinSource(Join x, List<Expression> conditions) {
+		generateJoinSource(x, conditions, new HashSet<String>());
 	}
 
-	private void generateLogicalOperatorNode(LogicalOperatorNode x) {
-		if (x == null)
-			return;
-		generateConditionalSentenceNode(x.getConditionalSentenceNode1());
-		output += " " + convertLogicalOperator(x.getPosition().image) + " ";
-		if (x.getNextLogicalOperatorNode() == null)
-			generateConditionalSentenceNode(x.getConditionalSentenceNode2());
+	/**
+	 * @param relations
+	 *            are the names of the relations already written in the FROM
+	 *            clause; a relation written again gets an alias, since a name
+	 *            can not be repeated in a FROM clause
+	 */
+	private void generateJoinSource(Join x, List<Expression> conditions, Set<String> relations) {
+		Join left = isFlatJoin(x) ? inlinedJoin(x.getLeft()) : null;
+		if (left == null) {
+			generateJoinInput(x.getLeft(), relations);
+		} else {
+			if (left != x.getLeft())
+				conditions.addAll(Expression.conjuncts(((Select) x.getLeft()).getCondition()));
+			generateJoinSource(left, conditions, relations);
+		}
+		if (x.getType() == Join.Type.NATURAL)
+			sql.append(" NATURAL JOIN ");
+		else if (x.getType() == Join.Type.INNER)
+			sql.append(" INNER JOIN ");
 		else
-			generateLogicalOperatorNode(x.getNextLogicalOperatorNode());
+			sql.append(" CROSS JOIN ");
+		generateJoinInput(x.getRight(), relations);
+		if (x.getCondition() != null) {
+			sql.append(" ON ");
+			generateExpression(x.getCondition());
+		}
+	}
+
+	private void generateJoinInput(PlanNode x, Set<String> relations) {
+		generateRelationSource(x);
+		if (x instanceof Scan && !relations.add(((Scan) x).getRelationName()))
+			sql.append(" AS temporaryRelation").append(++globalScope);
 	}
 
-	private String convertLogicalOperator(String x) {
-		switch (x) {
-		case "^":
-			return "AND";
-		case "v":
-			return "OR";
-		case "_v_":
-			return "XOR";
+	/**
+	 * Emits the division with the strategy of the options. The dividend
+	 * attributes that are not in the divisor are the quotient and the others
+	 * are matched with the divisor.
+	 */
+	private void generateDivision(Division x, int scope) {
+		Relation relation1 = x.getLeft().getHeading();
+		Relation relation2 = x.getRight().getHeading();
+		List<String> intersection = new ArrayList<String>();
+		List<String> exception = new ArrayList<String>();
+
+		for (String attribute : relation1.getAttributeNames()) {
+			if (relation2.hasAttribute(attribute)) {
+				intersection.add(attribute);// direita
+			} else {
+				exception.add(attribute);// esquerda
+			}
+		}
+
+		String binaryRelation[] = new String[2];
+		// The operand a strategy repeats is generated once and referenced by name
+		DivisionStrategy strategy = options.getDivisionStrategy();
+		binaryRelation[0] = renderDivisionOperand(x.getLeft(), strategy != DivisionStrategy.GROUP_BY);
+		binaryRelation[1] = renderDivisionOperand(x.getRight(), strategy != DivisionStrategy.NOT_EXISTS);
+
+		switch (strategy) {
+		case NOT_EXISTS:
+			generateNotExistsDivision(scope, binaryRelation, intersection, exception);
+			break;
+		case GROUP_BY:
+			generateGroupByDivision(scope, binaryRelation, intersection, exception);
+			break;
 		default:
-			return "";
+			generateCountDivision(scope, binaryRelation, intersection, exception);
 		}
 	}
 
-	private void generateConditionalSentenceNode(ConditionalSentenceNode x) {
-		if (x == null)
-			return;
-		generateComparisonSentenceNode(x.getComparisonSentenceNode());
-		generateIfNodeList(x.getIfListNode());
+	private String renderDivisionOperand(PlanNode x, boolean repeated) {
+		if (!repeated || x instanceof Scan || x instanceof Closure)
+			return renderRelationExpression(x);
+		return generateCommonTableExpression(x);
 	}
 
-	private void generateIfNodeList(ListNode x) {
-		if (x == null)
-			return;
-		generateIfNode((IfNode) x.getNode());
-		generateIfNodeList(x.getNext());
+	/**
+	 * Emits the division as a comparison of counts: a candidate is in the
+	 * quotient when the number of distinct divisor rows it has a dividend row
+	 * with is the number of distinct divisor rows.
+	 */
+	private void generateCountDivision(int scope, String binaryRelation[], List<String> intersection,
+			List<String> exception) {
+		String candidate = "temporaryRelation" + scope + "_1";
+		String dividend = "temporaryRelation" + scope + "_2";
+		String divisor = "temporaryRelation" + scope + "_3";
+		String divisorCount = "temporaryRelation" + scope + "_4";
+		String distinctDivisor = distinctDivisor(scope, binaryRelation[1], intersection);
+
+		sql.append("SELECT DISTINCT ");
+		appendList(exception, ", ", candidate + ".", "");
+		sql.append(" FROM ").append(binaryRelation[0]).append(" AS ").append(candidate);
+		sql.append(" WHERE (SELECT COUNT(*) FROM ").append(distinctDivisor).append(" AS ").append(divisor);
+		sql.append(" WHERE EXISTS (SELECT * FROM ").append(binaryRelation[0]).append(" AS ").append(dividend);
+		sql.append(" WHERE ");
+		appendList(exception, " AND ", dividend + ".", " = " + candidate + ".");
+		if (!exception.isEmpty())
+			sql.append(" AND ");
+		appendList(intersection, " AND ", dividend + ".", " = " + divisor + ".");
+		sql.append(")) = (SELECT COUNT(*) FROM ").append(distinctDivisor).append(" AS ").append(divisorCount);
+		sql.append(')');
 	}
 
-	private void generateIfNode(IfNode x) {
-		if (x == null)
-			return;
-		// No sei ainda como fica no SQL
+	/**
+	 * @return the distinct rows of the matched attributes of the divisor
+	 */
+	private String distinctDivisor(int scope, String divisor, List<String> intersection) {
+		StringBuilder current = sql;
+		sql = new StringBuilder();
+		sql.append("(SELECT DISTINCT ");
+		appendList(intersection, ", ", "", "");
+		sql.append(" FROM ").append(divisor);
+		if (divisor.startsWith("("))
+			sql.append(" AS temporaryRelation").append(scope).append("_5");
+		sql.append(')');
+		String distinctDivisor = sql.toString();
+		sql = current;
+		return distinctDivisor;
 	}
 
-	private void generateComparisonSentenceNode(ComparisonSentenceNode x) {
-		if (x == null)
-			return;
-		if (x.getInstanceofSentenceNode() == null)
-			generateComparisonOperatorNode(x.getComparisonOperatorNode());
-		else
-			generateInstanceofSentenceNode(x.getInstanceofSentenceNode());
+	/**
+	 * Emits the division as a double negation: a candidate is in the quotient
+	 * when there is no divisor row without the dividend row made of both.
+	 */
+	private void generateNotExistsDivision(int scope, String binaryRelation[], List<String> intersection,
+			List<String> exception) {
+		String candidate = "temporaryRelation" + scope + "_1";
+		String dividend = "temporaryRelation" + scope + "_2";
+		String divisor = "temporaryRelation" + scope + "_3";
+
+		sql.append("SELECT DISTINCT ");
+		appendList(exception, ", ", candidate + ".", "");
+		sql.append(" FROM ").append(binaryRelation[0]).append(" AS ").append(candidate);
+		sql.append(" WHERE NOT EXISTS (SELECT * FROM ").append(binaryRelation[1]).append(" AS ").append(divisor);
+		sql.append(" WHERE NOT EXISTS (SELECT * FROM ").append(binaryRelation[0]).append(" AS ").append(dividend);
+		sql.append(" WHERE ");
+		appendList(exception, " AND ", dividend + ".", " = " + candidate + ".");
+		if (!exception.isEmpty() && !intersection.isEmpty())
+			sql.append(" AND ");
+		appendList(intersection, " AND ", dividend + ".", " = " + divisor + ".");
+		sql.append("))");
 	}
 
-	private void generateComparisonOperatorNode(ComparisonOperatorNode x) {
-		if (x == null)
-			return;
-		generateInstanceofSentenceNode(x.getInstanceofSentenceNode1());
-		output += " " + x.getPosition().image + " ";
-		if (x.getNextComparisonOperatorNode() == null)
-			generateInstanceofSentenceNode(x.getInstanceofSentenceNode2());
-		else
-			generateComparisonOperatorNode(x.getNextComparisonOperatorNode());
+	/**
+	 * Emits the division as an aggregation: the dividend is joined with the
+	 * divisor and a group is in the quotient when it matched every divisor row.
+	 * The join is an outer join, so every candidate has a group and an empty
+	 * divisor keeps them all. With more than one matched attribute both sides
+	 * are made distinct first, so every pair is counted once.
+	 */
+	private void generateGroupByDivision(int scope, String binaryRelation[], List<String> intersection,
+			List<String> exception) {
+		String dividend = "temporaryRelation" + scope + "_1";
+		String divisor = "temporaryRelation" + scope + "_2";
+		String divisorCount = "temporaryRelation" + scope + "_3";
+		boolean single = intersection.size() == 1;
+
+		String distinctDivisor = distinctDivisor(scope, binaryRelation[1], intersection);
+
+		sql.append("SELECT ");
+		appendList(exception, ", ", dividend + ".", "");
+		sql.append(" FROM ");
+		if (single)
+			sql.append(binaryRelation[0]);
+		else {
+			sql.append("(SELECT DISTINCT * FROM ").append(binaryRelation[0]);
+			if (binaryRelation[0].startsWith("("))
+				sql.append(" AS temporaryRelation").append(scope).append("_4");
+			sql.append(')');
+		}
+		sql.append(" AS ").append(dividend);
+		sql.append(" LEFT JOIN ").append(single ? binaryRelation[1] : distinctDivisor).append(" AS ").append(divisor);
+		sql.append(" ON ");
+		appendList(intersection, " AND ", dividend + ".", " = " + divisor + ".");
+		sql.append(" GROUP BY ");
+		appendList(exception, ", ", dividend + ".", "");
+		// Only the matched divisor rows have a value in the matched attributes
+		sql.append(single ? " HAVING COUNT(DISTINCT " : " HAVING COUNT(").append(divisor).append('.')
+				.append(intersection.get(0));
+		sql.append(") = (SELECT COUNT(*) FROM ").append(distinctDivisor).append(" AS ").append(divisorCount);
+		sql.append(')');
 	}
 
-	private void generateInstanceofSentenceNode(InstanceofSentenceNode x) {
-		if (x == null)
-			return;
-		generateAdditionSentenceNode(x.getAdditionSentenceNode());
-		if (x.getType() != null) {
-			output += " instanceof " + x.getType().image;
+	/**
+	 * Appends the attributes separated by the separator. When a qualifier is
+	 * given, every attribute is written as an equality between the two
+	 * qualified columns.
+	 */
+	private void appendList(List<String> attributes, String separator, String qualifier, String comparison) {
+		boolean first = true;
+		for (String attribute : attributes) {
+			if (!first)
+				sql.append(separator);
+			sql.append(qualifier).append(attribute);
+			if (!comparison.isEmpty())
+				sql.append(comparison).append(attribute);
+			first = false;
 		}
 	}
 
-	private void generateAdditionSentenceNode(AdditionSentenceNode x) {
-		if (x == null)
-			return;
-		if (x.getMultiplicationSentenceNode() == null)
-			generateAdditionOperatorNode(x.getAdditionOperatorNode());
-		else
-			generateMultiplicationSentenceNode(x.getMultiplicationSentenceNode());
+	/**
+	 * Emits the closure as a recursive common table expression: the pairs of
+	 * the relation are extended with one more pair until no new pair is found.
+	 * UNION discards repeated pairs, so cycles end the recursion. A derived
+	 * operand becomes a common table expression too, so its text is written
+	 * once. A dialect without UNION in recursive expressions computes the
+	 * closure in a temporary table instead.
+	 *
+	 * @return the name of the common table expression or of the temporary
+	 *         table of the closure
+	 */
+	private String generateClosure(Closure x, int scope) {
+		if (commonTableNames.containsKey(x))
+			return commonTableNames.get(x);
+		String alias = "temporaryRelation" + scope;
+		if (!options.getDialect().supports(Dialect.Feature.RECURSIVE_UNION)) {
+			String table = generateIterativeClosure(x, alias);
+			commonTableNames.put(x, table);
+			return table;
+		}
+
+		String scopeRelation;
+		Relation relation = x.getInput().getHeading();
+		if (x.getInput() instanceof Scan) {
+			scopeRelation = ((Scan) x.getInput()).getRelationName();
+		} else if (subexpressions.isShared(x.getInput())) {
+			scopeRelation = generateCommonTableExpression(x.getInput());
+		} else {
+			scopeRelation = alias + "_0";
+			commonTableExpressions.add(scopeRelation + " AS " + renderRelationExpression(x.getInput()));
+		}
+
+		String attributes[] = new String[relation.getAttributeNames().size()];
+		attributes = relation.getAttributeNames().toArray(attributes);
+		String leftAttribute = attributes[0];
+		String rightAttribute = attributes[1];
+
+		StringBuilder current = sql;
+		sql = new StringBuilder();
+		sql.append(alias).append('(').append(leftAttribute).append(", ").append(rightAttribute).append(") AS (");
+		sql.append("SELECT ").append(leftAttribute).append(", ").append(rightAttribute).append(" FROM ")
+				.append(scopeRelation);
+		sql.append(" UNION SELECT ").append(alias).append("_1.").append(leftAttribute).append(", ").append(alias)
+				.append("_2.").append(rightAttribute);
+		sql.append(" FROM ").append(alias).append(" AS ").append(alias).append("_1");
+		sql.append(" INNER JOIN ").append(scopeRelation).append(" AS ").append(alias).append("_2");
+		sql.append(" ON ").append(alias).append("_1.").append(rightAttribute).append(" = ").append(alias)
+				.append("_2.").append(leftAttribute).append(')');
+		commonTableExpressions.add(sql.toString());
+		recursive = true;
+		sql = current;
+		commonTableNames.put(x, alias);
+		return alias;
 	}
 
-	private void generateAdditionOperatorNode(AdditionOperatorNode x) {
-		if (x == null)
-			return;
-		generateMultiplicationSentenceNode(x.getMultiplicationSentenceNode1());
-		output += " " + x.getPosition().image + " ";
-		if (x.getNextAdditionOperatorNode() == null)
-			generateMultiplicationSentenceNode(x.getMultiplicationSentenceNode2());
-		else
-			generateAdditionOperatorNode(x.getNextAdditionOperatorNode());
+	/**
+	 * Emits the statements that compute the closure in a temporary table,
+	 * which starts with the pairs of the relation and receives the pairs one
+	 * step longer until none of them is new. EXCEPT keeps only the new pairs,
+	 * comparing nulls as UNION does, so every pair is extended once and the
+	 * loop stops after the longest path. A derived operand is saved in a
+	 * temporary table too, since the loop reads it on every step.
+	 *
+	 * @return the name of the temporary table of the closure
+	 */
+	private String generateIterativeClosure(Closure x, String alias) {
+		String table = "#" + alias;
+		List<String> attributes = x.getInput().getAttributeNames();
+		String leftAttribute = attributes.get(0);
+		String rightAttribute = attributes.get(1);
+
+		StringBuilder current = sql;
+		String operand;
+		if (x.getInput() instanceof Scan) {
+			operand = ((Scan) x.getInput()).getRelationName();
+		} else {
+			operand = table + "_0";
+			sql = new StringBuilder();
+			sql.append("SELECT * INTO ").append(operand).append(" FROM ");
+			generateRelationSource(x.getInput());
+			// The common table expressions it uses were collected while it was generated
+			generateWithClause(setup);
+			setup.append(sql).append(";\r\n");
+			temporaryTables.add(operand);
+		}
+
+		sql = new StringBuilder();
+		sql.append("SELECT DISTINCT ").append(leftAttribute).append(", ").append(rightAttribute).append(" INTO ")
+				.append(table).append(" FROM ").append(operand).append(";\r\n");
+		sql.append("WHILE @@ROWCOUNT > 0 INSERT INTO ").append(table).append(" SELECT ").append(alias).append("_1.")
+				.append(leftAttribute).append(", ").append(alias).append("_2.").append(rightAttribute);
+		sql.append(" FROM ").append(table).append(" AS ").append(alias).append("_1");
+		sql.append(" INNER JOIN ").append(operand).append(" AS ").append(alias).append("_2");
+		sql.append(" ON ").append(alias).append("_1.").append(rightAttribute).append(" = ").append(alias)
+				.append("_2.").append(leftAttribute);
+		sql.append(" EXCEPT SELECT ").append(leftAttribute).append(", ").append(rightAttribute).append(" FROM ")
+				.append(table).append(";\r\n");
+		setup.append(sql);
+		temporaryTables.add(table);
+		sql = current;
+		return table;
 	}
 
-	private void generateMultiplicationSentenceNode(MultiplicationSentenceNode x) {
-		if (x == null)
-			return;
-		if (x.getFactorNode() == null)
-			generateMultiplicationOperatorNode(x.getMultiplicationOperatorNode());
-		else
-			generateFactorNode(x.getFactorNode());
+	/*
+	 * *********************************************************************
+	 * Conditions
+	 **********************************************************************/
+
+	private void generateExpression(Expression x) {
+		if (x instanceof AttributeReference) {
+			sql.append(((AttributeReference) x).getName());
+		} else if (x instanceof Constant) {
+			generateConstant((Constant) x, true);
+		} else if (x instanceof NotExpression) {
+			sql.append("NOT ");
+			generateOperand(((NotExpression) x).getOperand(), x, false);
+		} else if (x instanceof InstanceofExpression) {
+			InstanceofExpression instance = (InstanceofExpression) x;
+			generateOperand(instance.getOperand(), x, false);
+			sql.append(" instanceof ").append(instance.getType());
+		} else if (x.getLevel() == Expression.Level.XOR && !options.getDialect().supports(Dialect.Feature.XOR)) {
+			// a XOR b = (a OR b) AND NOT (a AND b), which is also null when an operand is null
+			BinaryExpression binary = (BinaryExpression) x;
+			generateExpression(new BinaryExpression("AND", Expression.Level.AND,
+					new BinaryExpression("OR", Expression.Level.OR, binary.getLeft(), binary.getRight()),
+					new NotExpression(new BinaryExpression("AND", Expression.Level.AND, binary.getLeft(),
+							binary.getRight()))));
+		} else {
+			BinaryExpression binary = (BinaryExpression) x;
+			generateOperand(binary.getLeft(), x, false);
+			sql.append(' ').append(binary.getOperator()).append(' ');
+			generateOperand(binary.getRight(), x, true);
+		}
 	}
 
-	private void generateMultiplicationOperatorNode(MultiplicationOperatorNode x) {
-		if (x == null)
-			return;
-		generateFactorNode(x.getFactorNode1());
-		output += " " + x.getPosition().image + " ";
-		if (x.getNextMultiplicationOperatorNode() == null)
-			generateFactorNode(x.getFactorNode2());
+	/**
+	 * Emits an operand, in parentheses when its operator binds less than the
+	 * operator of its parent. Operations are grouped from the left, so a right
+	 * operand of the same level is in parentheses unless both operators are
+	 * the same associative operator. A negated operand is in parentheses unless
+	 * it is an attribute or a constant.
+	 */
+	private void generateOperand(Expression x, Expression parent, boolean right) {
+		boolean parenthesized;
+		if (parent instanceof NotExpression) {
+			parenthesized = !(x instanceof AttributeReference || x instanceof Constant);
+		} else {
+			int comparison = x.getLevel().compareTo(parent.getLevel());
+			parenthesized = comparison < 0;
+			if (right && comparison == 0) {
+				BinaryExpression binary = (BinaryExpression) parent;
+				parenthesized = !(binary.isAssociative() && x instanceof BinaryExpression
+						&& ((BinaryExpression) x).getOperator().equals(binary.getOperator()));
+			}
+		}
+		if (parenthesized)
+			sql.append('(');
+		if (x instanceof Constant)
+			generateConstant((Constant) x,
+					parent instanceof NotExpression || parent.getLevel().compareTo(Expression.Level.COMPARISON) < 0);
 		else
-			generateMultiplicationOperatorNode(x.getNextMultiplicationOperatorNode());
+			generateExpression(x);
+		if (parenthesized)
+			sql.append(')');
 	}
 
-	private void generateFactorNode(FactorNode x) {
-		if (x == null)
-			return;
-		if (x.getConditionalSentenceNode() == null)
-			output += (x.getNot() == null ? "" : "!") + x.getPosition().image;
-		else {
-			output += (x.getNot() == null ? "" : "! ") + "( ";
-			generateConditionalSentenceNode(x.getConditionalSentenceNode());
-			output += " )";
+	/**
+	 * Emits a constant in the syntax of the dialect. Strings are written
+	 * between single quotes unless the dialect accepts the double quotes of
+	 * RQL. Without boolean literals a boolean is 1 or 0, or 1 = 1 or 1 = 0 when
+	 * it is a condition by itself.
+	 */
+	private void generateConstant(Constant x, boolean condition) {
+		Dialect dialect = options.getDialect();
+		int kind = x.getKind();
+		if ((kind == RelationalQueryLanguageConstants.TRUE || kind == RelationalQueryLanguageConstants.FALSE)
+				&& !dialect.supports(Dialect.Feature.BOOLEAN_LITERALS)) {
+			String value = kind == RelationalQueryLanguageConstants.TRUE ? "1" : "0";
+			sql.append(condition ? "1 = " + value : value);
+		} else if (kind == RelationalQueryLanguageConstants.STRING
+				&& !dialect.supports(Dialect.Feature.DOUBLE_QUOTED_STRINGS)) {
+			String image = x.getImage();
+			sql.append('\'').append(image.substring(1, image.length() - 1).replace("'", "''")).append('\'');
+		} else {
+			sql.append(x.getImage());
 		}
 	}
 }
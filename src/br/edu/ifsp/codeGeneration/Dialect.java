@@ -0,0 +1,115 @@
+package br.edu.ifsp.codeGeneration;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * SQL dialects of the target databases. A dialect lists the constructs its
+ * database supports, so the code generator writes the fastest form each
+ * database accepts and replaces the ones it does not accept.
+ */
+public enum Dialect {
+
+	/**
+	 * Standard SQL, the default dialect.
+	 */
+	ANSI("ansi", null, Feature.SET_OPERATIONS, Feature.RECURSIVE_KEYWORD, Feature.RECURSIVE_UNION,
+			Feature.BOOLEAN_LITERALS, Feature.NATURAL_JOIN),
+
+	/**
+	 * PostgreSQL plans EXISTS and NOT EXISTS as hash semi and anti joins, but
+	 * not a comparison with IS NOT DISTINCT FROM, so the set operations are
+	 * kept when there is no key.
+	 */
+	POSTGRESQL("postgresql", null, Feature.SET_OPERATIONS, Feature.SEMI_JOINS, Feature.RECURSIVE_KEYWORD,
+			Feature.RECURSIVE_UNION, Feature.BOOLEAN_LITERALS, Feature.NATURAL_JOIN),
+
+	/**
+	 * MySQL before 8.0.31 has no EXCEPT and INTERSECT; its null-safe equality
+	 * replaces them.
+	 */
+	MYSQL("mysql", "<=>", Feature.SEMI_JOINS, Feature.RECURSIVE_KEYWORD, Feature.RECURSIVE_UNION,
+			Feature.BOOLEAN_LITERALS, Feature.XOR, Feature.NATURAL_JOIN, Feature.DOUBLE_QUOTED_STRINGS),
+
+	/**
+	 * SQLite looks up the key of a correlated EXISTS in the primary key index
+	 * instead of sorting both inputs of EXCEPT and INTERSECT.
+	 */
+	SQLITE("sqlite", null, Feature.SET_OPERATIONS, Feature.SEMI_JOINS, Feature.RECURSIVE_KEYWORD,
+			Feature.RECURSIVE_UNION, Feature.BOOLEAN_LITERALS, Feature.NATURAL_JOIN),
+
+	/**
+	 * SQL Server has no NATURAL JOIN, no boolean literals and only UNION ALL in
+	 * recursive common table expressions, so a closure is computed in a
+	 * temporary table.
+	 */
+	SQLSERVER("sqlserver", null, Feature.SET_OPERATIONS, Feature.SEMI_JOINS);
+
+	/**
+	 * Constructs that are not supported by every database.
+	 */
+	public enum Feature {
+		/** EXCEPT and INTERSECT */
+		SET_OPERATIONS,
+		/** EXISTS and NOT EXISTS are planned as semi and anti joins */
+		SEMI_JOINS,
+		/** WITH RECURSIVE introduces a recursive common table expression */
+		RECURSIVE_KEYWORD,
+		/** A recursive common table expression may use UNION */
+		RECURSIVE_UNION,
+		/** TRUE and FALSE */
+		BOOLEAN_LITERALS,
+		/** The XOR logical operator */
+		XOR,
+		/** NATURAL JOIN */
+		NATURAL_JOIN,
+		/** String constants between double quotes, as they are written in RQL */
+		DOUBLE_QUOTED_STRINGS
+	}
+
+	private final String optionName;
+	private final String nullSafeEquality;
+	private final Set<Feature> features;
+
+	private Dialect(String optionName, String nullSafeEquality, Feature... features) {
+		this.optionName = optionName;
+		this.nullSafeEquality = nullSafeEquality;
+		EnumSet<Feature> set = EnumSet.noneOf(Feature.class);
+		Collections.addAll(set, features);
+		this.features = Collections.unmodifiableSet(set);
+	}
+
+	/**
+	 * @return the name of the dialect in the command line
+	 */
+	public String getOptionName() {
+		return optionName;
+	}
+
+	public boolean supports(Feature feature) {
+		return features.contains(feature);
+	}
+
+	/**
+	 * @return the operator that compares two values as equal when both are
+	 *         null, which replaces the set operations in a dialect without
+	 *         them, or null
+	 */
+	public String getNullSafeEquality() {
+		return nullSafeEquality;
+	}
+
+	/**
+	 * @return the dialect with the given command line name or null if there is
+	 *         not one; SQL92 is the ANSI dialect
+	 */
+	public static Dialect fromOptionName(String optionName) {
+		if ("sql92".equalsIgnoreCase(optionName))
+			return ANSI;
+		for (Dialect dialect : values())
+			if (dialect.optionName.equalsIgnoreCase(optionName))
+				return dialect;
+		return null;
+	}
+}
@@ -0,0 +1,50 @@
+package br.edu.ifsp.codeGeneration;
+
+/**
+ * SQL formulations of the relational division.
+ */
+public enum DivisionStrategy {
+
+	/**
+	 * Compares, for every candidate row, the number of distinct divisor rows
+	 * with a correlated count of the divisor rows it has a dividend row with.
+	 */
+	COUNT("count"),
+
+	/**
+	 * Keeps the candidates for which there is no divisor row without a
+	 * matching dividend row, so the database can use anti-joins.
+	 */
+	NOT_EXISTS("not-exists"),
+
+	/**
+	 * Joins the dividend with the divisor and keeps the groups that matched as
+	 * many distinct divisor rows as the divisor has, so the database can use
+	 * hash aggregation.
+	 */
+	GROUP_BY("group-by");
+
+	private final String optionName;
+
+	private DivisionStrategy(String optionName) {
+		this.optionName = optionName;
+	}
+
+	/**
+	 * @return the name of the strategy in the command line
+	 */
+	public String getOptionName() {
+		return optionName;
+	}
+
+	/**
+	 * @return the strategy with the given command line name or null if there is
+	 *         not one
+	 */
+	public static DivisionStrategy fromOptionName(String optionName) {
+		for (DivisionStrategy strategy : values())
+			if (strategy.optionName.equalsIgnoreCase(optionName))
+				return strategy;
+		return null;
+	}
+}
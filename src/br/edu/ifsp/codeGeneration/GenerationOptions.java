@@ -0,0 +1,78 @@
+package br.edu.ifsp.codeGeneration;
+
+/**
+ * Immutable set of choices of the code generator that change the SQL of a
+ * translation. Options are compared by value, so they can be part of the key
+ * of a cached translation.
+ */
+public final class GenerationOptions {
+
+	public static final GenerationOptions DEFAULT = new GenerationOptions(DivisionStrategy.COUNT, Dialect.ANSI, false);
+
+	private final DivisionStrategy divisionStrategy;
+	private final Dialect dialect;
+	private final boolean semiJoins;
+
+	private GenerationOptions(DivisionStrategy divisionStrategy, Dialect dialect, boolean semiJoins) {
+		this.divisionStrategy = divisionStrategy;
+		this.dialect = dialect;
+		this.semiJoins = semiJoins;
+	}
+
+	public DivisionStrategy getDivisionStrategy() {
+		return divisionStrategy;
+	}
+
+	public Dialect getDialect() {
+		return dialect;
+	}
+
+	/**
+	 * @return true if the target database runs EXISTS and NOT EXISTS as semi
+	 *         and anti joins, so intersections and differences are written with
+	 *         them instead of INTERSECT and EXCEPT when a key allows it
+	 */
+	public boolean hasSemiJoins() {
+		return semiJoins;
+	}
+
+	public GenerationOptions withDivisionStrategy(DivisionStrategy divisionStrategy) {
+		if (divisionStrategy == null)
+			throw new IllegalArgumentException("The division strategy must not be null");
+		return new GenerationOptions(divisionStrategy, dialect, semiJoins);
+	}
+
+	/**
+	 * @return options for the dialect, whose capabilities replace the flags
+	 *         set before
+	 */
+	public GenerationOptions withDialect(Dialect dialect) {
+		if (dialect == null)
+			throw new IllegalArgumentException("The dialect must not be null");
+		return new GenerationOptions(divisionStrategy, dialect, dialect.supports(Dialect.Feature.SEMI_JOINS));
+	}
+
+	public GenerationOptions withSemiJoins(boolean semiJoins) {
+		return new GenerationOptions(divisionStrategy, dialect, semiJoins);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof GenerationOptions))
+			return false;
+		GenerationOptions options = (GenerationOptions) other;
+		return divisionStrategy == options.divisionStrategy && dialect == options.dialect
+				&& semiJoins == options.semiJoins;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * divisionStrategy.hashCode() + dialect.hashCode()) + (semiJoins ? 1 : 0);
+	}
+
+	@Override
+	public String toString() {
+		return "division=" + divisionStrategy.getOptionName() + ", dialect=" + dialect.getOptionName()
+				+ ", semi-joins=" + semiJoins;
+	}
+}
@@ -0,0 +1,45 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reference to an attribute of the input of an operation.
+ */
+public final class AttributeReference extends Expression {
+
+	private final String name;
+
+	public AttributeReference(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Level getLevel() {
+		return Level.PRIMARY;
+	}
+
+	@Override
+	public Expression renameAttributes(Map<String, String> names) {
+		return names.containsKey(name) ? new AttributeReference(names.get(name)) : this;
+	}
+
+	@Override
+	public void collectAttributes(Set<String> attributes) {
+		attributes.add(name);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof AttributeReference && name.equals(((AttributeReference) other).name);
+	}
+
+	@Override
+	public int hashCode() {
+		return name.hashCode();
+	}
+}
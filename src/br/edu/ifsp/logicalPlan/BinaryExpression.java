@@ -0,0 +1,76 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Logical, comparison or arithmetic operation. The operator is kept as it is
+ * written in SQL.
+ */
+public final class BinaryExpression extends Expression {
+
+	private final String operator;
+	private final Level level;
+	private final Expression left;
+	private final Expression right;
+
+	public BinaryExpression(String operator, Level level, Expression left, Expression right) {
+		this.operator = operator;
+		this.level = level;
+		this.left = left;
+		this.right = right;
+	}
+
+	public static BinaryExpression and(Expression left, Expression right) {
+		return new BinaryExpression("AND", Level.AND, left, right);
+	}
+
+	public String getOperator() {
+		return operator;
+	}
+
+	public Expression getLeft() {
+		return left;
+	}
+
+	public Expression getRight() {
+		return right;
+	}
+
+	/**
+	 * @return true if (a op b) op c is the same as a op (b op c)
+	 */
+	public boolean isAssociative() {
+		return level == Level.AND || level == Level.OR || operator.equals("+") || operator.equals("*");
+	}
+
+	@Override
+	public Level getLevel() {
+		return level;
+	}
+
+	@Override
+	public Expression renameAttributes(Map<String, String> names) {
+		return new BinaryExpression(operator, level, left.renameAttributes(names), right.renameAttributes(names));
+	}
+
+	@Override
+	public void collectAttributes(Set<String> attributes) {
+		left.collectAttributes(attributes);
+		right.collectAttributes(attributes);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof BinaryExpression))
+			return false;
+		BinaryExpression expression = (BinaryExpression) other;
+		return operator.equals(expression.operator) && level == expression.level && left.equals(expression.left)
+				&& right.equals(expression.right);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * operator.hashCode() + left.hashCode()) + right.hashCode();
+	}
+}
@@ -0,0 +1,41 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Arrays;
+import java.util.List;
+
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Operation over two inputs.
+ */
+public abstract class BinaryPlanNode extends PlanNode {
+
+	private final PlanNode left;
+	private final PlanNode right;
+
+	protected BinaryPlanNode(PlanNode left, PlanNode right, Relation heading) {
+		super(heading);
+		this.left = left;
+		this.right = right;
+	}
+
+	public PlanNode getLeft() {
+		return left;
+	}
+
+	public PlanNode getRight() {
+		return right;
+	}
+
+	@Override
+	public List<PlanNode> getInputs() {
+		return Arrays.asList(left, right);
+	}
+
+	@Override
+	public PlanNode withInputs(List<PlanNode> inputs) {
+		return withInputs(inputs.get(0), inputs.get(1));
+	}
+
+	public abstract PlanNode withInputs(PlanNode left, PlanNode right);
+}
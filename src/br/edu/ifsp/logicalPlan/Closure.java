@@ -0,0 +1,16 @@
+package br.edu.ifsp.logicalPlan;
+
+/**
+ * Transitive closure of a binary relation.
+ */
+public final class Closure extends UnaryPlanNode {
+
+	public Closure(PlanNode input) {
+		super(input, input.getHeading());
+	}
+
+	@Override
+	public PlanNode withInput(PlanNode input) {
+		return new Closure(input);
+	}
+}
@@ -0,0 +1,54 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Constant written in the RQL text. The kind is the token kind of the
+ * constant in RelationalQueryLanguageConstants.
+ */
+public final class Constant extends Expression {
+
+	private final String image;
+	private final int kind;
+
+	public Constant(String image, int kind) {
+		this.image = image;
+		this.kind = kind;
+	}
+
+	public String getImage() {
+		return image;
+	}
+
+	public int getKind() {
+		return kind;
+	}
+
+	@Override
+	public Level getLevel() {
+		return Level.PRIMARY;
+	}
+
+	@Override
+	public Expression renameAttributes(Map<String, String> names) {
+		return this;
+	}
+
+	@Override
+	public void collectAttributes(Set<String> attributes) {
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof Constant))
+			return false;
+		Constant constant = (Constant) other;
+		return kind == constant.kind && image.equals(constant.image);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * image.hashCode() + kind;
+	}
+}
@@ -0,0 +1,16 @@
+package br.edu.ifsp.logicalPlan;
+
+/**
+ * Tuples of the left input that are not in the right input. The heading is the heading of the left input.
+ */
+public final class Difference extends BinaryPlanNode {
+
+	public Difference(PlanNode left, PlanNode right) {
+		super(left, right, left.getHeading());
+	}
+
+	@Override
+	public PlanNode withInputs(PlanNode left, PlanNode right) {
+		return new Difference(left, right);
+	}
+}
@@ -0,0 +1,29 @@
+package br.edu.ifsp.logicalPlan;
+
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Tuples of the attributes of the dividend that are not in the divisor which
+ * are combined in the dividend with every tuple of the divisor.
+ */
+public final class Division extends BinaryPlanNode {
+
+	public Division(PlanNode dividend, PlanNode divisor) {
+		super(dividend, divisor, heading(dividend.getHeading(), divisor.getHeading()));
+	}
+
+	private static Relation heading(Relation dividend, Relation divisor) {
+		if (dividend == null || divisor == null)
+			return null;
+		Relation heading = new Relation();
+		for (String name : dividend.getAttributeNames())
+			if (!divisor.hasAttribute(name))
+				heading.addAttribute(name, dividend.getAttribute(name));
+		return heading;
+	}
+
+	@Override
+	public PlanNode withInputs(PlanNode left, PlanNode right) {
+		return new Division(left, right);
+	}
+}
@@ -0,0 +1,18 @@
+package br.edu.ifsp.logicalPlan;
+
+/**
+ * Relation without tuples, found when a condition is always false. It has the
+ * heading of its input, which is kept only to write the columns of the empty
+ * result in SQL and is never evaluated.
+ */
+public final class EmptyRelation extends UnaryPlanNode {
+
+	public EmptyRelation(PlanNode input) {
+		super(input, input.getHeading());
+	}
+
+	@Override
+	public PlanNode withInput(PlanNode input) {
+		return new EmptyRelation(input);
+	}
+}
@@ -0,0 +1,70 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Condition or value of the logical plan. Expressions are immutable trees
+ * whose operators keep the SQL precedence of their level.
+ */
+public abstract class Expression {
+
+	/**
+	 * Precedence levels, from the loosest to the tightest.
+	 */
+	public enum Level {
+		OR, XOR, AND, COMPARISON, ADDITION, MULTIPLICATION, PRIMARY
+	}
+
+	public abstract Level getLevel();
+
+	/**
+	 * Method used to collect the attributes referenced by the expression.
+	 */
+	public abstract void collectAttributes(Set<String> attributes);
+
+	public Set<String> getAttributes() {
+		Set<String> attributes = new LinkedHashSet<String>();
+		collectAttributes(attributes);
+		return attributes;
+	}
+
+	/**
+	 * Method used to build a copy of the expression where the attributes are
+	 * renamed; attributes that are not in the map keep their names.
+	 */
+	public abstract Expression renameAttributes(Map<String, String> names);
+
+	/**
+	 * @return the operands of the AND operations at the top of the expression,
+	 *         from the left to the right
+	 */
+	public static List<Expression> conjuncts(Expression x) {
+		List<Expression> conjuncts = new ArrayList<Expression>();
+		collectConjuncts(x, conjuncts);
+		return conjuncts;
+	}
+
+	private static void collectConjuncts(Expression x, List<Expression> conjuncts) {
+		if (x instanceof BinaryExpression && x.getLevel() == Level.AND) {
+			collectConjuncts(((BinaryExpression) x).getLeft(), conjuncts);
+			collectConjuncts(((BinaryExpression) x).getRight(), conjuncts);
+		} else {
+			conjuncts.add(x);
+		}
+	}
+
+	/**
+	 * @return the AND of the conditions grouped from the left, or null if there
+	 *         is no condition
+	 */
+	public static Expression conjunction(List<Expression> conditions) {
+		Expression conjunction = null;
+		for (Expression condition : conditions)
+			conjunction = conjunction == null ? condition : BinaryExpression.and(conjunction, condition);
+		return conjunction;
+	}
+}
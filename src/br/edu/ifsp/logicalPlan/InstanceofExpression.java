@@ -0,0 +1,54 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test of the type of a value.
+ */
+public final class InstanceofExpression extends Expression {
+
+	private final Expression operand;
+	private final String type;
+
+	public InstanceofExpression(Expression operand, String type) {
+		this.operand = operand;
+		this.type = type;
+	}
+
+	public Expression getOperand() {
+		return operand;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	@Override
+	public Level getLevel() {
+		return Level.COMPARISON;
+	}
+
+	@Override
+	public Expression renameAttributes(Map<String, String> names) {
+		return new InstanceofExpression(operand.renameAttributes(names), type);
+	}
+
+	@Override
+	public void collectAttributes(Set<String> attributes) {
+		operand.collectAttributes(attributes);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof InstanceofExpression))
+			return false;
+		InstanceofExpression expression = (InstanceofExpression) other;
+		return type.equals(expression.type) && operand.equals(expression.operand);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * operand.hashCode() + type.hashCode();
+	}
+}
@@ -0,0 +1,16 @@
+package br.edu.ifsp.logicalPlan;
+
+/**
+ * Tuples of both inputs. The heading is the heading of the left input.
+ */
+public final class Intersection extends BinaryPlanNode {
+
+	public Intersection(PlanNode left, PlanNode right) {
+		super(left, right, left.getHeading());
+	}
+
+	@Override
+	public PlanNode withInputs(PlanNode left, PlanNode right) {
+		return new Intersection(left, right);
+	}
+}
@@ -0,0 +1,63 @@
+package br.edu.ifsp.logicalPlan;
+
+/**
+ * Natural, inner or cross join of two inputs.
+ */
+public final class Join extends BinaryPlanNode {
+
+	public enum Type {
+		NATURAL, INNER, CROSS
+	}
+
+	private final Type type;
+	private final Expression condition;
+
+	/**
+	 * @param condition
+	 *            is the condition of an inner join and null for the other
+	 *            types
+	 */
+	public Join(Type type, PlanNode left, PlanNode right, Expression condition) {
+		super(left, right, concatenate(left.getHeading(), right.getHeading()));
+		this.type = type;
+		this.condition = condition;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Expression getCondition() {
+		return condition;
+	}
+
+	/**
+	 * @return true if the inputs have attributes with the same name that the
+	 *         join does not merge, which SQL tells apart only by the names of
+	 *         the inputs; false if a heading is unknown
+	 */
+	public boolean hasDuplicateAttributes() {
+		if (type == Type.NATURAL || getHeading() == null)
+			return false;
+		for (String name : getLeft().getAttributeNames())
+			if (getRight().getHeading().hasAttribute(name))
+				return true;
+		return false;
+	}
+
+	@Override
+	public PlanNode withInputs(PlanNode left, PlanNode right) {
+		return new Join(type, left, right, condition);
+	}
+
+	@Override
+	protected boolean hasSameFields(PlanNode other) {
+		Join join = (Join) other;
+		return type == join.type && (condition == null ? join.condition == null : condition.equals(join.condition));
+	}
+
+	@Override
+	protected int fieldsHashCode() {
+		return 31 * type.hashCode() + (condition == null ? 0 : condition.hashCode());
+	}
+}
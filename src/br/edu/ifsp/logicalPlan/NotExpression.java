@@ -0,0 +1,45 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Negation of a factor.
+ */
+public final class NotExpression extends Expression {
+
+	private final Expression operand;
+
+	public NotExpression(Expression operand) {
+		this.operand = operand;
+	}
+
+	public Expression getOperand() {
+		return operand;
+	}
+
+	@Override
+	public Level getLevel() {
+		return Level.PRIMARY;
+	}
+
+	@Override
+	public Expression renameAttributes(Map<String, String> names) {
+		return new NotExpression(operand.renameAttributes(names));
+	}
+
+	@Override
+	public void collectAttributes(Set<String> attributes) {
+		operand.collectAttributes(attributes);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof NotExpression && operand.equals(((NotExpression) other).operand);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * operand.hashCode() + 1;
+	}
+}
@@ -0,0 +1,230 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
+import br.edu.ifsp.syntacticTree.*;
+
+/**
+ * Builds the logical plan of a query from the syntactic tree checked by
+ * RelationCheck, whose headings are used by the plan nodes.
+ *
+ * The operators of a chain of logical, comparison or arithmetic operations
+ * are grouped by the SQL precedence, so the plan means what the SQL written
+ * from the chain always meant.
+ */
+public class PlanBuilder {
+
+	public PlanNode build(ReadyOnlyOperationsNode x) {
+		if (x.getNode() instanceof UnitaryOperationsNode)
+			return buildUnitaryOperationsNode((UnitaryOperationsNode) x.getNode());
+		return buildBinaryOperationsNode((BinaryOperationsNode) x.getNode());
+	}
+
+	private PlanNode buildRelationNode(RelationNode x) {
+		return new Scan(x.getImage().image, x.getHeading());
+	}
+
+	private PlanNode buildUnitaryOperationsNode(UnitaryOperationsNode x) {
+		PlanNode input;
+		if (x.getRelationNode() != null)
+			input = buildRelationNode(x.getRelationNode());
+		else
+			input = build(x.getReadyOnlyOperationsNode());
+
+		Object operation = x.getUnitaryOperationsChildrenNode();
+		if (operation instanceof ProjectNode)
+			return new Project(input, buildAttributeNodeList(((ProjectNode) operation).getProjectNodeList()));
+		if (operation instanceof RenameNode)
+			return new Rename(input, buildRenameSetNodeList(((RenameNode) operation).getRenameSetNodeList()));
+		if (operation instanceof SelectNode)
+			return new Select(input, buildLogicalSentenceNode(((SelectNode) operation).getLogicalSentenceNode()));
+		if (operation instanceof TransitiveCloseNode)
+			return new Closure(input);
+		return input;
+	}
+
+	private List<String> buildAttributeNodeList(ListNode x) {
+		List<String> attributes = new ArrayList<String>();
+		for (Node attribute : x)
+			attributes.add(attribute.getPosition().image);
+		return attributes;
+	}
+
+	private Map<String, String> buildRenameSetNodeList(ListNode x) {
+		Map<String, String> renames = new LinkedHashMap<String, String>();
+		for (Node item : x) {
+			RenameSetNode rename = (RenameSetNode) item;
+			renames.put(rename.getToRenameAttributeNode().getPosition().image,
+					rename.getRenamedAttributeNode().getPosition().image);
+		}
+		return renames;
+	}
+
+	private PlanNode buildBinaryOperationsNode(BinaryOperationsNode x) {
+		BinarySetNode set = x.getBinarySetNode();
+		PlanNode left = set.getReadyOnlyOperationsNode1() != null ? build(set.getReadyOnlyOperationsNode1())
+				: buildRelationNode(set.getRelationNode1());
+		PlanNode right = set.getReadyOnlyOperationsNode2() != null ? build(set.getReadyOnlyOperationsNode2())
+				: buildRelationNode(set.getRelationNode2());
+
+		Object operation = x.getBinaryOperationsNodeChildren();
+		if (operation instanceof UnionNode)
+			return new Union(left, right);
+		if (operation instanceof IntersectionNode)
+			return new Intersection(left, right);
+		if (operation instanceof DifferenceNode)
+			return new Difference(left, right);
+		if (operation instanceof DivisionNode)
+			return new Division(left, right);
+		if (operation instanceof CrossJoinNode)
+			return new Join(Join.Type.CROSS, left, right, null);
+		JoinNode join = (JoinNode) operation;
+		if (join.getLogicalSentenceNode() == null)
+			return new Join(Join.Type.NATURAL, left, right, null);
+		return new Join(Join.Type.INNER, left, right, buildLogicalSentenceNode(join.getLogicalSentenceNode()));
+	}
+
+	/*
+	 * *********************************************************************
+	 * Conditions
+	 **********************************************************************/
+
+	private Expression buildLogicalSentenceNode(LogicalSentenceNode x) {
+		if (x.getConditionalSentenceNode() != null)
+			return buildConditionalSentenceNode(x.getConditionalSentenceNode());
+
+		List<Expression> operands = new ArrayList<Expression>();
+		List<String> operators = new ArrayList<String>();
+		for (LogicalOperatorNode node = x.getLogicalOperatorNode(); node != null; node = node
+				.getNextLogicalOperatorNode()) {
+			operands.add(buildConditionalSentenceNode(node.getConditionalSentenceNode1()));
+			operators.add(convertLogicalOperator(node.getPosition().image));
+			if (node.getNextLogicalOperatorNode() == null)
+				operands.add(buildConditionalSentenceNode(node.getConditionalSentenceNode2()));
+		}
+		return groupLogicalOperators(operands, operators);
+	}
+
+	private String convertLogicalOperator(String x) {
+		switch (x) {
+		case "^":
+			return "AND";
+		case "v":
+			return "OR";
+		default:
+			return "XOR";
+		}
+	}
+
+	private Expression.Level levelOf(String logicalOperator) {
+		switch (logicalOperator) {
+		case "AND":
+			return Expression.Level.AND;
+		case "OR":
+			return Expression.Level.OR;
+		default:
+			return Expression.Level.XOR;
+		}
+	}
+
+	/**
+	 * Groups a chain of logical operators from the tightest to the loosest
+	 * level, each level from the left to the right.
+	 */
+	private Expression groupLogicalOperators(List<Expression> operands, List<String> operators) {
+		Expression.Level levels[] = { Expression.Level.AND, Expression.Level.XOR, Expression.Level.OR };
+		for (Expression.Level level : levels) {
+			int i = 0;
+			while (i < operators.size()) {
+				if (levelOf(operators.get(i)) == level) {
+					Expression grouped = new BinaryExpression(operators.get(i), level, operands.get(i),
+							operands.get(i + 1));
+					operands.set(i, grouped);
+					operands.remove(i + 1);
+					operators.remove(i);
+				} else {
+					i++;
+				}
+			}
+		}
+		return operands.get(0);
+	}
+
+	private Expression buildConditionalSentenceNode(ConditionalSentenceNode x) {
+		// The conditional (->) part has no SQL translation yet
+		return buildComparisonSentenceNode(x.getComparisonSentenceNode());
+	}
+
+	private Expression buildComparisonSentenceNode(ComparisonSentenceNode x) {
+		if (x.getInstanceofSentenceNode() != null)
+			return buildInstanceofSentenceNode(x.getInstanceofSentenceNode());
+
+		ComparisonOperatorNode node = x.getComparisonOperatorNode();
+		Expression expression = buildInstanceofSentenceNode(node.getInstanceofSentenceNode1());
+		while (true) {
+			if (node.getNextComparisonOperatorNode() == null)
+				return new BinaryExpression(node.getPosition().image, Expression.Level.COMPARISON, expression,
+						buildInstanceofSentenceNode(node.getInstanceofSentenceNode2()));
+			ComparisonOperatorNode next = node.getNextComparisonOperatorNode();
+			expression = new BinaryExpression(node.getPosition().image, Expression.Level.COMPARISON, expression,
+					buildInstanceofSentenceNode(next.getInstanceofSentenceNode1()));
+			node = next;
+		}
+	}
+
+	private Expression buildInstanceofSentenceNode(InstanceofSentenceNode x) {
+		Expression expression = buildAdditionSentenceNode(x.getAdditionSentenceNode());
+		if (x.getType() != null)
+			return new InstanceofExpression(expression, x.getType().image);
+		return expression;
+	}
+
+	private Expression buildAdditionSentenceNode(AdditionSentenceNode x) {
+		if (x.getMultiplicationSentenceNode() != null)
+			return buildMultiplicationSentenceNode(x.getMultiplicationSentenceNode());
+
+		AdditionOperatorNode node = x.getAdditionOperatorNode();
+		Expression expression = buildMultiplicationSentenceNode(node.getMultiplicationSentenceNode1());
+		while (true) {
+			if (node.getNextAdditionOperatorNode() == null)
+				return new BinaryExpression(node.getPosition().image, Expression.Level.ADDITION, expression,
+						buildMultiplicationSentenceNode(node.getMultiplicationSentenceNode2()));
+			AdditionOperatorNode next = node.getNextAdditionOperatorNode();
+			expression = new BinaryExpression(node.getPosition().image, Expression.Level.ADDITION, expression,
+					buildMultiplicationSentenceNode(next.getMultiplicationSentenceNode1()));
+			node = next;
+		}
+	}
+
+	private Expression buildMultiplicationSentenceNode(MultiplicationSentenceNode x) {
+		if (x.getFactorNode() != null)
+			return buildFactorNode(x.getFactorNode());
+
+		MultiplicationOperatorNode node = x.getMultiplicationOperatorNode();
+		Expression expression = buildFactorNode(node.getFactorNode1());
+		while (true) {
+			if (node.getNextMultiplicationOperatorNode() == null)
+				return new BinaryExpression(node.getPosition().image, Expression.Level.MULTIPLICATION, expression,
+						buildFactorNode(node.getFactorNode2()));
+			MultiplicationOperatorNode next = node.getNextMultiplicationOperatorNode();
+			expression = new BinaryExpression(node.getPosition().image, Expression.Level.MULTIPLICATION, expression,
+					buildFactorNode(next.getFactorNode1()));
+			node = next;
+		}
+	}
+
+	private Expression buildFactorNode(FactorNode x) {
+		Expression expression;
+		if (x.getConditionalSentenceNode() != null)
+			expression = buildConditionalSentenceNode(x.getConditionalSentenceNode());
+		else if (x.getPosition().kind == RelationalQueryLanguageConstants.IDENTIFIER)
+			expression = new AttributeReference(x.getPosition().image);
+		else
+			expression = new Constant(x.getPosition().image, x.getPosition().kind);
+		return x.getNot() == null ? expression : new NotExpression(expression);
+	}
+}
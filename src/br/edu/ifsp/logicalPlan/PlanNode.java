@@ -0,0 +1,98 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.edu.ifsp.symbolTable.Attribute;
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Operation of the logical plan. Plans are immutable: a rewrite builds new
+ * nodes and shares the unchanged ones.
+ *
+ * The heading of a node is computed from the headings of its inputs; it is
+ * null when the translation has no schema.
+ */
+public abstract class PlanNode {
+
+	private final Relation heading;
+	private int hash;
+
+	protected PlanNode(Relation heading) {
+		this.heading = heading;
+	}
+
+	public Relation getHeading() {
+		return heading;
+	}
+
+	/**
+	 * @return the attribute names of the heading in order
+	 */
+	public List<String> getAttributeNames() {
+		return new ArrayList<String>(heading.getAttributeNames());
+	}
+
+	public abstract List<PlanNode> getInputs();
+
+	/**
+	 * Plans are equal when they have the same operations over the same
+	 * relations, so equal subexpressions of a statement can be found.
+	 */
+	@Override
+	public final boolean equals(Object other) {
+		if (this == other)
+			return true;
+		if (other == null || other.getClass() != getClass())
+			return false;
+		PlanNode node = (PlanNode) other;
+		return hashCode() == node.hashCode() && hasSameFields(node) && getInputs().equals(node.getInputs());
+	}
+
+	/**
+	 * The hash code is computed once, since the plan is immutable.
+	 */
+	@Override
+	public final int hashCode() {
+		if (hash == 0)
+			hash = 31 * (31 * getClass().getName().hashCode() + getInputs().hashCode()) + fieldsHashCode();
+		return hash;
+	}
+
+	/**
+	 * @return true if the node has the same parameters as the other node of
+	 *         the same class
+	 */
+	protected boolean hasSameFields(PlanNode other) {
+		return true;
+	}
+
+	protected int fieldsHashCode() {
+		return 0;
+	}
+
+	/**
+	 * Method used to build a copy of this node over other inputs.
+	 */
+	public abstract PlanNode withInputs(List<PlanNode> inputs);
+
+	/**
+	 * Method used to build a heading with the attributes of the given headings
+	 * in order; an attribute that is repeated keeps its first position.
+	 */
+	protected static Relation concatenate(Relation first, Relation second) {
+		if (first == null || second == null)
+			return null;
+		Relation heading = new Relation();
+		for (String name : first.getAttributeNames())
+			heading.addAttribute(name, first.getAttribute(name));
+		for (String name : second.getAttributeNames())
+			heading.addAttribute(name, second.getAttribute(name));
+		return heading;
+	}
+
+	protected static Attribute attributeOf(Relation heading, String name) {
+		Attribute attribute = heading.getAttribute(name);
+		return attribute != null ? attribute : new Attribute(name, null);
+	}
+}
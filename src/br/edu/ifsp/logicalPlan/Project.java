@@ -0,0 +1,47 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Collections;
+import java.util.List;
+
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Keeps the given attributes of the input, in the given order.
+ */
+public final class Project extends UnaryPlanNode {
+
+	private final List<String> attributes;
+
+	public Project(PlanNode input, List<String> attributes) {
+		super(input, heading(input.getHeading(), attributes));
+		this.attributes = Collections.unmodifiableList(attributes);
+	}
+
+	private static Relation heading(Relation input, List<String> attributes) {
+		if (input == null)
+			return null;
+		Relation heading = new Relation();
+		for (String name : attributes)
+			heading.addAttribute(name, attributeOf(input, name));
+		return heading;
+	}
+
+	public List<String> getAttributes() {
+		return attributes;
+	}
+
+	@Override
+	public PlanNode withInput(PlanNode input) {
+		return new Project(input, attributes);
+	}
+
+	@Override
+	protected boolean hasSameFields(PlanNode other) {
+		return attributes.equals(((Project) other).attributes);
+	}
+
+	@Override
+	protected int fieldsHashCode() {
+		return attributes.hashCode();
+	}
+}
@@ -0,0 +1,60 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Renames attributes of the input. The renamed attributes keep their
+ * positions in the heading.
+ */
+public final class Rename extends UnaryPlanNode {
+
+	private final Map<String, String> renames;
+
+	/**
+	 * @param renames
+	 *            maps the old names to the new names, in the order they were
+	 *            written
+	 */
+	public Rename(PlanNode input, Map<String, String> renames) {
+		super(input, heading(input.getHeading(), renames));
+		this.renames = Collections.unmodifiableMap(new LinkedHashMap<String, String>(renames));
+	}
+
+	private static Relation heading(Relation input, Map<String, String> renames) {
+		if (input == null)
+			return null;
+		Relation heading = new Relation();
+		for (String name : input.getAttributeNames()) {
+			String newName = renames.containsKey(name) ? renames.get(name) : name;
+			heading.addAttribute(newName, input.getAttribute(name));
+		}
+		return heading;
+	}
+
+	public Map<String, String> getRenames() {
+		return renames;
+	}
+
+	@Override
+	public PlanNode withInput(PlanNode input) {
+		return new Rename(input, renames);
+	}
+
+	@Override
+	protected boolean hasSameFields(PlanNode other) {
+		Rename rename = (Rename) other;
+		// The order of the renamings is part of the generated SQL
+		return new ArrayList<Map.Entry<String, String>>(renames.entrySet())
+				.equals(new ArrayList<Map.Entry<String, String>>(rename.renames.entrySet()));
+	}
+
+	@Override
+	protected int fieldsHashCode() {
+		return renames.hashCode();
+	}
+}
@@ -0,0 +1,43 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Collections;
+import java.util.List;
+
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Reads a relation of the schema.
+ */
+public final class Scan extends PlanNode {
+
+	private final String relationName;
+
+	public Scan(String relationName, Relation heading) {
+		super(heading);
+		this.relationName = relationName;
+	}
+
+	public String getRelationName() {
+		return relationName;
+	}
+
+	@Override
+	public List<PlanNode> getInputs() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public PlanNode withInputs(List<PlanNode> inputs) {
+		return this;
+	}
+
+	@Override
+	protected boolean hasSameFields(PlanNode other) {
+		return relationName.equals(((Scan) other).relationName);
+	}
+
+	@Override
+	protected int fieldsHashCode() {
+		return relationName.hashCode();
+	}
+}
@@ -0,0 +1,33 @@
+package br.edu.ifsp.logicalPlan;
+
+/**
+ * Keeps the tuples of the input that satisfy the condition.
+ */
+public final class Select extends UnaryPlanNode {
+
+	private final Expression condition;
+
+	public Select(PlanNode input, Expression condition) {
+		super(input, input.getHeading());
+		this.condition = condition;
+	}
+
+	public Expression getCondition() {
+		return condition;
+	}
+
+	@Override
+	public PlanNode withInput(PlanNode input) {
+		return new Select(input, condition);
+	}
+
+	@Override
+	protected boolean hasSameFields(PlanNode other) {
+		return condition.equals(((Select) other).condition);
+	}
+
+	@Override
+	protected int fieldsHashCode() {
+		return condition.hashCode();
+	}
+}
@@ -0,0 +1,35 @@
+package br.edu.ifsp.logicalPlan;
+
+import java.util.Collections;
+import java.util.List;
+
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Operation over a single input.
+ */
+public abstract class UnaryPlanNode extends PlanNode {
+
+	private final PlanNode input;
+
+	protected UnaryPlanNode(PlanNode input, Relation heading) {
+		super(heading);
+		this.input = input;
+	}
+
+	public PlanNode getInput() {
+		return input;
+	}
+
+	@Override
+	public List<PlanNode> getInputs() {
+		return Collections.singletonList(input);
+	}
+
+	@Override
+	public PlanNode withInputs(List<PlanNode> inputs) {
+		return withInput(inputs.get(0));
+	}
+
+	public abstract PlanNode withInput(PlanNode input);
+}
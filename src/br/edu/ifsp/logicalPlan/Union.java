@@ -0,0 +1,16 @@
+package br.edu.ifsp.logicalPlan;
+
+/**
+ * Tuples of any of the inputs. The heading is the heading of the left input.
+ */
+public final class Union extends BinaryPlanNode {
+
+	public Union(PlanNode left, PlanNode right) {
+		super(left, right, left.getHeading());
+	}
+
+	@Override
+	public PlanNode withInputs(PlanNode left, PlanNode right) {
+		return new Union(left, right);
+	}
+}
@@ -0,0 +1,74 @@
+package br.edu.ifsp.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Scan;
+
+/**
+ * Finds the subexpressions that a statement uses more than once. The plan is
+ * hash-consed: every node is replaced by the first equal node found, so equal
+ * subexpressions become the same node, which is then used by several nodes.
+ *
+ * A table is used for a single statement; relations are never reported as
+ * shared, since they are already written by name.
+ */
+public class CommonSubexpressions {
+
+	private final Map<PlanNode, PlanNode> nodes = new HashMap<PlanNode, PlanNode>();
+	private final Map<PlanNode, Integer> uses = new IdentityHashMap<PlanNode, Integer>();
+
+	/**
+	 * @return the plan where equal subexpressions are the same node
+	 */
+	public PlanNode intern(PlanNode plan) {
+		PlanNode root = canonical(plan);
+		countUses(root);
+		return root;
+	}
+
+	/**
+	 * @return true if the node is an input of more than one node of the
+	 *         interned plan
+	 */
+	public boolean isShared(PlanNode node) {
+		Integer count = uses.get(node);
+		return count != null && count > 1 && !(node instanceof Scan);
+	}
+
+	private PlanNode canonical(PlanNode node) {
+		List<PlanNode> inputs = node.getInputs();
+		List<PlanNode> canonicalInputs = new ArrayList<PlanNode>(inputs.size());
+		boolean changed = false;
+		for (PlanNode input : inputs) {
+			PlanNode canonicalInput = canonical(input);
+			changed |= canonicalInput != input;
+			canonicalInputs.add(canonicalInput);
+		}
+		if (changed)
+			node = node.withInputs(canonicalInputs);
+
+		PlanNode known = nodes.get(node);
+		if (known != null)
+			return known;
+		nodes.put(node, node);
+		return node;
+	}
+
+	/**
+	 * Method used to count the nodes that use every node; the inputs of a node
+	 * are counted only the first time it is found.
+	 */
+	private void countUses(PlanNode node) {
+		for (PlanNode input : node.getInputs()) {
+			Integer count = uses.get(input);
+			uses.put(input, count == null ? 1 : count + 1);
+			if (count == null)
+				countUses(input);
+		}
+	}
+}
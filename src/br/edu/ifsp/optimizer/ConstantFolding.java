@@ -0,0 +1,269 @@
+package br.edu.ifsp.optimizer;
+
+import java.math.BigDecimal;
+
+import br.edu.ifsp.logicalPlan.BinaryExpression;
+import br.edu.ifsp.logicalPlan.BinaryPlanNode;
+import br.edu.ifsp.logicalPlan.Closure;
+import br.edu.ifsp.logicalPlan.Constant;
+import br.edu.ifsp.logicalPlan.Difference;
+import br.edu.ifsp.logicalPlan.Division;
+import br.edu.ifsp.logicalPlan.EmptyRelation;
+import br.edu.ifsp.logicalPlan.Expression;
+import br.edu.ifsp.logicalPlan.Intersection;
+import br.edu.ifsp.logicalPlan.Join;
+import br.edu.ifsp.logicalPlan.NotExpression;
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Project;
+import br.edu.ifsp.logicalPlan.Select;
+import br.edu.ifsp.logicalPlan.UnaryPlanNode;
+import br.edu.ifsp.logicalPlan.Union;
+import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
+
+/**
+ * Decides at translation time the parts of the conditions that do not depend
+ * on the tuples. Arithmetic and comparisons of decimal constants are computed,
+ * booleans are compared for equality, and the logical operations with a TRUE
+ * or FALSE operand are reduced. Strings are left to the database, whose
+ * collation may ignore case or trailing spaces.
+ *
+ * A selection whose condition is always true is removed and one whose
+ * condition is always false becomes an empty relation, which is carried up
+ * the plan: operations over it are empty too, and it is removed from unions
+ * and from the right side of differences.
+ */
+public class ConstantFolding implements Rule {
+
+	public static final Constant TRUE = new Constant("TRUE", RelationalQueryLanguageConstants.TRUE);
+	public static final Constant FALSE = new Constant("FALSE", RelationalQueryLanguageConstants.FALSE);
+
+	@Override
+	public PlanNode apply(PlanNode node) {
+		if (node instanceof Select) {
+			Select select = (Select) node;
+			if (select.getInput() instanceof EmptyRelation)
+				return select.getInput();
+			Expression condition = simplify(select.getCondition());
+			if (isTrue(condition))
+				return select.getInput();
+			if (isFalse(condition))
+				return new EmptyRelation(select.getInput());
+			return condition == select.getCondition() ? node : new Select(select.getInput(), condition);
+		}
+		if (node instanceof Join)
+			return applyToJoin((Join) node);
+		if (node instanceof UnaryPlanNode && !(node instanceof EmptyRelation)) {
+			PlanNode input = ((UnaryPlanNode) node).getInput();
+			if (!(input instanceof EmptyRelation))
+				return node;
+			PlanNode witness = ((EmptyRelation) input).getInput();
+			// The closure of an empty relation is empty and has the same heading
+			if (node instanceof Closure)
+				return input;
+			return new EmptyRelation(((UnaryPlanNode) node).withInput(witness));
+		}
+		if (node instanceof BinaryPlanNode)
+			return applyToSetOperation((BinaryPlanNode) node);
+		return node;
+	}
+
+	private PlanNode applyToJoin(Join join) {
+		PlanNode left = join.getLeft();
+		PlanNode right = join.getRight();
+		if (left instanceof EmptyRelation || right instanceof EmptyRelation)
+			return new EmptyRelation(join.withInputs(witness(left), witness(right)));
+		if (join.getCondition() == null)
+			return join;
+
+		Expression condition = simplify(join.getCondition());
+		if (isTrue(condition))
+			return new Join(Join.Type.CROSS, left, right, null);
+		if (isFalse(condition))
+			return new EmptyRelation(new Join(Join.Type.CROSS, left, right, null));
+		return condition == join.getCondition() ? join : new Join(join.getType(), left, right, condition);
+	}
+
+	private PlanNode applyToSetOperation(BinaryPlanNode node) {
+		PlanNode left = node.getLeft();
+		PlanNode right = node.getRight();
+		boolean leftEmpty = left instanceof EmptyRelation;
+		boolean rightEmpty = right instanceof EmptyRelation;
+		if (!leftEmpty && !rightEmpty)
+			return node;
+
+		if (node instanceof Union) {
+			if (rightEmpty)
+				return left;
+			// The heading of a union is the heading of its left input
+			if (left.getHeading() != null && left.getAttributeNames().equals(right.getAttributeNames()))
+				return right;
+		} else if (node instanceof Difference) {
+			// Nothing is removed from the left input, or the left input is empty
+			return left;
+		} else if (node instanceof Intersection) {
+			return leftEmpty ? left : new EmptyRelation(left);
+		} else if (node instanceof Division && leftEmpty && node.getHeading() != null) {
+			// The quotient of an empty dividend is empty
+			return new EmptyRelation(new Project(witness(left), node.getAttributeNames()));
+		}
+		return node;
+	}
+
+	private static PlanNode witness(PlanNode node) {
+		return node instanceof EmptyRelation ? ((EmptyRelation) node).getInput() : node;
+	}
+
+	/**
+	 * @return the simplified expression, or the same expression if nothing
+	 *         could be decided
+	 */
+	public static Expression simplify(Expression x) {
+		if (x instanceof NotExpression) {
+			Expression operand = simplify(((NotExpression) x).getOperand());
+			if (isTrue(operand))
+				return FALSE;
+			if (isFalse(operand))
+				return TRUE;
+			return operand == ((NotExpression) x).getOperand() ? x : new NotExpression(operand);
+		}
+		if (!(x instanceof BinaryExpression))
+			return x;
+
+		BinaryExpression binary = (BinaryExpression) x;
+		Expression left = simplify(binary.getLeft());
+		Expression right = simplify(binary.getRight());
+		Expression simplified;
+		switch (binary.getLevel()) {
+		case AND:
+		case OR:
+		case XOR:
+			simplified = simplifyLogical(binary.getLevel(), left, right);
+			break;
+		case COMPARISON:
+			simplified = compare(binary.getOperator(), left, right);
+			break;
+		default:
+			simplified = calculate(binary.getOperator(), left, right);
+		}
+		if (simplified != null)
+			return simplified;
+		if (left == binary.getLeft() && right == binary.getRight())
+			return x;
+		return new BinaryExpression(binary.getOperator(), binary.getLevel(), left, right);
+	}
+
+	private static Expression simplifyLogical(Expression.Level level, Expression left, Expression right) {
+		Expression[] operands = { left, right };
+		for (int i = 0; i < 2; i++) {
+			Expression operand = operands[i];
+			Expression other = operands[1 - i];
+			boolean value = isTrue(operand);
+			if (!value && !isFalse(operand))
+				continue;
+			switch (level) {
+			case AND:
+				return value ? other : FALSE;
+			case OR:
+				return value ? TRUE : other;
+			default:
+				return value ? simplify(new NotExpression(other)) : other;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the result of a comparison of constants, or null if it is not
+	 *         known
+	 */
+	private static Expression compare(String operator, Expression left, Expression right) {
+		if (!(left instanceof Constant) || !(right instanceof Constant))
+			return null;
+		Constant first = (Constant) left;
+		Constant second = (Constant) right;
+		int comparison;
+		if (isNumber(first) && isNumber(second))
+			comparison = new BigDecimal(first.getImage()).compareTo(new BigDecimal(second.getImage()));
+		else if (isBoolean(first) && isBoolean(second))
+			comparison = first.getKind() == second.getKind() ? 0 : 1;
+		else
+			return null;
+
+		// Only numbers are ordered
+		boolean ordered = isNumber(first);
+		switch (operator) {
+		case "=":
+			return comparison == 0 ? TRUE : FALSE;
+		case "!=":
+		case "<>":
+			return comparison != 0 ? TRUE : FALSE;
+		case "<":
+			return ordered ? (comparison < 0 ? TRUE : FALSE) : null;
+		case "<=":
+			return ordered ? (comparison <= 0 ? TRUE : FALSE) : null;
+		case ">":
+			return ordered ? (comparison > 0 ? TRUE : FALSE) : null;
+		case ">=":
+			return ordered ? (comparison >= 0 ? TRUE : FALSE) : null;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @return the result of an arithmetic operation of decimal constants, or
+	 *         null if it is not known; the quotient of integers is not known,
+	 *         since it is truncated by some databases and decimal in MySQL,
+	 *         while the remainder is the same in all of them
+	 */
+	private static Expression calculate(String operator, Expression left, Expression right) {
+		if (!(left instanceof Constant) || !(right instanceof Constant) || !isNumber((Constant) left)
+				|| !isNumber((Constant) right))
+			return null;
+		Constant first = (Constant) left;
+		Constant second = (Constant) right;
+		boolean integers = first.getKind() == RelationalQueryLanguageConstants.INTEGER
+				&& second.getKind() == RelationalQueryLanguageConstants.INTEGER;
+		BigDecimal a = new BigDecimal(first.getImage());
+		BigDecimal b = new BigDecimal(second.getImage());
+		BigDecimal result;
+		switch (operator) {
+		case "+":
+			result = a.add(b);
+			break;
+		case "-":
+			result = a.subtract(b);
+			break;
+		case "*":
+			result = a.multiply(b);
+			break;
+		case "%":
+			if (!integers || b.signum() == 0)
+				return null;
+			result = new BigDecimal(a.toBigInteger().remainder(b.toBigInteger()));
+			break;
+		default:
+			return null;
+		}
+		return new Constant(result.toPlainString(),
+				integers ? RelationalQueryLanguageConstants.INTEGER : RelationalQueryLanguageConstants.DECIMAL);
+	}
+
+	public static boolean isTrue(Expression x) {
+		return x instanceof Constant && ((Constant) x).getKind() == RelationalQueryLanguageConstants.TRUE;
+	}
+
+	public static boolean isFalse(Expression x) {
+		return x instanceof Constant && ((Constant) x).getKind() == RelationalQueryLanguageConstants.FALSE;
+	}
+
+	private static boolean isNumber(Constant x) {
+		return x.getKind() == RelationalQueryLanguageConstants.INTEGER
+				|| x.getKind() == RelationalQueryLanguageConstants.DECIMAL;
+	}
+
+	private static boolean isBoolean(Constant x) {
+		return x.getKind() == RelationalQueryLanguageConstants.TRUE
+				|| x.getKind() == RelationalQueryLanguageConstants.FALSE;
+	}
+}
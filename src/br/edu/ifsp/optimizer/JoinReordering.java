@@ -0,0 +1,395 @@
+package br.edu.ifsp.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import br.edu.ifsp.logicalPlan.AttributeReference;
+import br.edu.ifsp.logicalPlan.BinaryExpression;
+import br.edu.ifsp.logicalPlan.Constant;
+import br.edu.ifsp.logicalPlan.Difference;
+import br.edu.ifsp.logicalPlan.Division;
+import br.edu.ifsp.logicalPlan.Expression;
+import br.edu.ifsp.logicalPlan.Intersection;
+import br.edu.ifsp.logicalPlan.Join;
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Project;
+import br.edu.ifsp.logicalPlan.Scan;
+import br.edu.ifsp.logicalPlan.Select;
+import br.edu.ifsp.logicalPlan.UnaryPlanNode;
+import br.edu.ifsp.logicalPlan.Union;
+import br.edu.ifsp.symbolTable.Attribute;
+import br.edu.ifsp.symbolTable.Reference;
+import br.edu.ifsp.symbolTable.RelationSnapshot;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+
+/**
+ * Chooses the order of a group of joins. The joins whose inputs have no
+ * duplicate attributes are a single natural join of all their inputs with
+ * the conjunction of their conditions, so the inputs can be joined in any
+ * order; the group is rewritten as a chain of joins from the left, which the
+ * code generator writes in a single FROM clause, and a projection keeps the
+ * order of the attributes.
+ *
+ * The order is the one with the smallest sum of estimated intermediate
+ * results, found by dynamic programming over the subsets of the inputs. The
+ * size of a relation is the number of tuples given with the schema; a join
+ * over a key of an input matches each tuple of the other input once, and a
+ * foreign key has at most as many values as the relation it references.
+ * Groups of more than MAXIMUM_INPUTS inputs keep their order, and a chain
+ * that is as good as the best order is not changed.
+ */
+public class JoinReordering implements Rule {
+
+	/**
+	 * Size of a relation without statistics.
+	 */
+	public static final long DEFAULT_ROW_COUNT = 1000;
+
+	public static final int MAXIMUM_INPUTS = 10;
+
+	/**
+	 * Fraction of the tuples kept by a condition that is not an equality,
+	 * and fraction of the tuples with distinct values in an attribute that is
+	 * not a key.
+	 */
+	private static final double SELECTIVITY = 1.0 / 3;
+	private static final double DISTINCT_FRACTION = 0.1;
+
+	private final SchemaSnapshot schema;
+
+	/**
+	 * @param schema
+	 *            gives the sizes of the relations; it may be null
+	 */
+	public JoinReordering(SchemaSnapshot schema) {
+		this.schema = schema;
+	}
+
+	public JoinReordering() {
+		this(null);
+	}
+
+	@Override
+	public PlanNode apply(PlanNode node) {
+		if (!(node instanceof Join) || !isGrouped(node))
+			return node;
+		Group group = new Group();
+		group.collect(node, false);
+		int n = group.inputs.size();
+		if (n < 3 || n > MAXIMUM_INPUTS)
+			return node;
+
+		Estimate estimate = new Estimate(group);
+		int order[] = estimate.bestOrder();
+		if (group.leftDeep && estimate.cost(identity(n)) <= estimate.cost(order) * (1 + 1e-9))
+			return node;
+
+		PlanNode joined = build(group, order);
+		if (!joined.getAttributeNames().equals(node.getAttributeNames()))
+			joined = new Project(joined, node.getAttributeNames());
+		return joined;
+	}
+
+	/**
+	 * @return true if the node is a join of the group of the join over it:
+	 *         a join without duplicate attributes, possibly under a selection
+	 *         or under a projection that only reorders its attributes
+	 */
+	private static boolean isGrouped(PlanNode node) {
+		if (node instanceof Join)
+			return node.getHeading() != null && !((Join) node).hasDuplicateAttributes();
+		if (node instanceof Select)
+			return isGrouped(((Select) node).getInput());
+		if (node instanceof Project)
+			return isPermutation((Project) node) && isGrouped(((Project) node).getInput());
+		return false;
+	}
+
+	private static boolean isPermutation(Project project) {
+		PlanNode input = project.getInput();
+		return input.getHeading() != null && project.getAttributes().size() == input.getHeading().getNumberOfAttributes()
+				&& input.getHeading().getAttributeNames().containsAll(project.getAttributes());
+	}
+
+	/**
+	 * Method used to join the inputs in the given order from the left. Each
+	 * condition goes to the first join that has its attributes: an inner join,
+	 * or a selection over a natural join.
+	 */
+	private static PlanNode build(Group group, int order[]) {
+		List<Expression> remaining = new ArrayList<Expression>(group.conditions);
+		PlanNode joined = group.inputs.get(order[0]);
+		for (int k = 1; k < order.length; k++) {
+			PlanNode next = group.inputs.get(order[k]);
+			boolean natural = false;
+			for (String name : next.getAttributeNames())
+				natural |= joined.getHeading().hasAttribute(name);
+
+			Set<String> names = new HashSet<String>(joined.getAttributeNames());
+			names.addAll(next.getAttributeNames());
+			List<Expression> applicable = new ArrayList<Expression>();
+			for (Expression condition : remaining)
+				if (names.containsAll(condition.getAttributes()))
+					applicable.add(condition);
+			remaining.removeAll(applicable);
+
+			if (natural) {
+				joined = new Join(Join.Type.NATURAL, joined, next, null);
+				if (!applicable.isEmpty())
+					joined = new Select(joined, Expression.conjunction(applicable));
+			} else {
+				Join.Type type = applicable.isEmpty() ? Join.Type.CROSS : Join.Type.INNER;
+				joined = new Join(type, joined, next, Expression.conjunction(applicable));
+			}
+		}
+		return remaining.isEmpty() ? joined : new Select(joined, Expression.conjunction(remaining));
+	}
+
+	private static int[] identity(int n) {
+		int order[] = new int[n];
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+		return order;
+	}
+
+	/**
+	 * Inputs and conditions of a group of joins, in the order they are
+	 * written.
+	 */
+	private static class Group {
+		final List<PlanNode> inputs = new ArrayList<PlanNode>();
+		final List<Expression> conditions = new ArrayList<Expression>();
+		/**
+		 * Whether the joins are a chain from the left with the conditions in
+		 * joins or in selections.
+		 */
+		boolean leftDeep = true;
+
+		void collect(PlanNode node, boolean right) {
+			if (!isGrouped(node)) {
+				inputs.add(node);
+				return;
+			}
+			leftDeep &= !right;
+			if (node instanceof Join) {
+				Join join = (Join) node;
+				collect(join.getLeft(), false);
+				collect(join.getRight(), true);
+				if (join.getCondition() != null)
+					conditions.addAll(Expression.conjuncts(join.getCondition()));
+			} else if (node instanceof Select) {
+				collect(((Select) node).getInput(), right);
+				conditions.addAll(Expression.conjuncts(((Select) node).getCondition()));
+			} else {
+				leftDeep = false;
+				collect(((Project) node).getInput(), right);
+			}
+		}
+	}
+
+	/**
+	 * Estimated sizes of the joins of the subsets of the inputs of a group.
+	 */
+	private class Estimate {
+		private final Group group;
+		private final KeyAnalysis keys = new KeyAnalysis();
+		private final double rows[];
+		private final Map<String, List<Integer>> owners = new HashMap<String, List<Integer>>();
+
+		Estimate(Group group) {
+			this.group = group;
+			int n = group.inputs.size();
+			rows = new double[n];
+			for (int i = 0; i < n; i++) {
+				PlanNode input = group.inputs.get(i);
+				rows[i] = rowCount(input);
+				for (String name : input.getAttributeNames()) {
+					List<Integer> inputs = owners.get(name);
+					if (inputs == null) {
+						inputs = new ArrayList<Integer>();
+						owners.put(name, inputs);
+					}
+					inputs.add(i);
+				}
+			}
+		}
+
+		/**
+		 * @return the order of the inputs with the smallest cost; ties keep
+		 *         the inputs written first
+		 */
+		int[] bestOrder() {
+			int n = rows.length;
+			int subsets = 1 << n;
+			double cost[] = new double[subsets];
+			int last[] = new int[subsets];
+			for (int subset = 1; subset < subsets; subset++) {
+				if (Integer.bitCount(subset) == 1) {
+					last[subset] = Integer.numberOfTrailingZeros(subset);
+					continue;
+				}
+				cost[subset] = Double.MAX_VALUE;
+				for (int i = 0; i < n; i++) {
+					int rest = subset & ~(1 << i);
+					// The input written last is preferred as the last one joined
+					if (rest != subset && cost[rest] <= cost[subset]) {
+						cost[subset] = cost[rest];
+						last[subset] = i;
+					}
+				}
+				cost[subset] += size(subset);
+			}
+
+			int order[] = new int[n];
+			int subset = subsets - 1;
+			for (int k = n - 1; k >= 0; k--) {
+				order[k] = last[subset];
+				subset &= ~(1 << order[k]);
+			}
+			return order;
+		}
+
+		/**
+		 * @return the sum of the sizes of the joins of the order
+		 */
+		double cost(int order[]) {
+			double cost = 0;
+			int subset = 1 << order[0];
+			for (int k = 1; k < order.length; k++) {
+				subset |= 1 << order[k];
+				cost += size(subset);
+			}
+			return cost;
+		}
+
+		/**
+		 * @return the estimated size of the join of the inputs of the subset,
+		 *         which does not depend on the order of the joins
+		 */
+		double size(int subset) {
+			double size = 1;
+			for (int i = 0; i < rows.length; i++)
+				if ((subset & 1 << i) != 0)
+					size *= rows[i];
+
+			// Every input after the one with fewest values matches one value
+			for (Map.Entry<String, List<Integer>> owner : owners.entrySet()) {
+				double product = 1;
+				double minimum = Double.MAX_VALUE;
+				int count = 0;
+				for (int i : owner.getValue())
+					if ((subset & 1 << i) != 0) {
+						double values = distinctValues(i, owner.getKey());
+						product *= values;
+						minimum = Math.min(minimum, values);
+						count++;
+					}
+				if (count > 1)
+					size /= product / minimum;
+			}
+
+			for (Expression condition : group.conditions)
+				if (isCovered(condition, subset))
+					size *= selectivity(condition, subset);
+			return Math.max(size, 1);
+		}
+
+		private boolean isCovered(Expression condition, int subset) {
+			for (String name : condition.getAttributes())
+				if (owner(name, subset) < 0)
+					return false;
+			return true;
+		}
+
+		/**
+		 * @return an input of the subset with the attribute, or -1
+		 */
+		private int owner(String name, int subset) {
+			List<Integer> inputs = owners.get(name);
+			if (inputs != null)
+				for (int i : inputs)
+					if ((subset & 1 << i) != 0)
+						return i;
+			return -1;
+		}
+
+		private double selectivity(Expression condition, int subset) {
+			if (condition instanceof BinaryExpression && "=".equals(((BinaryExpression) condition).getOperator())) {
+				Expression left = ((BinaryExpression) condition).getLeft();
+				Expression right = ((BinaryExpression) condition).getRight();
+				if (left instanceof AttributeReference && right instanceof AttributeReference) {
+					String first = ((AttributeReference) left).getName();
+					String second = ((AttributeReference) right).getName();
+					return 1 / Math.max(distinctValues(owner(first, subset), first),
+							distinctValues(owner(second, subset), second));
+				}
+			}
+			return SELECTIVITY;
+		}
+
+		private double distinctValues(int input, String name) {
+			PlanNode node = group.inputs.get(input);
+			Set<String> attribute = new LinkedHashSet<String>();
+			attribute.add(name);
+			if (keys.getKeys(node).contains(attribute))
+				return rows[input];
+			Attribute definition = node.getHeading().getAttribute(name);
+			Reference reference = definition == null ? null : (Reference) definition.getFeature("reference");
+			double values = Math.max(1, rows[input] * DISTINCT_FRACTION);
+			if (reference != null)
+				values = Math.min(values, relationRowCount(reference.getRelation()));
+			return values;
+		}
+	}
+
+	/**
+	 * @return the estimated number of tuples of the node
+	 */
+	private double rowCount(PlanNode node) {
+		double rows;
+		if (node instanceof Scan) {
+			rows = relationRowCount(((Scan) node).getRelationName());
+		} else if (node instanceof Select) {
+			rows = rowCount(((Select) node).getInput());
+			for (Expression condition : Expression.conjuncts(((Select) node).getCondition()))
+				rows *= isEqualityToConstant(condition) ? DISTINCT_FRACTION : SELECTIVITY;
+		} else if (node instanceof Join) {
+			Join join = (Join) node;
+			double left = rowCount(join.getLeft());
+			double right = rowCount(join.getRight());
+			rows = join.getType() == Join.Type.CROSS ? left * right : Math.max(left, right);
+		} else if (node instanceof Union) {
+			rows = rowCount(((Union) node).getLeft()) + rowCount(((Union) node).getRight());
+		} else if (node instanceof Intersection || node instanceof Difference) {
+			rows = rowCount(node.getInputs().get(0));
+		} else if (node instanceof Division) {
+			rows = rowCount(((Division) node).getLeft()) * DISTINCT_FRACTION;
+		} else if (node instanceof UnaryPlanNode) {
+			rows = rowCount(((UnaryPlanNode) node).getInput());
+		} else {
+			rows = DEFAULT_ROW_COUNT;
+		}
+		return Math.max(rows, 1);
+	}
+
+	private double relationRowCount(String name) {
+		RelationSnapshot relation = schema == null ? null : schema.getRelation(name);
+		if (relation == null || relation.getRowCount() < 0)
+			return DEFAULT_ROW_COUNT;
+		return Math.max(relation.getRowCount(), 1);
+	}
+
+	private static boolean isEqualityToConstant(Expression condition) {
+		if (!(condition instanceof BinaryExpression) || !"=".equals(((BinaryExpression) condition).getOperator()))
+			return false;
+		Expression left = ((BinaryExpression) condition).getLeft();
+		Expression right = ((BinaryExpression) condition).getRight();
+		return left instanceof AttributeReference && right instanceof Constant
+				|| left instanceof Constant && right instanceof AttributeReference;
+	}
+}
@@ -0,0 +1,321 @@
+package br.edu.ifsp.optimizer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import br.edu.ifsp.logicalPlan.AttributeReference;
+import br.edu.ifsp.logicalPlan.BinaryExpression;
+import br.edu.ifsp.logicalPlan.Constant;
+import br.edu.ifsp.logicalPlan.Difference;
+import br.edu.ifsp.logicalPlan.Division;
+import br.edu.ifsp.logicalPlan.EmptyRelation;
+import br.edu.ifsp.logicalPlan.Expression;
+import br.edu.ifsp.logicalPlan.Intersection;
+import br.edu.ifsp.logicalPlan.Join;
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Project;
+import br.edu.ifsp.logicalPlan.Rename;
+import br.edu.ifsp.logicalPlan.Scan;
+import br.edu.ifsp.logicalPlan.Select;
+import br.edu.ifsp.logicalPlan.UnaryPlanNode;
+import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Finds the keys of the nodes of a logical plan, so the code generator writes
+ * DISTINCT only where a SELECT may produce repeated tuples.
+ *
+ * A relation is read as it is stored, so its tuples are distinct only if it
+ * has a primary key; any other node is generated as a set. The keys go
+ * through selections and renamings, projections keep the keys they contain,
+ * and a join is keyed by the union of a key of each side, or by the keys of
+ * one side when the join attributes of the other contain a key of it.
+ *
+ * The keys are computed once per node of the plan, so an analysis must not
+ * be shared by plans generated at the same time.
+ */
+public class KeyAnalysis {
+
+	private final Map<PlanNode, List<Set<String>>> keys = new IdentityHashMap<PlanNode, List<Set<String>>>();
+
+	/**
+	 * @return the minimal known keys of the node, empty if its tuples may be
+	 *         repeated or if it has no heading
+	 */
+	public List<Set<String>> getKeys(PlanNode node) {
+		List<Set<String>> result = keys.get(node);
+		if (result == null) {
+			result = computeKeys(node);
+			keys.put(node, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return true if the tuples of the node are distinct as it is read in a
+	 *         FROM clause
+	 */
+	public boolean hasDistinctTuples(PlanNode node) {
+		return !(node instanceof Scan) || !getKeys(node).isEmpty();
+	}
+
+	/**
+	 * @return true if the SELECT of the node must be DISTINCT; set operations
+	 *         remove repeated tuples by themselves
+	 */
+	public boolean needsDistinct(PlanNode node) {
+		if (node instanceof Scan)
+			return !hasDistinctTuples(node);
+		if (node instanceof Project) {
+			Project project = (Project) node;
+			return !hasDistinctTuples(project.getInput())
+					|| !containsKey(project.getAttributes(), getKeys(project.getInput()));
+		}
+		if (node instanceof Select || node instanceof Rename)
+			return !hasDistinctTuples(node.getInputs().get(0));
+		if (node instanceof Join)
+			return !hasDistinctTuples(((Join) node).getLeft()) || !hasDistinctTuples(((Join) node).getRight());
+		if (node instanceof EmptyRelation)
+			return false;
+		return true;
+	}
+
+	/**
+	 * @return true if the attributes contain a key of the node
+	 */
+	public boolean containsKey(PlanNode node, Collection<String> attributes) {
+		return containsKey(attributes, getKeys(node));
+	}
+
+	/**
+	 * @return true if no tuple can be in both nodes, because an attribute is
+	 *         equal to different numbers in them
+	 */
+	public boolean areDisjoint(PlanNode left, PlanNode right) {
+		if (left.getHeading() == null || right.getHeading() == null
+				|| !left.getAttributeNames().equals(right.getAttributeNames()))
+			return false;
+		Map<String, Constant> leftConstants = constants(left);
+		Map<String, Constant> rightConstants = constants(right);
+		for (Map.Entry<String, Constant> entry : leftConstants.entrySet()) {
+			Constant constant = rightConstants.get(entry.getKey());
+			if (constant != null && areDifferent(entry.getValue(), constant))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the attributes on which a tuple of the left node can be looked up
+	 * in the right node. Both nodes must be selections and projections of the
+	 * same relation that keep its primary key: tuples with the same key are
+	 * then the same tuple, and a primary key is never null, so the key can be
+	 * compared with = instead of comparing every attribute.
+	 *
+	 * @return the primary key, or null if the nodes are not such restrictions
+	 */
+	public Set<String> getCorrelationKey(PlanNode left, PlanNode right) {
+		Scan leftOrigin = origin(left);
+		Scan rightOrigin = origin(right);
+		if (leftOrigin == null || rightOrigin == null
+				|| !leftOrigin.getRelationName().equals(rightOrigin.getRelationName())
+				|| !left.getAttributeNames().equals(right.getAttributeNames()))
+			return null;
+		for (Set<String> key : getKeys(leftOrigin))
+			if (left.getAttributeNames().containsAll(key))
+				return key;
+		return null;
+	}
+
+	/**
+	 * @return the relation under the selections and projections of the node,
+	 *         or null if there is another operation
+	 */
+	private static Scan origin(PlanNode node) {
+		while (node instanceof Select || node instanceof Project)
+			node = ((UnaryPlanNode) node).getInput();
+		return node instanceof Scan && node.getHeading() != null ? (Scan) node : null;
+	}
+
+	private List<Set<String>> computeKeys(PlanNode node) {
+		List<Set<String>> result = new ArrayList<Set<String>>();
+		Relation heading = node.getHeading();
+		if (heading == null)
+			return result;
+
+		if (node instanceof Scan) {
+			Set<String> primaryKey = new LinkedHashSet<String>();
+			for (String name : heading.getAttributeNames())
+				if (heading.getAttribute(name).isPrimaryKey())
+					primaryKey.add(name);
+			if (!primaryKey.isEmpty())
+				result.add(primaryKey);
+			return result;
+		}
+
+		if (node instanceof Select) {
+			addKeys(result, getKeys(((Select) node).getInput()));
+		} else if (node instanceof Project) {
+			Project project = (Project) node;
+			for (Set<String> key : getKeys(project.getInput()))
+				if (project.getAttributes().containsAll(key))
+					addKey(result, key);
+		} else if (node instanceof Rename) {
+			Map<String, String> renames = ((Rename) node).getRenames();
+			for (Set<String> key : getKeys(((Rename) node).getInput())) {
+				Set<String> renamed = new LinkedHashSet<String>();
+				for (String name : key)
+					renamed.add(renames.containsKey(name) ? renames.get(name) : name);
+				addKey(result, renamed);
+			}
+		} else if (node instanceof Join) {
+			addJoinKeys(result, (Join) node);
+		} else if (node instanceof Intersection || node instanceof Difference) {
+			addKeys(result, getKeys(node.getInputs().get(0)));
+		} else if (node instanceof Division) {
+			for (Set<String> key : getKeys(((Division) node).getLeft()))
+				if (heading.getAttributeNames().containsAll(key))
+					addKey(result, key);
+		}
+		// Every node but a relation is generated as a set
+		addKey(result, new LinkedHashSet<String>(heading.getAttributeNames()));
+		return result;
+	}
+
+	private void addJoinKeys(List<Set<String>> result, Join join) {
+		List<Set<String>> leftKeys = getKeys(join.getLeft());
+		List<Set<String>> rightKeys = getKeys(join.getRight());
+		Set<String> leftJoined = new LinkedHashSet<String>();
+		Set<String> rightJoined = new LinkedHashSet<String>();
+		if (join.getType() == Join.Type.NATURAL) {
+			for (String name : join.getLeft().getAttributeNames())
+				if (join.getRight().getHeading().hasAttribute(name)) {
+					leftJoined.add(name);
+					rightJoined.add(name);
+				}
+		} else if (join.getCondition() != null) {
+			for (Expression conjunct : Expression.conjuncts(join.getCondition()))
+				addEquatedAttributes(conjunct, join, leftJoined, rightJoined);
+		}
+
+		// A tuple of one side matches at most one tuple of the other side
+		if (containsKey(rightJoined, rightKeys))
+			addKeys(result, leftKeys);
+		if (containsKey(leftJoined, leftKeys))
+			addKeys(result, rightKeys);
+		for (Set<String> leftKey : leftKeys)
+			for (Set<String> rightKey : rightKeys) {
+				Set<String> key = new LinkedHashSet<String>(leftKey);
+				key.addAll(rightKey);
+				addKey(result, key);
+			}
+	}
+
+	private static void addEquatedAttributes(Expression conjunct, Join join, Set<String> leftJoined,
+			Set<String> rightJoined) {
+		if (!(conjunct instanceof BinaryExpression) || !"=".equals(((BinaryExpression) conjunct).getOperator()))
+			return;
+		Expression first = ((BinaryExpression) conjunct).getLeft();
+		Expression second = ((BinaryExpression) conjunct).getRight();
+		if (!(first instanceof AttributeReference) || !(second instanceof AttributeReference))
+			return;
+		String firstName = ((AttributeReference) first).getName();
+		String secondName = ((AttributeReference) second).getName();
+		Relation left = join.getLeft().getHeading();
+		Relation right = join.getRight().getHeading();
+		if (left.hasAttribute(firstName) && right.hasAttribute(secondName)) {
+			leftJoined.add(firstName);
+			rightJoined.add(secondName);
+		} else if (left.hasAttribute(secondName) && right.hasAttribute(firstName)) {
+			leftJoined.add(secondName);
+			rightJoined.add(firstName);
+		}
+	}
+
+	/**
+	 * @return the attributes of the node that are equal to a constant in every
+	 *         tuple
+	 */
+	private static Map<String, Constant> constants(PlanNode node) {
+		Map<String, Constant> constants = new HashMap<String, Constant>();
+		if (node instanceof Select) {
+			constants.putAll(constants(((Select) node).getInput()));
+			for (Expression conjunct : Expression.conjuncts(((Select) node).getCondition()))
+				addConstant(constants, conjunct);
+		} else if (node instanceof Project) {
+			for (Map.Entry<String, Constant> entry : constants(((Project) node).getInput()).entrySet())
+				if (((Project) node).getAttributes().contains(entry.getKey()))
+					constants.put(entry.getKey(), entry.getValue());
+		} else if (node instanceof Rename) {
+			Map<String, String> renames = ((Rename) node).getRenames();
+			for (Map.Entry<String, Constant> entry : constants(((Rename) node).getInput()).entrySet()) {
+				String name = entry.getKey();
+				constants.put(renames.containsKey(name) ? renames.get(name) : name, entry.getValue());
+			}
+		}
+		return constants;
+	}
+
+	private static void addConstant(Map<String, Constant> constants, Expression conjunct) {
+		if (!(conjunct instanceof BinaryExpression) || !"=".equals(((BinaryExpression) conjunct).getOperator()))
+			return;
+		Expression first = ((BinaryExpression) conjunct).getLeft();
+		Expression second = ((BinaryExpression) conjunct).getRight();
+		if (first instanceof AttributeReference && second instanceof Constant)
+			constants.put(((AttributeReference) first).getName(), (Constant) second);
+		else if (second instanceof AttributeReference && first instanceof Constant)
+			constants.put(((AttributeReference) second).getName(), (Constant) first);
+	}
+
+	/**
+	 * @return true if the constants are numbers with different values; strings
+	 *         are compared with the collation of the database, which may ignore
+	 *         case or trailing spaces, so they are never known to be different
+	 */
+	private static boolean areDifferent(Constant first, Constant second) {
+		if (isNumber(first) && isNumber(second))
+			return new BigDecimal(first.getImage()).compareTo(new BigDecimal(second.getImage())) != 0;
+		return false;
+	}
+
+	private static boolean isNumber(Constant constant) {
+		return constant.getKind() == RelationalQueryLanguageConstants.INTEGER
+				|| constant.getKind() == RelationalQueryLanguageConstants.DECIMAL;
+	}
+
+	private static boolean containsKey(Iterable<String> attributes, List<Set<String>> keys) {
+		Set<String> names = new LinkedHashSet<String>();
+		for (String name : attributes)
+			names.add(name);
+		for (Set<String> key : keys)
+			if (names.containsAll(key))
+				return true;
+		return false;
+	}
+
+	private static void addKeys(List<Set<String>> result, List<Set<String>> keys) {
+		for (Set<String> key : keys)
+			addKey(result, key);
+	}
+
+	/**
+	 * Method used to add a key unless a smaller key is known; the known keys
+	 * that contain it are removed.
+	 */
+	private static void addKey(List<Set<String>> result, Set<String> key) {
+		for (Set<String> known : result)
+			if (key.containsAll(known))
+				return;
+		for (int i = result.size() - 1; i >= 0; i--)
+			if (result.get(i).containsAll(key))
+				result.remove(i);
+		result.add(key);
+	}
+}
@@ -0,0 +1,61 @@
+package br.edu.ifsp.optimizer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.edu.ifsp.logicalPlan.AttributeReference;
+import br.edu.ifsp.logicalPlan.BinaryExpression;
+import br.edu.ifsp.logicalPlan.Expression;
+import br.edu.ifsp.logicalPlan.Join;
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Project;
+import br.edu.ifsp.logicalPlan.Rename;
+
+/**
+ * Writes a natural join as an inner join, for databases without NATURAL
+ * JOIN. The common attributes of the right input are renamed, compared with
+ * the ones of the left input and projected away:
+ * R [] S = project(R inner join rename(S) on R.a = a_1).
+ *
+ * It is not an optimization, so it is not part of the default engine; the
+ * code generator applies it after the optimizer.
+ */
+public class NaturalJoinExpansion implements Rule {
+
+	@Override
+	public PlanNode apply(PlanNode node) {
+		if (!(node instanceof Join) || ((Join) node).getType() != Join.Type.NATURAL || node.getHeading() == null)
+			return node;
+		Join join = (Join) node;
+		PlanNode left = join.getLeft();
+		PlanNode right = join.getRight();
+
+		Map<String, String> renames = new LinkedHashMap<String, String>();
+		List<Expression> conditions = new ArrayList<Expression>();
+		for (String name : left.getAttributeNames()) {
+			if (!right.getHeading().hasAttribute(name))
+				continue;
+			String newName = freshName(name, left, right);
+			renames.put(name, newName);
+			conditions.add(new BinaryExpression("=", Expression.Level.COMPARISON, new AttributeReference(name),
+					new AttributeReference(newName)));
+		}
+		if (renames.isEmpty())
+			return new Join(Join.Type.CROSS, left, right, null);
+
+		Join inner = new Join(Join.Type.INNER, left, new Rename(right, renames), Expression.conjunction(conditions));
+		return new Project(inner, join.getAttributeNames());
+	}
+
+	/**
+	 * @return a name that is not an attribute of the inputs
+	 */
+	private static String freshName(String name, PlanNode left, PlanNode right) {
+		int suffix = 1;
+		while (left.getHeading().hasAttribute(name + "_" + suffix) || right.getHeading().hasAttribute(name + "_" + suffix))
+			suffix++;
+		return name + "_" + suffix;
+	}
+}
@@ -0,0 +1,155 @@
+package br.edu.ifsp.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.edu.ifsp.logicalPlan.BinaryPlanNode;
+import br.edu.ifsp.logicalPlan.Difference;
+import br.edu.ifsp.logicalPlan.Division;
+import br.edu.ifsp.logicalPlan.Expression;
+import br.edu.ifsp.logicalPlan.Intersection;
+import br.edu.ifsp.logicalPlan.Join;
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Project;
+import br.edu.ifsp.logicalPlan.Rename;
+import br.edu.ifsp.logicalPlan.Select;
+import br.edu.ifsp.logicalPlan.Union;
+import br.edu.ifsp.symbolTable.Relation;
+
+/**
+ * Moves the conditions of a selection towards the relations, so the database
+ * filters the tuples before joining them. The condition is split in the
+ * operands of its AND operations and each of them goes to the deepest input
+ * that has all its attributes:
+ *
+ * <ul>
+ * <li>selections over selections are merged;</li>
+ * <li>a selection goes below a projection, and below a renaming with the old
+ * names of the attributes;</li>
+ * <li>a condition goes to the side of a join that has its attributes, or to
+ * both sides of a natural join if both have them; the conditions over both
+ * sides of an inner or cross join become conditions of the join;</li>
+ * <li>a condition goes to both sides of a union, intersection or difference
+ * whose inputs have the same attribute names, and to the left side of an
+ * intersection or difference otherwise;</li>
+ * <li>a condition over the quotient of a division goes to the dividend.</li>
+ * </ul>
+ *
+ * The conditions stay over joins, set operations and divisions whose headings
+ * are unknown, which is the case of translations without schema, and over
+ * transitive closures.
+ */
+public class PredicatePushdown implements Rule {
+
+	@Override
+	public PlanNode apply(PlanNode node) {
+		if (!(node instanceof Select))
+			return node;
+		Select select = (Select) node;
+		PlanNode input = select.getInput();
+		Expression condition = select.getCondition();
+
+		if (input instanceof Select) {
+			Select inner = (Select) input;
+			List<Expression> conditions = Expression.conjuncts(inner.getCondition());
+			conditions.addAll(Expression.conjuncts(condition));
+			return new Select(inner.getInput(), Expression.conjunction(conditions));
+		}
+		if (input instanceof Project) {
+			Project project = (Project) input;
+			return project.withInput(new Select(project.getInput(), condition));
+		}
+		if (input instanceof Rename) {
+			Rename rename = (Rename) input;
+			Map<String, String> oldNames = new HashMap<String, String>();
+			for (Map.Entry<String, String> entry : rename.getRenames().entrySet())
+				oldNames.put(entry.getValue(), entry.getKey());
+			return rename.withInput(new Select(rename.getInput(), condition.renameAttributes(oldNames)));
+		}
+		if (input.getHeading() == null)
+			return node;
+		if (input instanceof Join)
+			return pushIntoJoin(select, (Join) input);
+		if (input instanceof Union || input instanceof Intersection || input instanceof Difference)
+			return pushIntoSetOperation(select, (BinaryPlanNode) input);
+		if (input instanceof Division)
+			return pushIntoDivision(select, (Division) input);
+		return node;
+	}
+
+	private PlanNode pushIntoJoin(Select select, Join join) {
+		Relation leftHeading = join.getLeft().getHeading();
+		Relation rightHeading = join.getRight().getHeading();
+		List<Expression> left = new ArrayList<Expression>();
+		List<Expression> right = new ArrayList<Expression>();
+		List<Expression> remaining = new ArrayList<Expression>();
+		for (Expression conjunct : Expression.conjuncts(select.getCondition())) {
+			boolean inLeft = hasAttributes(leftHeading, conjunct);
+			boolean inRight = hasAttributes(rightHeading, conjunct);
+			if (inLeft)
+				left.add(conjunct);
+			// Only a natural join equates the attributes of both sides
+			if (inRight && (!inLeft || join.getType() == Join.Type.NATURAL))
+				right.add(conjunct);
+			if (!inLeft && !inRight)
+				remaining.add(conjunct);
+		}
+
+		Join.Type type = join.getType();
+		Expression joinCondition = join.getCondition();
+		if (type != Join.Type.NATURAL && !remaining.isEmpty()) {
+			List<Expression> conditions = new ArrayList<Expression>();
+			if (joinCondition != null)
+				conditions.addAll(Expression.conjuncts(joinCondition));
+			conditions.addAll(remaining);
+			type = Join.Type.INNER;
+			joinCondition = Expression.conjunction(conditions);
+			remaining.clear();
+		}
+		if (left.isEmpty() && right.isEmpty() && type == join.getType() && joinCondition == join.getCondition())
+			return select;
+
+		PlanNode pushed = new Join(type, filter(join.getLeft(), left), filter(join.getRight(), right), joinCondition);
+		return filter(pushed, remaining);
+	}
+
+	private PlanNode pushIntoSetOperation(Select select, BinaryPlanNode operation) {
+		boolean sameAttributes = operation.getLeft().getAttributeNames()
+				.equals(operation.getRight().getAttributeNames());
+		Expression condition = select.getCondition();
+		if (sameAttributes)
+			return operation.withInputs(new Select(operation.getLeft(), condition),
+					new Select(operation.getRight(), condition));
+		// Tuples of the result come from the left input only
+		if (operation instanceof Intersection || operation instanceof Difference)
+			return operation.withInputs(new Select(operation.getLeft(), condition), operation.getRight());
+		return select;
+	}
+
+	private PlanNode pushIntoDivision(Select select, Division division) {
+		List<Expression> pushed = new ArrayList<Expression>();
+		List<Expression> remaining = new ArrayList<Expression>();
+		for (Expression conjunct : Expression.conjuncts(select.getCondition())) {
+			if (hasAttributes(division.getHeading(), conjunct))
+				pushed.add(conjunct);
+			else
+				remaining.add(conjunct);
+		}
+		if (pushed.isEmpty())
+			return select;
+		return filter(division.withInputs(filter(division.getLeft(), pushed), division.getRight()), remaining);
+	}
+
+	private static boolean hasAttributes(Relation heading, Expression condition) {
+		for (String name : condition.getAttributes())
+			if (!heading.hasAttribute(name))
+				return false;
+		return true;
+	}
+
+	private static PlanNode filter(PlanNode input, List<Expression> conditions) {
+		return conditions.isEmpty() ? input : new Select(input, Expression.conjunction(conditions));
+	}
+}
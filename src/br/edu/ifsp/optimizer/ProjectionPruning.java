@@ -0,0 +1,159 @@
+package br.edu.ifsp.optimizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import br.edu.ifsp.logicalPlan.BinaryPlanNode;
+import br.edu.ifsp.logicalPlan.Closure;
+import br.edu.ifsp.logicalPlan.Join;
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Project;
+import br.edu.ifsp.logicalPlan.Rename;
+import br.edu.ifsp.logicalPlan.Scan;
+import br.edu.ifsp.logicalPlan.Select;
+import br.edu.ifsp.logicalPlan.UnaryPlanNode;
+
+/**
+ * Narrows the derived tables below a projection to the attributes used above
+ * them. The attributes required by the projection are carried down the plan,
+ * adding the attributes of the conditions and of the natural joins and
+ * mapping the new names of renamings back to the old ones; the inputs of a
+ * join get a projection to the attributes they must provide.
+ *
+ * Relations and transitive closures are not narrowed, since they are written
+ * by name in SQL and a projection would add a derived table, and neither is
+ * the left input of a join when both are written in the same FROM clause.
+ * Set operations and divisions compare whole tuples, so their inputs keep
+ * every attribute.
+ */
+public class ProjectionPruning implements Rule {
+
+	@Override
+	public PlanNode apply(PlanNode node) {
+		if (!(node instanceof Project) || node.getHeading() == null)
+			return node;
+		return prune(node, new LinkedHashSet<String>(((Project) node).getAttributes()));
+	}
+
+	/**
+	 * @return the node computing at least the required attributes, or the same
+	 *         node if nothing changed
+	 */
+	private PlanNode prune(PlanNode node, Set<String> required) {
+		if (node instanceof Project) {
+			Project project = (Project) node;
+			List<String> attributes = retain(project.getAttributes(), required);
+			if (attributes.isEmpty())
+				attributes = project.getAttributes();
+			PlanNode input = project.getInput();
+			// The outer projection already keeps the attributes of the inner one
+			if (input instanceof Project)
+				input = ((Project) input).getInput();
+			PlanNode pruned = prune(input, new LinkedHashSet<String>(attributes));
+			if (pruned == project.getInput() && attributes.size() == project.getAttributes().size())
+				return node;
+			return new Project(pruned, attributes);
+		}
+		if (node instanceof Select) {
+			Select select = (Select) node;
+			Set<String> inputRequired = new LinkedHashSet<String>(required);
+			inputRequired.addAll(select.getCondition().getAttributes());
+			return withInput(select, prune(select.getInput(), inputRequired));
+		}
+		if (node instanceof Rename) {
+			Rename rename = (Rename) node;
+			Map<String, String> oldNames = new HashMap<String, String>();
+			for (Map.Entry<String, String> entry : rename.getRenames().entrySet())
+				oldNames.put(entry.getValue(), entry.getKey());
+			Set<String> inputRequired = new LinkedHashSet<String>();
+			for (String name : required)
+				inputRequired.add(oldNames.containsKey(name) ? oldNames.get(name) : name);
+			// Every attribute of the input is written by the renaming
+			return withInput(rename, prune(rename.getInput(), inputRequired));
+		}
+		if (node instanceof Join)
+			return pruneJoin((Join) node, required);
+		if (node instanceof UnaryPlanNode) {
+			UnaryPlanNode unary = (UnaryPlanNode) node;
+			return withInput(unary, pruneAll(unary.getInput()));
+		}
+		if (node instanceof BinaryPlanNode) {
+			BinaryPlanNode binary = (BinaryPlanNode) node;
+			PlanNode left = pruneAll(binary.getLeft());
+			PlanNode right = pruneAll(binary.getRight());
+			if (left == binary.getLeft() && right == binary.getRight())
+				return node;
+			return binary.withInputs(left, right);
+		}
+		return node;
+	}
+
+	private PlanNode pruneJoin(Join join, Set<String> required) {
+		Set<String> used = new LinkedHashSet<String>(required);
+		if (join.getCondition() != null)
+			used.addAll(join.getCondition().getAttributes());
+		if (join.getType() == Join.Type.NATURAL)
+			for (String name : join.getLeft().getAttributeNames())
+				if (join.getRight().getHeading().hasAttribute(name))
+					used.add(name);
+
+		PlanNode left;
+		if (isFlatJoin(join) && isFlatJoin(join.getLeft()))
+			left = prune(join.getLeft(), new LinkedHashSet<String>(retain(join.getLeft().getAttributeNames(), used)));
+		else
+			left = narrow(join.getLeft(), used);
+		PlanNode right = narrow(join.getRight(), used);
+		if (left == join.getLeft() && right == join.getRight())
+			return join;
+		return join.withInputs(left, right);
+	}
+
+	/**
+	 * Method used to project the input of a join to the used attributes it
+	 * has.
+	 */
+	private PlanNode narrow(PlanNode input, Set<String> used) {
+		List<String> attributes = retain(input.getAttributeNames(), used);
+		PlanNode pruned = prune(input, new LinkedHashSet<String>(attributes));
+		// A projection narrows its own list when it is pruned
+		if (attributes.isEmpty() || attributes.size() == input.getHeading().getNumberOfAttributes()
+				|| input instanceof Scan || input instanceof Closure || input instanceof Project)
+			return pruned;
+		return new Project(pruned, attributes);
+	}
+
+	/**
+	 * A join without duplicate attributes, under a selection or not, is
+	 * written in the FROM clause of a join without duplicate attributes over
+	 * it, so a projection would only add a derived table.
+	 */
+	private static boolean isFlatJoin(PlanNode input) {
+		if (input instanceof Select)
+			input = ((Select) input).getInput();
+		return input instanceof Join && !((Join) input).hasDuplicateAttributes();
+	}
+
+	private PlanNode pruneAll(PlanNode node) {
+		return prune(node, new LinkedHashSet<String>(node.getAttributeNames()));
+	}
+
+	private static PlanNode withInput(UnaryPlanNode node, PlanNode input) {
+		return input == node.getInput() ? node : node.withInput(input);
+	}
+
+	/**
+	 * @return the attributes of the list that are in the set, in the order of
+	 *         the list
+	 */
+	private static List<String> retain(List<String> attributes, Set<String> names) {
+		List<String> retained = new ArrayList<String>();
+		for (String name : attributes)
+			if (names.contains(name))
+				retained.add(name);
+		return retained;
+	}
+}
@@ -0,0 +1,15 @@
+package br.edu.ifsp.optimizer;
+
+import br.edu.ifsp.logicalPlan.PlanNode;
+
+/**
+ * Rewrite of a node of the logical plan. A rule must keep the meaning of the
+ * node and must make progress, so the rule engine reaches a fixpoint.
+ */
+public interface Rule {
+
+	/**
+	 * @return the rewritten node, or the same node if the rule does not apply
+	 */
+	PlanNode apply(PlanNode node);
+}
@@ -0,0 +1,83 @@
+package br.edu.ifsp.optimizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+
+/**
+ * Rewrites a logical plan with a list of rules until none of them applies.
+ * Every pass visits the plan bottom-up, so a node is rewritten after its
+ * inputs; the rules are tried in order on every node. An engine has no state
+ * besides its rules, so it can be shared by concurrent translations.
+ */
+public class RuleEngine {
+
+	/**
+	 * Limit of passes over a plan, which guards against rules that undo each
+	 * other.
+	 */
+	public static final int MAXIMUM_PASSES = 100;
+
+	private final List<Rule> rules;
+
+	public RuleEngine(List<Rule> rules) {
+		this.rules = Collections.unmodifiableList(new ArrayList<Rule>(rules));
+	}
+
+	public RuleEngine(Rule... rules) {
+		this(Arrays.asList(rules));
+	}
+
+	/**
+	 * @return an engine with the rules used by the code generator
+	 */
+	public static RuleEngine defaultEngine() {
+		return defaultEngine(null);
+	}
+
+	/**
+	 * @param schema
+	 *            gives the statistics used to order the joins; it may be null
+	 * @return an engine with the rules used by the code generator
+	 */
+	public static RuleEngine defaultEngine(SchemaSnapshot schema) {
+		return new RuleEngine(new ConstantFolding(), new PredicatePushdown(), new ProjectionPruning(),
+				new JoinReordering(schema));
+	}
+
+	public List<Rule> getRules() {
+		return rules;
+	}
+
+	public PlanNode optimize(PlanNode plan) {
+		for (int pass = 0; pass < MAXIMUM_PASSES; pass++) {
+			// Any rewrite builds a new root, so an unchanged root is the fixpoint
+			PlanNode rewritten = rewrite(plan);
+			if (rewritten == plan)
+				break;
+			plan = rewritten;
+		}
+		return plan;
+	}
+
+	private PlanNode rewrite(PlanNode node) {
+		List<PlanNode> inputs = node.getInputs();
+		List<PlanNode> rewritten = new ArrayList<PlanNode>(inputs.size());
+		boolean inputChanged = false;
+		for (PlanNode input : inputs) {
+			PlanNode result = rewrite(input);
+			inputChanged |= result != input;
+			rewritten.add(result);
+		}
+		if (inputChanged)
+			node = node.withInputs(rewritten);
+
+		for (Rule rule : rules)
+			node = rule.apply(node);
+		return node;
+	}
+}
@@ -0,0 +1,317 @@
+package br.edu.ifsp.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Character stream of the lexer over a text that is entirely in memory: a
+ * file is mapped and decoded once into a single CharBuffer, whose array is
+ * read in place.
+ *
+ * SimpleCharStream copies the input into a buffer that grows while a token is
+ * read and stores the line and the column of every buffered character. This
+ * stream keeps only the text and the index where each line starts. The line
+ * and the column of a position are counted when the lexer asks for them, from
+ * the last position asked for, since the lexer asks for positions in order,
+ * or else from the start of its line, which is found by a binary search.
+ *
+ * The lines and columns are the ones SimpleCharStream gives: a line ends with
+ * \n, \r or \r\n, the first column is 1 and a tab advances to the next
+ * multiple of the tab size. A stream over a piece of a larger text can start
+ * at the line and column where the piece is, as SimpleCharStream can, and the
+ * position of the current token can be moved, which moves the positions after
+ * it.
+ *
+ * The tokens with the same spelling share one image: a short image is looked
+ * up in a hash table of the images already made, comparing the characters of
+ * the text in place, so a script that repeats its relations and attributes
+ * makes a string only for the first occurrence of each name.
+ */
+public class MappedCharStream extends SimpleCharStream {
+
+	private final char text[];
+	private final int offset;
+	private final int length;
+	private final int startLine;
+	private final int startColumn;
+	private int lineStarts[];
+	private int lines;
+
+	/* Next character to read, which is length at the end of the text */
+	private int position = 0;
+	private int begin = 0;
+
+	/* Line and column counted up to the character before the cursor */
+	private int cursor = 0;
+	private int cursorLine = 0;
+	private int cursorColumn = 0;
+
+	/* Shift of the positions from the token moved by adjustBeginLineColumn on */
+	private int adjustedFrom = Integer.MAX_VALUE;
+	private int adjustedLine;
+	private int lineShift;
+	private int columnShift;
+
+	/* Longer images, as the ones of string constants, are not shared */
+	private static final int SHARED_IMAGE_LENGTH = 64;
+
+	private String images[] = new String[256];
+	private int imageCount = 0;
+
+	/**
+	 * Method used to initialize a stream over the characters of a string.
+	 */
+	public MappedCharStream(String text) {
+		this(text.toCharArray(), 0, text.length());
+	}
+
+	/**
+	 * Method used to initialize a stream over a range of an array, which is
+	 * not copied.
+	 */
+	public MappedCharStream(char text[], int offset, int length) {
+		this(text, offset, length, 1, 1);
+	}
+
+	/**
+	 * Method used to initialize a stream over a range of an array whose first
+	 * character is at the given line and column.
+	 */
+	public MappedCharStream(char text[], int offset, int length, int startLine, int startColumn) {
+		// The buffers of SimpleCharStream are not used
+		super((Reader) null, startLine, startColumn, 1);
+		this.text = text;
+		this.offset = offset;
+		this.length = length;
+		this.startLine = startLine;
+		this.startColumn = startColumn;
+		cursorColumn = startColumn - 1;
+		indexLines();
+	}
+
+	/**
+	 * Method used to map a file and decode it with the given charset. Malformed
+	 * input is replaced, as an InputStreamReader does.
+	 */
+	public static MappedCharStream open(Path file, Charset charset) throws IOException {
+		CharBuffer chars;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			chars = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE).decode(bytes);
+		}
+		return new MappedCharStream(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+	}
+
+	private void indexLines() {
+		lineStarts = new int[16];
+		lines = 1;
+		int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			char c = text[i];
+			if (c == '\n' || (c == '\r' && (i + 1 == end || text[i + 1] != '\n'))) {
+				if (lines == lineStarts.length)
+					lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+				lineStarts[lines++] = i + 1 - offset;
+			}
+		}
+	}
+
+	/**
+	 * Method used to count the line and the column of a position.
+	 */
+	private void locate(int index) {
+		int nextLineStart = cursorLine + 1 < lines ? lineStarts[cursorLine + 1] : length;
+		if (index < cursor - 1 || index >= nextLineStart) {
+			if (index >= nextLineStart && (cursorLine + 2 >= lines || index < lineStarts[cursorLine + 2])) {
+				cursorLine++;
+			} else {
+				int line = Arrays.binarySearch(lineStarts, 0, lines, index);
+				cursorLine = line >= 0 ? line : -line - 2;
+			}
+			cursor = lineStarts[cursorLine];
+			cursorColumn = cursorLine == 0 ? startColumn - 1 : 0;
+		}
+		for (; cursor <= index; cursor++) {
+			cursorColumn++;
+			if (text[offset + cursor] == '\t') {
+				cursorColumn--;
+				cursorColumn += tabSize - (cursorColumn % tabSize);
+			}
+		}
+	}
+
+	/*
+	 * The last character read is at position - 1, as the one at bufpos in
+	 * SimpleCharStream; at the end of the text it stays the last character, and
+	 * an empty text is at line 0 and column 0.
+	 */
+
+	@Override
+	public char BeginToken() throws IOException {
+		if (position == length) {
+			begin = position - 1;
+			throw new IOException();
+		}
+		begin = position;
+		return text[offset + position++];
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		if (position == length)
+			throw new IOException();
+		return text[offset + position++];
+	}
+
+	@Override
+	public void backup(int amount) {
+		position -= amount;
+	}
+
+	@Override
+	public String GetImage() {
+		int start = offset + begin;
+		int count = position - begin;
+		if (count > SHARED_IMAGE_LENGTH)
+			return new String(text, start, count);
+
+		// The same hash as String.hashCode, which every image keeps cached
+		int hash = 0;
+		for (int i = start; i < start + count; i++)
+			hash = 31 * hash + text[i];
+		int mask = images.length - 1;
+		for (int slot = spread(hash) & mask;; slot = (slot + 1) & mask) {
+			String image = images[slot];
+			if (image == null) {
+				image = new String(text, start, count);
+				images[slot] = image;
+				if (++imageCount * 2 > images.length)
+					growImages();
+				return image;
+			}
+			if (image.hashCode() == hash && matches(image, start, count))
+				return image;
+		}
+	}
+
+	private boolean matches(String image, int start, int count) {
+		if (image.length() != count)
+			return false;
+		for (int i = 0; i < count; i++)
+			if (image.charAt(i) != text[start + i])
+				return false;
+		return true;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private void growImages() {
+		String old[] = images;
+		images = new String[old.length * 2];
+		int mask = images.length - 1;
+		for (String image : old) {
+			if (image == null)
+				continue;
+			int slot = spread(image.hashCode()) & mask;
+			while (images[slot] != null)
+				slot = (slot + 1) & mask;
+			images[slot] = image;
+		}
+	}
+
+	/**
+	 * @return the index, from the start of the stream, of the character after
+	 *         the last one read, which is the end of the last token made
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	@Override
+	public char[] GetSuffix(int len) {
+		return Arrays.copyOfRange(text, offset + position - len, offset + position);
+	}
+
+	@Override
+	@Deprecated
+	public int getColumn() {
+		return getEndColumn();
+	}
+
+	@Override
+	@Deprecated
+	public int getLine() {
+		return getEndLine();
+	}
+
+	@Override
+	public int getEndColumn() {
+		if (position == 0)
+			return 0;
+		return column(position - 1);
+	}
+
+	@Override
+	public int getEndLine() {
+		if (position == 0)
+			return 0;
+		return line(position - 1);
+	}
+
+	@Override
+	public int getBeginColumn() {
+		if (begin < 0)
+			return 0;
+		return column(begin);
+	}
+
+	@Override
+	public int getBeginLine() {
+		if (begin < 0)
+			return 0;
+		return line(begin);
+	}
+
+	private int line(int index) {
+		locate(index);
+		return cursorLine + startLine + (index >= adjustedFrom ? lineShift : 0);
+	}
+
+	private int column(int index) {
+		locate(index);
+		return cursorColumn + (index >= adjustedFrom && cursorLine == adjustedLine ? columnShift : 0);
+	}
+
+	/**
+	 * Method used to move the current token to the given line and column, as
+	 * SimpleCharStream does: the lines after it are shifted by as many lines
+	 * and the rest of its line by as many columns, so its tabs keep their
+	 * widths. Only the last move is kept, since the lexer does not ask again
+	 * for the positions before the current token.
+	 */
+	@Override
+	public void adjustBeginLineColumn(int newLine, int newCol) {
+		if (begin < 0)
+			return;
+		locate(begin);
+		adjustedFrom = begin;
+		adjustedLine = cursorLine;
+		lineShift = newLine - (cursorLine + startLine);
+		columnShift = newCol - cursorColumn;
+	}
+
+	@Override
+	public void Done() {
+	}
+}
@@ -4,19 +4,23 @@ package br.edu.ifsp.parser;
 /*
  * Import session
  */
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import br.edu.ifsp.symbolTable.*;
 import br.edu.ifsp.syntacticTree.*;
 import br.edu.ifsp.syntacticTree.interfaces.*;
 import br.edu.ifsp.symbolTable.exceptions.*;
 import br.edu.ifsp.semanticAnalysis.RelationCheck;
 import br.edu.ifsp.codeGeneration.CodeGenerator;
+import br.edu.ifsp.codeGeneration.Dialect;
+import br.edu.ifsp.codeGeneration.DivisionStrategy;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.translator.BatchCompiler;
+import br.edu.ifsp.translator.BatchReport;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class RelationalQueryLanguage implements RelationalQueryLanguageConstants {
 
@@ -44,6 +48,16 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
 	 * Attribute used to store the symbol table from arguments
 	 */
         private static SymbolTable symbolTable = null; //Stores the symbol table
+
+        /**
+	 * Attribute used to store the choices of the code generator
+	 */
+        private static GenerationOptions generationOptions = GenerationOptions.DEFAULT;
+
+        /**
+	 * Attribute used to check if the files will be compiled in batch mode
+	 */
+        private static boolean batch = false; //compile many files in parallel
 
         /**
 	 * Method main of Relational Query Language class
@@ -76,6 +90,11 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
 		 */
                 int parametersErrors = 0;
 
+                /**
+		 * Files and directories compiled in batch mode.
+		 */
+                List<Path> inputs = new ArrayList<Path>();
+
                 /**
 		 * For clause used to get the parameters that will be used in compiler process.
 		 */
@@ -105,6 +124,19 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                                         System.exit(0);
                                 }
                         }
+                        /*
+			 * Checking attributes file parameter
+			 */
+                        else if ( arg.equals( "--attributes-file" ) || arg.equals( "-f" ) ) {
+
+                                if ( i + 1 < args.length && checkParameterOfAttributesFile( args[i+1] ) )
+                                        i++;
+                                else {
+
+                                        System.out.println( "The value of --attributes-file parameter is invalid." );
+                                        parametersErrors++;
+                                }
+                        }
                         /*
 			 * Checking output-path parameter
 			 */
@@ -137,14 +169,42 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
 			 */
                         else if ( arg.toLowerCase().equals( "--target-sql" ) || arg.toLowerCase().equals( "-t" ) ) {
 
-                                if ( i + 1 < args.length && checkParameterOfTargetSQL( args[i+1] ) ) i++;
-
+                                Dialect dialect = i + 1 < args.length ? Dialect.fromOptionName( args[i+1] ) : null;
+                                if ( dialect != null ) {
+                                        generationOptions = generationOptions.withDialect( dialect );
+                                        i++;
+                                }
                                 else {
 
-                                        System.out.print( "The value of output-name parameter is invalid. It's just possible to use the SQL92 option." );
+                                        System.out.println( "The value of --target-sql parameter is invalid. The options are ansi (or SQL92), postgresql, mysql, sqlite and sqlserver." );
                                         parametersErrors++;
                                 }
                         }
+                        /*
+			 * Checking division strategy parameter
+			 */
+                        else if ( arg.equals( "--division-strategy" ) || arg.equals( "-d" ) ) {
+
+                                DivisionStrategy strategy = i + 1 < args.length ? DivisionStrategy.fromOptionName( args[i+1] ) : null;
+                                if ( strategy != null ) {
+                                        generationOptions = generationOptions.withDivisionStrategy( strategy );
+                                        i++;
+                                }
+                                else {
+
+                                        System.out.println( "The value of --division-strategy parameter is invalid. The options are count, not-exists and group-by." );
+                                        parametersErrors++;
+                                }
+                        }
+                        /*
+			 * Checking batch parameter. The remaining arguments are the files and directories.
+			 */
+                        else if ( arg.equals( "--batch" ) || arg.equals( "-b" ) ) {
+
+                                batch = true;
+                                while ( ++i < args.length )
+                                        inputs.add( Paths.get( args[i] ) );
+                        }
                         /*
 			 * Checking export tree parameter
 			 */
@@ -171,13 +231,18 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                         helpText();
                         System.exit(0);
                 }
+                else if ( batch ) {
+
+                        compileBatch( inputs, outputPath );
+                }
                 else {
 
                         System.out.printf( "Reading from file %s\u005cn", fileName );
 
                         try {
 
-                                parser = new RelationalQueryLanguage( new FileInputStream( fileName ) );
+                                parser = new RelationalQueryLanguage( new RelationalQueryLanguageTokenManager(
+                                                MappedCharStream.open( Paths.get( fileName ), Charset.defaultCharset() ) ) );
 
                                 /*
 				 * Disabling/Enabling the syntax analysis debug
@@ -187,7 +252,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                                 else
                                         parser.enable_tracing();
                         }
-                        catch ( FileNotFoundException exception ) {
+                        catch ( IOException exception ) {
 
                                 System.out.printf( "File %s not found.\u005cn", fileName );
                                 System.exit(0);
@@ -200,6 +265,14 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                         try {
 
                                 root = parser.program();
+
+                                /*
+				 * The statements with syntax errors were skipped, so the others are still analysed
+				 */
+                                for ( ParseException exception : parser.getSyntaxErrors() )
+                                        System.out.println( exception.getMessage() );
+                                System.out.println( "Syntax Errors: " + parser.getSyntaxErrors().size() );
+
                                 PrintTree pt = new PrintTree();
                                 if (debug_sa)
                                         pt.printRoot(root);
@@ -207,13 +280,16 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                                         pt.exportDotTree(root);
                                 RelationCheck rc = null;
                                 int semanticErrors = 0;
+                                SchemaSnapshot schema = null;
                                 if (symbolTable != null) {
-                                        rc = new RelationCheck(symbolTable);
+                                        schema = SchemaSnapshot.of(symbolTable);
+                                        rc = new RelationCheck(schema);
                                         semanticErrors = rc.semanticAnalysis(root);
                                         System.out.println("Semantic Errors: " + semanticErrors);
                                 }
-                                if (semanticErrors == 0) {
-                                        CodeGenerator generator = new CodeGenerator(symbolTable, outputPath + outputFileName, VERSION);
+                                if (semanticErrors == 0 && parser.getSyntaxErrors().isEmpty()) {
+                                        CodeGenerator generator = new CodeGenerator(schema, outputPath + outputFileName, VERSION);
+                                        generator.setOptions(generationOptions);
                                         generator.generate(root);
                                 }
 
@@ -267,6 +343,26 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                 return s;
         }
 
+        /**
+	 * Method used to compile files and directories in parallel and print the summary report.
+	 * @param inputs are the RQL files and the directories with RQL files.
+	 * @param outputPath is the directory of the SQL files.
+	 */
+        private static void compileBatch ( List<Path> inputs, String outputPath ) throws IOException {
+
+                if ( symbolTable == null || inputs.isEmpty() ) {
+
+                        System.out.println( "The batch mode needs an attributes definition and at least one file or directory." );
+                        return;
+                }
+                BatchCompiler compiler = new BatchCompiler( SchemaSnapshot.of( symbolTable ), generationOptions );
+                compiler.setVersion( VERSION );
+                BatchReport report = compiler.compile( inputs, Paths.get( outputPath ) );
+                System.out.print( report );
+                if ( report.getFailedCount() > 0 )
+                        System.exit( 1 );
+        }
+
         /**
 	 * Method used to print the help text.
 	 */
@@ -288,9 +384,19 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                 System.out.println( String.format( "\u005cn\u005ct    %s", "Specific output file name" ) );
 
                 System.out.printf( "%c[1m", 27 );
-                System.out.println( String.format( "\u005cn\u005ct\u00b7   %-30s", "-t, --target-sql <sql-type>",   "Target sql type (default: SQL92)" ) );
+                System.out.println( String.format( "\u005cn\u005ct\u00b7   %-30s", "-t, --target-sql <sql-type>" ) );
+                System.out.printf( "%c[0m", 27 );
+                System.out.println( String.format( "\u005cn\u005ct    %s", "Target SQL dialect: ansi, postgresql, mysql, sqlite or sqlserver (default: ansi, also named SQL92)" ) );
+
+                System.out.printf( "%c[1m", 27 );
+                System.out.println( String.format( "\u005cn\u005ct\u00b7   %-30s", "-d, --division-strategy <name>" ) );
+                System.out.printf( "%c[0m", 27 );
+                System.out.println( String.format( "\u005cn\u005ct    %s", "SQL of the division: count, not-exists or group-by (default: count)" ) );
+
+                System.out.printf( "%c[1m", 27 );
+                System.out.println( String.format( "\u005cn\u005ct\u00b7   %-30s", "-b, --batch <files>" ) );
                 System.out.printf( "%c[0m", 27 );
-                System.out.println( String.format( "\u005cn\u005ct    %s", "Target sql type (default: SQL92)" ) );
+                System.out.println( String.format( "\u005cn\u005ct    %s", "Compile the files and directories after it in parallel into the output path" ) );
 
                 System.out.printf( "%c[1m", 27 );
                 System.out.println( String.format( "\u005cn\u005ct\u00b7   %-30s", "-l, --debug-lexical-analysis" ) );
@@ -307,6 +413,11 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                 System.out.printf( "%c[0m", 27 );
                 System.out.println( String.format( "\u005cn\u005ct    %s", "Input the attributes definition for semantic analysis" ) );
 
+                System.out.printf( "%c[1m", 27 );
+                System.out.println( String.format( "\u005cn\u005ct\u00b7   %-30s", "-f, --attributes-file <file-name>" ) );
+                System.out.printf( "%c[0m", 27 );
+                System.out.println( String.format( "\u005cn\u005ct    %s", "Read the attributes definition from a file" ) );
+
                 System.out.printf( "%c[1m", 27 );
                 System.out.println( String.format( "\u005cn\u005ct\u00b7   %-30s", "-e, --export-tree" ) );
                 System.out.printf( "%c[0m", 27 );
@@ -326,12 +437,6 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                 boolean result = false;
                 List<String> attributes = new ArrayList<String>();
                 String attributeCheck = "";
-                String identifierRegex = "([a-zA-Z_][a-zA-Z1-9_]*)";
-                String typeRegex = "(VARCHAR|CHAR|INT|INTEGER|DOUBLE|DECIMAL|RATIONAL|FLOAT|LONG|BLOB)(\u005c\u005c([1-9]{1,3}\u005c\u005c))?";
-                String primaryRegex = "(PRIMARY\u005c\u005cs?KEY)?";
-                String foreignRegex = "(REFERENCES\u005c\u005cs?" + identifierRegex + "." + identifierRegex + ")?";
-                String attributeRegex = identifierRegex + "." + identifierRegex + ":" + typeRegex + primaryRegex + foreignRegex
-                                + ";";
 
                 for (int i = location + 1; i < args.length - 1; i++) {
                         String parameter = args[i];
@@ -341,6 +446,9 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                                         && !parameter.equals("--debug-lexical-analysis") && !parameter.equals("-s")
                                         && !parameter.equals("--debug-syntax-analysis") && !parameter.equals("-h")
                                         && !parameter.equals("--attributes-definition") && !parameter.equals("-a")
+                                        && !parameter.equals("--attributes-file") && !parameter.equals("-f")
+                                        && !parameter.equals("--division-strategy") && !parameter.equals("-d")
+                                        && !parameter.equals("--batch") && !parameter.equals("-b")
                                         && !parameter.equals("--export-tree") && !parameter.equals("-e")
                                         && !parameter.equals("--help")) {
                                 attributes.add(parameter);
@@ -351,71 +459,66 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                                 break;
                         }
                 }
-                if (!attributeCheck.matches("(" + attributeRegex + ")+")) {
+                if (!SchemaDefinition.isValid(attributeCheck)) {
                         return 0;
                 } else {
                         System.out.println("Building symbol table from arguments:");
-                        buildSymbolTable(attributeCheck, attributeRegex);
+                        buildSymbolTable(attributeCheck);
                 }
                 return location;
         }
 
+        /**
+	 * Method used to check the parameter value of --attributes-file.
+	 * @param fileName
+	 *            is the file with the attributes definition.
+	 * @return true if the symbol table was built from the file
+	 */
+        public static boolean checkParameterOfAttributesFile(String fileName) {
+                try {
+                        System.out.println("Building symbol table from file " + fileName + ":");
+                        symbolTable = SchemaDefinition.read(Paths.get(fileName), Charset.defaultCharset());
+                        printSymbolTable();
+                        return true;
+                } catch (IOException exception) {
+                        System.out.printf("File %s not found.\u005cn", fileName);
+                } catch (IllegalArgumentException exception) {
+                        System.out.println(exception.getMessage());
+                }
+                return false;
+        }
+
         /**
 	 * Method used to build the symbol table from arguments.
 	 * @param definition
 	 *            is the string with the information about the database
-	 * @param regex
-	 * 				is the regular expression that check the information
 	 */
-        public static void buildSymbolTable(String definition, String regex) {
-                Pattern pattern = Pattern.compile(regex);
-                Matcher matcher = pattern.matcher(definition);
-
-                symbolTable = new SymbolTable();
-                while (matcher.find()) {
-                        String relation = matcher.group(1);
-                        String attribute = matcher.group(2);
-                        String type = matcher.group(3);
-
-                        Attribute newAttribute = new Attribute(attribute, type);
-
-                        int range = 0;
-                        if (matcher.group(4) != null) {
-                                range = Integer.parseInt(matcher.group(4).replace("(", "").replace(")", ""));
-                                newAttribute.addFeature("range", range);
-                        }
-
-                        boolean primary = false;
-                        if (matcher.group(5) != null) {
-                                primary = true;
-                                newAttribute.addFeature("primary", primary);
-                        }
+        public static void buildSymbolTable(String definition) {
+                symbolTable = SchemaDefinition.parse(definition);
+                printSymbolTable();
+        }
 
-                        String referenceRelation = matcher.group(7);
-                        String referenceAttribute = matcher.group(8);
-
-                        if (referenceRelation != null) {
-                                // Checks the foreign key
-                                if (symbolTable.hasRelation(referenceRelation)
-                                                && symbolTable.getRelation(referenceRelation).hasAttribute(referenceAttribute)) {
-                                        newAttribute.addFeature("reference", new Reference(referenceRelation, referenceAttribute));
-                                } else {
-                                        // Throw a exception for unexistent foreign key
-                                        throw new UnexistentForeignKeyException();
-                                }
+        /**
+	 * Method used to print the entries of the symbol table.
+	 */
+        private static void printSymbolTable() {
+                for (String relation : symbolTable.getRelationNames()) {
+                        Relation r = symbolTable.getRelation(relation);
+                        for (String attribute : r.getAttributeNames()) {
+                                Attribute a = r.getAttribute(attribute);
+                                Object range = a.getFeature("range");
+                                Reference reference = (Reference) a.getFeature("reference");
+
+                                System.out.println("  Making a new entry:");
+                                System.out.println("    Relation: " + relation);
+                                System.out.println("    Attribute: " + attribute);
+                                System.out.println("    Type: " + a.getFeature("type"));
+                                System.out.println("    Range: " + (range == null ? 0 : range));
+                                System.out.println("    Primary: " + (a.getFeature("primary") != null));
+                                System.out.println("    Reference relation: " + (reference == null ? null : reference.getRelation()));
+                                System.out.println("    Reference attribute: " + (reference == null ? null : reference.getAttribute()));
+                                System.out.println("  Closing entry:");
                         }
-
-                        System.out.println("  Making a new entry:");
-                        System.out.println("    Relation: " + relation);
-                        System.out.println("    Attribute: " + attribute);
-                        System.out.println("    Type: " + type);
-                        System.out.println("    Range: " + range);
-                        System.out.println("    Primary: " + primary);
-                        System.out.println("    Reference relation: " + referenceRelation);
-                        System.out.println("    Reference attribute: " + referenceAttribute);
-                        System.out.println("  Closing entry:");
-
-                        symbolTable.getRelation(relation).addAttribute(attribute, newAttribute);
                 }
                 System.out.println("Finished the construction of the symbol table");
         }
@@ -484,542 +587,486 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
 
                 boolean result = false;
 
-                if ( parameter.toUpperCase().equals( "SQL92" ) )
+                if ( Dialect.fromOptionName( parameter ) != null )
                         result = true;
 
                 return result;
         }
 
+        /*
+	 * Syntax errors of the last program
+	 */
+        private final List<ParseException> syntaxErrors = new ArrayList<ParseException>();
+
+        /**
+	 * Method used to get the syntax errors found by the last call of program(), whose
+	 * statements with errors are skipped.
+	 * @return the syntax errors in the order they were found.
+	 */
+        public List<ParseException> getSyntaxErrors() {
+
+                return syntaxErrors;
+        }
+
+        /**
+	 * Method used to recover from a syntax error: the tokens are skipped up to the
+	 * semicolon that ends the statement, so the parser goes on with the next one.
+	 */
+        private void skipStatement() {
+
+                Token next = getToken( 1 );
+
+                while ( next.kind != SEMICOLON && next.kind != EOF ) {
+
+                        getNextToken();
+                        next = getToken( 1 );
+                }
+                if ( next.kind == SEMICOLON )
+                        getNextToken();
+        }
+
+        /**
+	 * Method used to unlink the consumed tokens, so the nodes of the syntactic tree
+	 * keep only their own tokens and not the rest of the token chain.
+	 * @param from is the first token that was not released.
+	 * @param to is the token where the release stops, which is kept linked.
+	 * @return the token where the next release starts.
+	 */
+        private Token release ( Token from, Token to ) {
+
+                while ( from != to ) {
+
+                        Token next = from.next;
+                        from.next = null;
+                        from.specialToken = null;
+                        from = next;
+                }
+                return to;
+        }
+
 /* **************************************************************************************************************
 /*                                                Syntax Definition 											*
 /* **************************************************************************************************************/
   final public ListNode program() throws ParseException {
-    trace_call("program");
-    try {
    RelationalOperationsNode r = null;
    ListNode l = null;
-      label_1:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case LEFT_PARENTHESIS:
-        case PROJECT_TOKEN:
-        case SELECT_TOKEN:
-        case RENAME_TOKEN:
-        case TRANSITIVE_CLOSE_LEFT:
-        case IDENTIFIER:
-          ;
-          break;
-        default:
-          jj_la1[0] = jj_gen;
-          break label_1;
-        }
+   Token released = token;
+
+   syntaxErrors.clear();
+    label_1:
+    while (true) {
+      if (getToken( 1 ).kind != EOF) {
+        ;
+      } else {
+        break label_1;
+      }
+      try {
         r = relationalOperations();
         jj_consume_token(SEMICOLON);
-              if ( l == null ) l = new ListNode( r );
-              else l.add( r );
+                 if ( l == null ) l = new ListNode( r );
+                 else l.add( r );
+                 released = release( released, token );
+      } catch (ParseException exception) {
+              // Panic mode: the statement is skipped and its tokens stay linked to the error
+              syntaxErrors.add( exception );
+              skipStatement();
+              released = token;
       }
-      jj_consume_token(0);
+    }
+    jj_consume_token(0);
           {if (true) return l;}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("program");
-    }
   }
 
   final public RelationalOperationsNode relationalOperations() throws ParseException {
-    trace_call("relationalOperations");
-    try {
    RelationalOperationsNodeChildren opnd = null;
-      opnd = query();
+    opnd = query();
      {if (true) return new RelationalOperationsNode( (QueryNode) opnd );}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("relationalOperations");
-    }
   }
 
   final public QueryNode query() throws ParseException {
-    trace_call("query");
-    try {
    QueryNodeChildren qnc = null;
-      qnc = readyOnlyOperations();
+    qnc = readyOnlyOperations();
           {if (true) return new QueryNode( qnc );}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("query");
-    }
   }
 
   final public ReadyOnlyOperationsNode readyOnlyOperations() throws ParseException {
-    trace_call("readyOnlyOperations");
-    try {
         ReadyOnlyOperationsNodeChildren roonc = null;
-      if (jj_2_1(2)) {
-        roonc = binaryOperations();
-      } else {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case PROJECT_TOKEN:
-        case SELECT_TOKEN:
-        case RENAME_TOKEN:
-        case TRANSITIVE_CLOSE_LEFT:
-        case IDENTIFIER:
-          roonc = unitaryOperations();
-          break;
-        default:
-          jj_la1[1] = jj_gen;
-          jj_consume_token(-1);
-          throw new ParseException();
-        }
+        ReadyOnlyOperationsNode roon = null;
+        RelationNode rn = null;
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case LEFT_PARENTHESIS:
+      jj_consume_token(LEFT_PARENTHESIS);
+      roon = readyOnlyOperations();
+      jj_consume_token(RIGHT_PARENTHESIS);
+      roonc = binaryOperations(roon, null);
+      break;
+    case IDENTIFIER:
+      rn = relation();
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case MINUS_SIGN:
+      case SOLIDUS:
+      case LEFT_BRACKET:
+      case CROSS_TOKEN:
+      case NATURAL_JOIN_TOKEN:
+      case AND:
+      case OR:
+        roonc = binaryOperations(null, rn);
+        break;
+      default:
+        jj_la1[0] = jj_gen;
+        ;
       }
+      break;
+    case PROJECT_TOKEN:
+    case SELECT_TOKEN:
+    case RENAME_TOKEN:
+    case TRANSITIVE_CLOSE_LEFT:
+      roonc = unitaryOperations();
+      break;
+    default:
+      jj_la1[1] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+          if ( roonc == null ) roonc = new UnitaryOperationsNode( rn );
           {if (true) return new ReadyOnlyOperationsNode(roonc);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("readyOnlyOperations");
-    }
   }
 
-  final public BinaryOperationsNode binaryOperations() throws ParseException {
-    trace_call("binaryOperations");
-    try {
+  final public BinaryOperationsNode binaryOperations(ReadyOnlyOperationsNode roon1, RelationNode rn1) throws ParseException {
         BinaryOperationsNodeChildren bonc = null;
         BinarySetNode bst = null;
-        ReadyOnlyOperationsNode roon1 = null;
         ReadyOnlyOperationsNode roon2 = null;
-        RelationNode rn1 = null;
         RelationNode rn2 = null;
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LEFT_PARENTHESIS:
-        jj_consume_token(LEFT_PARENTHESIS);
-        roon1 = readyOnlyOperations();
-        jj_consume_token(RIGHT_PARENTHESIS);
-        break;
-      case IDENTIFIER:
-        rn1 = relation();
-        break;
-      default:
-        jj_la1[2] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case OR:
-        bonc = union();
-        break;
-      case AND:
-        bonc = intersection();
-        break;
-      case MINUS_SIGN:
-        bonc = difference();
-        break;
-      case LEFT_BRACKET:
-      case NATURAL_JOIN_TOKEN:
-        bonc = join();
-        break;
-      case CROSS_TOKEN:
-        bonc = crossjoin();
-        break;
-      case SOLIDUS:
-        bonc = division();
-        break;
-      default:
-        jj_la1[3] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LEFT_PARENTHESIS:
-        jj_consume_token(LEFT_PARENTHESIS);
-        roon2 = readyOnlyOperations();
-        jj_consume_token(RIGHT_PARENTHESIS);
-        break;
-      case IDENTIFIER:
-        rn2 = relation();
-        break;
-      default:
-        jj_la1[4] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case OR:
+      bonc = union();
+      break;
+    case AND:
+      bonc = intersection();
+      break;
+    case MINUS_SIGN:
+      bonc = difference();
+      break;
+    case LEFT_BRACKET:
+    case NATURAL_JOIN_TOKEN:
+      bonc = join();
+      break;
+    case CROSS_TOKEN:
+      bonc = crossjoin();
+      break;
+    case SOLIDUS:
+      bonc = division();
+      break;
+    default:
+      jj_la1[2] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case LEFT_PARENTHESIS:
+      jj_consume_token(LEFT_PARENTHESIS);
+      roon2 = readyOnlyOperations();
+      jj_consume_token(RIGHT_PARENTHESIS);
+      break;
+    case IDENTIFIER:
+      rn2 = relation();
+      break;
+    default:
+      jj_la1[3] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
         bst = new BinarySetNode();
         if(roon1 != null) bst.addFirstRelation(roon1); else bst.addFirstRelation(rn1);
         if(roon2 != null) bst.addSecondRelation(roon2); else bst.addSecondRelation(rn2);
         {if (true) return new BinaryOperationsNode(bonc, bst);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("binaryOperations");
-    }
   }
 
   final public UnionNode union() throws ParseException {
-    trace_call("union");
-    try {
         Token t = null;
-      t = jj_consume_token(OR);
+    t = jj_consume_token(OR);
           {if (true) return new UnionNode(t);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("union");
-    }
   }
 
   final public IntersectionNode intersection() throws ParseException {
-    trace_call("intersection");
-    try {
         Token t = null;
-      t = jj_consume_token(AND);
+    t = jj_consume_token(AND);
           {if (true) return new IntersectionNode(t);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("intersection");
-    }
   }
 
   final public DifferenceNode difference() throws ParseException {
-    trace_call("difference");
-    try {
         Token t = null;
-      t = jj_consume_token(MINUS_SIGN);
+    t = jj_consume_token(MINUS_SIGN);
           {if (true) return new DifferenceNode(t);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("difference");
-    }
   }
 
   final public CrossJoinNode crossjoin() throws ParseException {
-    trace_call("crossjoin");
-    try {
         Token t = null;
-      t = jj_consume_token(CROSS_TOKEN);
+    t = jj_consume_token(CROSS_TOKEN);
           {if (true) return new CrossJoinNode(t);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("crossjoin");
-    }
   }
 
   final public JoinNode join() throws ParseException {
-    trace_call("join");
-    try {
         LogicalSentenceNode lsn = null;
         Token t = null;
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case NATURAL_JOIN_TOKEN:
+      t = jj_consume_token(NATURAL_JOIN_TOKEN);
+      break;
+    case LEFT_BRACKET:
+      t = jj_consume_token(LEFT_BRACKET);
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case NATURAL_JOIN_TOKEN:
-        t = jj_consume_token(NATURAL_JOIN_TOKEN);
-        break;
-      case LEFT_BRACKET:
-        t = jj_consume_token(LEFT_BRACKET);
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case LEFT_PARENTHESIS:
-        case NOT:
-        case INTEGER:
-        case DECIMAL:
-        case HEX:
-        case OCT:
-        case BIN:
-        case STRING:
-        case TRUE:
-        case FALSE:
-        case IDENTIFIER:
-          lsn = logicalSentence();
-          break;
-        default:
-          jj_la1[5] = jj_gen;
-          ;
-        }
-        jj_consume_token(RIGHT_BRACKET);
+      case LEFT_PARENTHESIS:
+      case NOT:
+      case INTEGER:
+      case DECIMAL:
+      case HEX:
+      case OCT:
+      case BIN:
+      case STRING:
+      case TRUE:
+      case FALSE:
+      case IDENTIFIER:
+        lsn = logicalSentence();
         break;
       default:
-        jj_la1[6] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
+        jj_la1[4] = jj_gen;
+        ;
       }
+      jj_consume_token(RIGHT_BRACKET);
+      break;
+    default:
+      jj_la1[5] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
           if(lsn == null) {if (true) return new JoinNode(t);} else {if (true) return new JoinNode(t, lsn);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("join");
-    }
   }
 
   final public DivisionNode division() throws ParseException {
-    trace_call("division");
-    try {
         Token t = null;
-      t = jj_consume_token(SOLIDUS);
+    t = jj_consume_token(SOLIDUS);
           {if (true) return new DivisionNode(t);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("division");
-    }
   }
 
   final public UnitaryOperationsNode unitaryOperations() throws ParseException {
-    trace_call("unitaryOperations");
-    try {
         UnitaryOperationsNodeChildren uonc = null;
         ReadyOnlyOperationsNode roon = null;
-        RelationNode rn = null;
         UnitaryOperationsNode uon = null;
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case TRANSITIVE_CLOSE_LEFT:
-        uon = transitiveClose();
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case TRANSITIVE_CLOSE_LEFT:
+      uon = transitiveClose();
                                   {if (true) return uon;}
-        break;
-      case IDENTIFIER:
-        rn = relation();
-                            {if (true) return new UnitaryOperationsNode( rn );}
-        break;
+      break;
+    case PROJECT_TOKEN:
+    case SELECT_TOKEN:
+    case RENAME_TOKEN:
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case PROJECT_TOKEN:
+        uonc = project();
+        break;
       case SELECT_TOKEN:
+        uonc = select();
+        break;
       case RENAME_TOKEN:
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case PROJECT_TOKEN:
-          uonc = project();
-          break;
-        case SELECT_TOKEN:
-          uonc = select();
-          break;
-        case RENAME_TOKEN:
-          uonc = rename();
-          break;
-        default:
-          jj_la1[7] = jj_gen;
-          jj_consume_token(-1);
-          throw new ParseException();
-        }
-        jj_consume_token(LEFT_PARENTHESIS);
-        roon = readyOnlyOperations();
-        jj_consume_token(RIGHT_PARENTHESIS);
-                                                                                   {if (true) return new UnitaryOperationsNode(uonc, roon);}
+        uonc = rename();
         break;
       default:
-        jj_la1[8] = jj_gen;
+        jj_la1[6] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
-    throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("unitaryOperations");
+      jj_consume_token(LEFT_PARENTHESIS);
+      roon = readyOnlyOperations();
+      jj_consume_token(RIGHT_PARENTHESIS);
+                                                                                   {if (true) return new UnitaryOperationsNode(uonc, roon);}
+      break;
+    default:
+      jj_la1[7] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
     }
+    throw new Error("Missing return statement in function");
   }
 
   final public UnitaryOperationsNode transitiveClose() throws ParseException {
-    trace_call("transitiveClose");
-    try {
         UnitaryOperationsNodeChildren uonc = null;
         ReadyOnlyOperationsNode roon = null;
         RelationNode rn = null;
         Token t = null;
-      t = jj_consume_token(TRANSITIVE_CLOSE_LEFT);
-      if (jj_2_2(2)) {
-        rn = relation();
-      } else {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case LEFT_PARENTHESIS:
-        case PROJECT_TOKEN:
-        case SELECT_TOKEN:
-        case RENAME_TOKEN:
-        case TRANSITIVE_CLOSE_LEFT:
-        case IDENTIFIER:
-          roon = readyOnlyOperations();
-          break;
-        default:
-          jj_la1[9] = jj_gen;
-          jj_consume_token(-1);
-          throw new ParseException();
-        }
-      }
-      jj_consume_token(TRANSITIVE_CLOSE_RIGHT);
-          uonc = new TransitiveCloseNode(t); if(rn==null) {if (true) return new UnitaryOperationsNode(uonc, roon);} else {if (true) return new UnitaryOperationsNode(uonc, rn);}
+    t = jj_consume_token(TRANSITIVE_CLOSE_LEFT);
+    roon = readyOnlyOperations();
+    jj_consume_token(TRANSITIVE_CLOSE_RIGHT);
+        uonc = new TransitiveCloseNode(t);
+        // A relation by itself is closed directly
+        if(roon.getNode() instanceof UnitaryOperationsNode && ((UnitaryOperationsNode) roon.getNode()).getUnitaryOperationsChildrenNode() == null)
+                rn = ((UnitaryOperationsNode) roon.getNode()).getRelationNode();
+        if(rn==null) {if (true) return new UnitaryOperationsNode(uonc, roon);} else {if (true) return new UnitaryOperationsNode(uonc, rn);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("transitiveClose");
-    }
   }
 
   final public ProjectNode project() throws ParseException {
-    trace_call("project");
-    try {
         ListNode ln = null;
         Token token = null;
-      jj_consume_token(PROJECT_TOKEN);
-      token = jj_consume_token(IDENTIFIER);
+    jj_consume_token(PROJECT_TOKEN);
+    token = jj_consume_token(IDENTIFIER);
           ln = new ListNode( new AttributeNode( token ) );
-      label_2:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case COMMA:
-          ;
-          break;
-        default:
-          jj_la1[10] = jj_gen;
-          break label_2;
-        }
-        jj_consume_token(COMMA);
-        token = jj_consume_token(IDENTIFIER);
-           ln.add( new AttributeNode( token ) );
+    label_2:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case COMMA:
+        ;
+        break;
+      default:
+        jj_la1[8] = jj_gen;
+        break label_2;
       }
+      jj_consume_token(COMMA);
+      token = jj_consume_token(IDENTIFIER);
+           ln.add( new AttributeNode( token ) );
+    }
           {if (true) return new ProjectNode(ln);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("project");
-    }
   }
 
   final public SelectNode select() throws ParseException {
-    trace_call("select");
-    try {
         LogicalSentenceNode lsn = null;
-      jj_consume_token(SELECT_TOKEN);
-      lsn = logicalSentence();
+    jj_consume_token(SELECT_TOKEN);
+    lsn = logicalSentence();
      {if (true) return new SelectNode(lsn);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("select");
-    }
   }
 
   final public RenameNode rename() throws ParseException {
-    trace_call("rename");
-    try {
         ListNode ln = null;
         Token t1 = null, t2 = null;
-      jj_consume_token(RENAME_TOKEN);
-      t1 = jj_consume_token(IDENTIFIER);
-      t2 = jj_consume_token(IDENTIFIER);
+    jj_consume_token(RENAME_TOKEN);
+    t1 = jj_consume_token(IDENTIFIER);
+    t2 = jj_consume_token(IDENTIFIER);
      if(ln==null) ln = new ListNode( new RenameSetNode(t1, t2) );
         else ln.add( new RenameSetNode(t1, t2) );
-      label_3:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case COMMA:
-          ;
-          break;
-        default:
-          jj_la1[11] = jj_gen;
-          break label_3;
-        }
-        jj_consume_token(COMMA);
-        t1 = jj_consume_token(IDENTIFIER);
-        t2 = jj_consume_token(IDENTIFIER);
+    label_3:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case COMMA:
+        ;
+        break;
+      default:
+        jj_la1[9] = jj_gen;
+        break label_3;
+      }
+      jj_consume_token(COMMA);
+      t1 = jj_consume_token(IDENTIFIER);
+      t2 = jj_consume_token(IDENTIFIER);
           if(ln==null) ln = new ListNode( new RenameSetNode(t1, t2) );
         else ln.add( new RenameSetNode(t1, t2) );
-      }
+    }
      {if (true) return new RenameNode(ln);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("rename");
-    }
   }
 
   final public RelationNode relation() throws ParseException {
-    trace_call("relation");
-    try {
         Token t = null;
-      t = jj_consume_token(IDENTIFIER);
+    t = jj_consume_token(IDENTIFIER);
      {if (true) return new RelationNode(t);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("relation");
-    }
   }
 
   final public LogicalSentenceNode logicalSentence() throws ParseException {
-    trace_call("logicalSentence");
-    try {
         ConditionalSentenceNode csn1 = null;
         ConditionalSentenceNode csn2 = null;
         LogicalOperatorNode lon = null;
         LogicalOperatorNode temp = null;
         Token t = null;
-      csn1 = conditionalSentence();
-      label_4:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case AND:
-        case OR:
-        case XOR:
-          ;
-          break;
-        default:
-          jj_la1[12] = jj_gen;
-          break label_4;
-        }
-        t = logicalOperator();
-        csn2 = conditionalSentence();
+    csn1 = conditionalSentence();
+    label_4:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case AND:
+      case OR:
+      case XOR:
+        ;
+        break;
+      default:
+        jj_la1[10] = jj_gen;
+        break label_4;
+      }
+      t = logicalOperator();
+      csn2 = conditionalSentence();
                 if(lon == null) { lon = new LogicalOperatorNode(t, csn1, csn2);
                 temp = lon;
                 }else{
                         temp.add(t, csn2);
                         temp = temp.getNextLogicalOperatorNode();
                 }
-      }
+    }
                 if(lon==null) {if (true) return new LogicalSentenceNode(csn1);}
                 else {if (true) return new LogicalSentenceNode(lon);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("logicalSentence");
-    }
   }
 
   final public ConditionalSentenceNode conditionalSentence() throws ParseException {
-    trace_call("conditionalSentence");
-    try {
         ComparisonSentenceNode csn = null;
         ComparisonSentenceNode csn1 = null;
         ComparisonSentenceNode csn2 = null;
         ListNode ln = null;
         Token t = null;
-      csn = comparisonSentence();
-      label_5:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case IF:
-          ;
-          break;
-        default:
-          jj_la1[13] = jj_gen;
-          break label_5;
-        }
-        t = jj_consume_token(IF);
-        csn1 = comparisonSentence();
-        jj_consume_token(COLON);
-        csn2 = comparisonSentence();
-                if(ln == null) ln = new ListNode(new IfNode(t, csn1, csn2)); else ln.add(new IfNode(t, csn1, csn2));
+    csn = comparisonSentence();
+    label_5:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case IF:
+        ;
+        break;
+      default:
+        jj_la1[11] = jj_gen;
+        break label_5;
       }
+      t = jj_consume_token(IF);
+      csn1 = comparisonSentence();
+      jj_consume_token(COLON);
+      csn2 = comparisonSentence();
+                if(ln == null) ln = new ListNode(new IfNode(t, csn1, csn2)); else ln.add(new IfNode(t, csn1, csn2));
+    }
           if(ln==null) {if (true) return new ConditionalSentenceNode(csn);} else {if (true) return new ConditionalSentenceNode(csn, ln);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("conditionalSentence");
-    }
   }
 
   final public ComparisonSentenceNode comparisonSentence() throws ParseException {
-    trace_call("comparisonSentence");
-    try {
         InstanceofSentenceNode isn1 = null;
         InstanceofSentenceNode isn2 = null;
         ComparisonOperatorNode con = null;
         ComparisonOperatorNode temp = null;
         Token t = null;
-      isn1 = instanceofSentence();
-      label_6:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case LESS_THAN:
-        case EQUALS:
-        case NOT_EQUALS:
-        case GREATER_THAN:
-        case GREATER_THAN_OR_EQUALS:
-        case LESS_THAN_OR_EQUALS:
-          ;
-          break;
-        default:
-          jj_la1[14] = jj_gen;
-          break label_6;
-        }
-        t = comparisonOperator();
-        isn2 = instanceofSentence();
+    isn1 = instanceofSentence();
+    label_6:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case LESS_THAN:
+      case EQUALS:
+      case NOT_EQUALS:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUALS:
+      case LESS_THAN_OR_EQUALS:
+        ;
+        break;
+      default:
+        jj_la1[12] = jj_gen;
+        break label_6;
+      }
+      t = comparisonOperator();
+      isn2 = instanceofSentence();
                 if(con == null){
                         con = new ComparisonOperatorNode(t, isn1, isn2);
                         temp = con;
@@ -1027,71 +1074,61 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                         temp.add(t, isn2);
                         temp = temp.getNextComparisonOperatorNode();
            }
-      }
+    }
                 if(con==null) {if (true) return new ComparisonSentenceNode(isn1);}
                 else {if (true) return new ComparisonSentenceNode(con);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("comparisonSentence");
-    }
   }
 
   final public InstanceofSentenceNode instanceofSentence() throws ParseException {
-    trace_call("instanceofSentence");
-    try {
         AdditionSentenceNode asn = null;
         Token type = null;
-      asn = additionSentence();
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case INSTANCEOF:
-        jj_consume_token(INSTANCEOF);
-        type = type();
-        break;
-      default:
-        jj_la1[15] = jj_gen;
-        ;
-      }
+    asn = additionSentence();
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case INSTANCEOF:
+      jj_consume_token(INSTANCEOF);
+      type = type();
+      break;
+    default:
+      jj_la1[13] = jj_gen;
+      ;
+    }
      if(type != null) {if (true) return new InstanceofSentenceNode(asn);}
    else {if (true) return new InstanceofSentenceNode(asn, type);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("instanceofSentence");
-    }
   }
 
   final public AdditionSentenceNode additionSentence() throws ParseException {
-    trace_call("additionSentence");
-    try {
         MultiplicationSentenceNode msn1 = null;
         MultiplicationSentenceNode msn2 = null;
         AdditionOperatorNode aon = null;
         AdditionOperatorNode temp = null;
         Token t = null;
-      msn1 = multiplicationSentence();
-      label_7:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case PLUS_SIGN:
-        case MINUS_SIGN:
-          ;
-          break;
-        default:
-          jj_la1[16] = jj_gen;
-          break label_7;
-        }
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case PLUS_SIGN:
-          t = jj_consume_token(PLUS_SIGN);
-          break;
-        case MINUS_SIGN:
-          t = jj_consume_token(MINUS_SIGN);
-          break;
-        default:
-          jj_la1[17] = jj_gen;
-          jj_consume_token(-1);
-          throw new ParseException();
-        }
-        msn2 = multiplicationSentence();
+    msn1 = multiplicationSentence();
+    label_7:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case PLUS_SIGN:
+      case MINUS_SIGN:
+        ;
+        break;
+      default:
+        jj_la1[14] = jj_gen;
+        break label_7;
+      }
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case PLUS_SIGN:
+        t = jj_consume_token(PLUS_SIGN);
+        break;
+      case MINUS_SIGN:
+        t = jj_consume_token(MINUS_SIGN);
+        break;
+      default:
+        jj_la1[15] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
+      msn2 = multiplicationSentence();
                 if(aon == null){
                         aon = new AdditionOperatorNode(t, msn1, msn2);
                         temp = aon;
@@ -1099,56 +1136,51 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                         temp.add(t, msn2);
                         temp = temp.getNextAdditionOperatorNode();
            }
-      }
+    }
                 if(aon==null) {if (true) return new AdditionSentenceNode(msn1);}
                 else {if (true) return new AdditionSentenceNode(aon);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("additionSentence");
-    }
   }
 
   final public MultiplicationSentenceNode multiplicationSentence() throws ParseException {
-    trace_call("multiplicationSentence");
-    try {
         FactorNode fn1 = null;
         FactorNode fn2 = null;
         MultiplicationOperatorNode mon = null;
         MultiplicationOperatorNode temp = null;
         Token t = null;
-      fn1 = factor();
-      label_8:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case PERCENT:
-        case ASTERISK:
-        case SOLIDUS:
-        case POWER:
-          ;
-          break;
-        default:
-          jj_la1[18] = jj_gen;
-          break label_8;
-        }
-        switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case ASTERISK:
-          t = jj_consume_token(ASTERISK);
-          break;
-        case POWER:
-          t = jj_consume_token(POWER);
-          break;
-        case SOLIDUS:
-          t = jj_consume_token(SOLIDUS);
-          break;
-        case PERCENT:
-          t = jj_consume_token(PERCENT);
-          break;
-        default:
-          jj_la1[19] = jj_gen;
-          jj_consume_token(-1);
-          throw new ParseException();
-        }
-        fn2 = factor();
+    fn1 = factor();
+    label_8:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case PERCENT:
+      case ASTERISK:
+      case SOLIDUS:
+      case POWER:
+        ;
+        break;
+      default:
+        jj_la1[16] = jj_gen;
+        break label_8;
+      }
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case ASTERISK:
+        t = jj_consume_token(ASTERISK);
+        break;
+      case POWER:
+        t = jj_consume_token(POWER);
+        break;
+      case SOLIDUS:
+        t = jj_consume_token(SOLIDUS);
+        break;
+      case PERCENT:
+        t = jj_consume_token(PERCENT);
+        break;
+      default:
+        jj_la1[17] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
+      fn2 = factor();
            if(mon == null){
                         mon = new MultiplicationOperatorNode(t, fn1, fn2);
                         temp = mon;
@@ -1156,444 +1188,179 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
                         temp.add(t, fn2);
                         temp = temp.getNextMultiplicationOperatorNode();
            }
-      }
+    }
                 if(mon==null) {if (true) return new MultiplicationSentenceNode(fn1);}
                 else {if (true) return new MultiplicationSentenceNode(mon);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("multiplicationSentence");
-    }
   }
 
   final public FactorNode factor() throws ParseException {
-    trace_call("factor");
-    try {
         Token not = null;
         Token t = null;
         ConditionalSentenceNode csn = null;
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case NOT:
-        not = jj_consume_token(NOT);
-        break;
-      default:
-        jj_la1[20] = jj_gen;
-        ;
-      }
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case INTEGER:
-      case DECIMAL:
-      case HEX:
-      case OCT:
-      case BIN:
-      case STRING:
-      case TRUE:
-      case FALSE:
-        t = literal();
-        break;
-      case IDENTIFIER:
-        t = jj_consume_token(IDENTIFIER);
-        break;
-      case LEFT_PARENTHESIS:
-        jj_consume_token(LEFT_PARENTHESIS);
-        csn = conditionalSentence();
-        jj_consume_token(RIGHT_PARENTHESIS);
-        break;
-      default:
-        jj_la1[21] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case NOT:
+      not = jj_consume_token(NOT);
+      break;
+    default:
+      jj_la1[18] = jj_gen;
+      ;
+    }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case INTEGER:
+    case DECIMAL:
+    case HEX:
+    case OCT:
+    case BIN:
+    case STRING:
+    case TRUE:
+    case FALSE:
+      t = literal();
+      break;
+    case IDENTIFIER:
+      t = jj_consume_token(IDENTIFIER);
+      break;
+    case LEFT_PARENTHESIS:
+      jj_consume_token(LEFT_PARENTHESIS);
+      csn = conditionalSentence();
+      jj_consume_token(RIGHT_PARENTHESIS);
+      break;
+    default:
+      jj_la1[19] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
      if(csn == null) {if (true) return new FactorNode(not, t);} else {if (true) return new FactorNode(not, csn);}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("factor");
-    }
   }
 
   final public Token logicalOperator() throws ParseException {
-    trace_call("logicalOperator");
-    try {
         Token t = null;
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case AND:
-        t = jj_consume_token(AND);
-        break;
-      case OR:
-        t = jj_consume_token(OR);
-        break;
-      case XOR:
-        t = jj_consume_token(XOR);
-        break;
-      default:
-        jj_la1[22] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case AND:
+      t = jj_consume_token(AND);
+      break;
+    case OR:
+      t = jj_consume_token(OR);
+      break;
+    case XOR:
+      t = jj_consume_token(XOR);
+      break;
+    default:
+      jj_la1[20] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
      {if (true) return t;}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("logicalOperator");
-    }
   }
 
   final public Token comparisonOperator() throws ParseException {
-    trace_call("comparisonOperator");
-    try {
         Token t = null;
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case LESS_THAN:
-        t = jj_consume_token(LESS_THAN);
-        break;
-      case LESS_THAN_OR_EQUALS:
-        t = jj_consume_token(LESS_THAN_OR_EQUALS);
-        break;
-      case GREATER_THAN:
-        t = jj_consume_token(GREATER_THAN);
-        break;
-      case GREATER_THAN_OR_EQUALS:
-        t = jj_consume_token(GREATER_THAN_OR_EQUALS);
-        break;
-      case EQUALS:
-        t = jj_consume_token(EQUALS);
-        break;
-      case NOT_EQUALS:
-        t = jj_consume_token(NOT_EQUALS);
-        break;
-      default:
-        jj_la1[23] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case LESS_THAN:
+      t = jj_consume_token(LESS_THAN);
+      break;
+    case LESS_THAN_OR_EQUALS:
+      t = jj_consume_token(LESS_THAN_OR_EQUALS);
+      break;
+    case GREATER_THAN:
+      t = jj_consume_token(GREATER_THAN);
+      break;
+    case GREATER_THAN_OR_EQUALS:
+      t = jj_consume_token(GREATER_THAN_OR_EQUALS);
+      break;
+    case EQUALS:
+      t = jj_consume_token(EQUALS);
+      break;
+    case NOT_EQUALS:
+      t = jj_consume_token(NOT_EQUALS);
+      break;
+    default:
+      jj_la1[21] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
      {if (true) return t;}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("comparisonOperator");
-    }
   }
 
   final public Token literal() throws ParseException {
-    trace_call("literal");
-    try {
         Token t = null;
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case INTEGER:
-        t = jj_consume_token(INTEGER);
-        break;
-      case DECIMAL:
-        t = jj_consume_token(DECIMAL);
-        break;
-      case HEX:
-        t = jj_consume_token(HEX);
-        break;
-      case OCT:
-        t = jj_consume_token(OCT);
-        break;
-      case BIN:
-        t = jj_consume_token(BIN);
-        break;
-      case STRING:
-        t = jj_consume_token(STRING);
-        break;
-      case TRUE:
-        t = jj_consume_token(TRUE);
-        break;
-      case FALSE:
-        t = jj_consume_token(FALSE);
-        break;
-      default:
-        jj_la1[24] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case INTEGER:
+      t = jj_consume_token(INTEGER);
+      break;
+    case DECIMAL:
+      t = jj_consume_token(DECIMAL);
+      break;
+    case HEX:
+      t = jj_consume_token(HEX);
+      break;
+    case OCT:
+      t = jj_consume_token(OCT);
+      break;
+    case BIN:
+      t = jj_consume_token(BIN);
+      break;
+    case STRING:
+      t = jj_consume_token(STRING);
+      break;
+    case TRUE:
+      t = jj_consume_token(TRUE);
+      break;
+    case FALSE:
+      t = jj_consume_token(FALSE);
+      break;
+    default:
+      jj_la1[22] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
           {if (true) return t;}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("literal");
-    }
   }
 
   final public Token type() throws ParseException {
-    trace_call("type");
-    try {
         Token t = null;
-      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case VARCHAR_TYPE:
-        t = jj_consume_token(VARCHAR_TYPE);
-        break;
-      case CHAR_TYPE:
-        t = jj_consume_token(CHAR_TYPE);
-        break;
-      case INTEGER_TYPE:
-        t = jj_consume_token(INTEGER_TYPE);
-        break;
-      case DOUBLE_TYPE:
-        t = jj_consume_token(DOUBLE_TYPE);
-        break;
-      case FLOAT_TYPE:
-        t = jj_consume_token(FLOAT_TYPE);
-        break;
-      case BLOB_TYPE:
-        t = jj_consume_token(BLOB_TYPE);
-        break;
-      case GEOMETRIC_TYPE:
-        t = jj_consume_token(GEOMETRIC_TYPE);
-        break;
-      case RELATION_TYPE:
-        t = jj_consume_token(RELATION_TYPE);
-        break;
-      case BOOLEAN_TYPE:
-        t = jj_consume_token(BOOLEAN_TYPE);
-        break;
-      case IDENTIFIER:
-        t = jj_consume_token(IDENTIFIER);
-        break;
-      default:
-        jj_la1[25] = jj_gen;
-        jj_consume_token(-1);
-        throw new ParseException();
-      }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case VARCHAR_TYPE:
+      t = jj_consume_token(VARCHAR_TYPE);
+      break;
+    case CHAR_TYPE:
+      t = jj_consume_token(CHAR_TYPE);
+      break;
+    case INTEGER_TYPE:
+      t = jj_consume_token(INTEGER_TYPE);
+      break;
+    case DOUBLE_TYPE:
+      t = jj_consume_token(DOUBLE_TYPE);
+      break;
+    case FLOAT_TYPE:
+      t = jj_consume_token(FLOAT_TYPE);
+      break;
+    case BLOB_TYPE:
+      t = jj_consume_token(BLOB_TYPE);
+      break;
+    case GEOMETRIC_TYPE:
+      t = jj_consume_token(GEOMETRIC_TYPE);
+      break;
+    case RELATION_TYPE:
+      t = jj_consume_token(RELATION_TYPE);
+      break;
+    case BOOLEAN_TYPE:
+      t = jj_consume_token(BOOLEAN_TYPE);
+      break;
+    case IDENTIFIER:
+      t = jj_consume_token(IDENTIFIER);
+      break;
+    default:
+      jj_la1[23] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
           {if (true) return t;}
     throw new Error("Missing return statement in function");
-    } finally {
-      trace_return("type");
-    }
-  }
-
-  private boolean jj_2_1(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_1(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(0, xla); }
-  }
-
-  private boolean jj_2_2(int xla) {
-    jj_la = xla; jj_lastpos = jj_scanpos = token;
-    try { return !jj_3_2(); }
-    catch(LookaheadSuccess ls) { return true; }
-    finally { jj_save(1, xla); }
-  }
-
-  private boolean jj_3R_24() {
-    if (!jj_rescan) trace_call("crossjoin(LOOKING AHEAD...)");
-    if (jj_scan_token(CROSS_TOKEN)) { if (!jj_rescan) trace_return("crossjoin(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("crossjoin(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_32() {
-    if (!jj_rescan) trace_call("transitiveClose(LOOKING AHEAD...)");
-    if (jj_scan_token(TRANSITIVE_CLOSE_LEFT)) { if (!jj_rescan) trace_return("transitiveClose(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("transitiveClose(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_26() {
-    if (jj_3R_28()) return true;
-    return false;
-  }
-
-  private boolean jj_3_1() {
-    if (jj_3R_9()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_22() {
-    if (!jj_rescan) trace_call("difference(LOOKING AHEAD...)");
-    if (jj_scan_token(MINUS_SIGN)) { if (!jj_rescan) trace_return("difference(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("difference(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_19() {
-    if (!jj_rescan) trace_call("readyOnlyOperations(LOOKING AHEAD...)");
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3_1()) {
-    jj_scanpos = xsp;
-    if (jj_3R_26()) { if (!jj_rescan) trace_return("readyOnlyOperations(LOOKAHEAD FAILED)"); return true; }
-    }
-    { if (!jj_rescan) trace_return("readyOnlyOperations(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_12() {
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_35() {
-    if (jj_3R_38()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_33() {
-    if (jj_3R_36()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_10() {
-    if (!jj_rescan) trace_call("relation(LOOKING AHEAD...)");
-    if (jj_scan_token(IDENTIFIER)) { if (!jj_rescan) trace_return("relation(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("relation(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_34() {
-    if (jj_3R_37()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_21() {
-    if (!jj_rescan) trace_call("intersection(LOOKING AHEAD...)");
-    if (jj_scan_token(AND)) { if (!jj_rescan) trace_return("intersection(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("intersection(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_31() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_33()) {
-    jj_scanpos = xsp;
-    if (jj_3R_34()) {
-    jj_scanpos = xsp;
-    if (jj_3R_35()) return true;
-    }
-    }
-    return false;
-  }
-
-  private boolean jj_3R_30() {
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_29() {
-    if (jj_3R_32()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_28() {
-    if (!jj_rescan) trace_call("unitaryOperations(LOOKING AHEAD...)");
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_29()) {
-    jj_scanpos = xsp;
-    if (jj_3R_30()) {
-    jj_scanpos = xsp;
-    if (jj_3R_31()) { if (!jj_rescan) trace_return("unitaryOperations(LOOKAHEAD FAILED)"); return true; }
-    }
-    }
-    { if (!jj_rescan) trace_return("unitaryOperations(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3_2() {
-    if (jj_3R_10()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_20() {
-    if (!jj_rescan) trace_call("union(LOOKING AHEAD...)");
-    if (jj_scan_token(OR)) { if (!jj_rescan) trace_return("union(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("union(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_38() {
-    if (!jj_rescan) trace_call("rename(LOOKING AHEAD...)");
-    if (jj_scan_token(RENAME_TOKEN)) { if (!jj_rescan) trace_return("rename(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("rename(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_25() {
-    if (!jj_rescan) trace_call("division(LOOKING AHEAD...)");
-    if (jj_scan_token(SOLIDUS)) { if (!jj_rescan) trace_return("division(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("division(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_37() {
-    if (!jj_rescan) trace_call("select(LOOKING AHEAD...)");
-    if (jj_scan_token(SELECT_TOKEN)) { if (!jj_rescan) trace_return("select(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("select(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_17() {
-    if (jj_3R_24()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_27() {
-    if (jj_scan_token(LEFT_BRACKET)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_16() {
-    if (jj_3R_23()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_15() {
-    if (jj_3R_22()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_14() {
-    if (jj_3R_21()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_18() {
-    if (jj_3R_25()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_13() {
-    if (jj_3R_20()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_23() {
-    if (!jj_rescan) trace_call("join(LOOKING AHEAD...)");
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_scan_token(40)) {
-    jj_scanpos = xsp;
-    if (jj_3R_27()) { if (!jj_rescan) trace_return("join(LOOKAHEAD FAILED)"); return true; }
-    }
-    { if (!jj_rescan) trace_return("join(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_11() {
-    if (jj_scan_token(LEFT_PARENTHESIS)) return true;
-    if (jj_3R_19()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_36() {
-    if (!jj_rescan) trace_call("project(LOOKING AHEAD...)");
-    if (jj_scan_token(PROJECT_TOKEN)) { if (!jj_rescan) trace_return("project(LOOKAHEAD FAILED)"); return true; }
-    { if (!jj_rescan) trace_return("project(LOOKAHEAD SUCCEEDED)"); return false; }
-  }
-
-  private boolean jj_3R_9() {
-    if (!jj_rescan) trace_call("binaryOperations(LOOKING AHEAD...)");
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_11()) {
-    jj_scanpos = xsp;
-    if (jj_3R_12()) { if (!jj_rescan) trace_return("binaryOperations(LOOKAHEAD FAILED)"); return true; }
-    }
-    xsp = jj_scanpos;
-    if (jj_3R_13()) {
-    jj_scanpos = xsp;
-    if (jj_3R_14()) {
-    jj_scanpos = xsp;
-    if (jj_3R_15()) {
-    jj_scanpos = xsp;
-    if (jj_3R_16()) {
-    jj_scanpos = xsp;
-    if (jj_3R_17()) {
-    jj_scanpos = xsp;
-    if (jj_3R_18()) { if (!jj_rescan) trace_return("binaryOperations(LOOKAHEAD FAILED)"); return true; }
-    }
-    }
-    }
-    }
-    }
-    { if (!jj_rescan) trace_return("binaryOperations(LOOKAHEAD SUCCEEDED)"); return false; }
   }
 
   /** Generated Token Manager. */
@@ -1604,10 +1371,8 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
   /** Next token. */
   public Token jj_nt;
   private int jj_ntk;
-  private Token jj_scanpos, jj_lastpos;
-  private int jj_la;
   private int jj_gen;
-  final private int[] jj_la1 = new int[26];
+  final private int[] jj_la1 = new int[24];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
   static private int[] jj_la1_2;
@@ -1617,17 +1382,14 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
       jj_la1_init_2();
    }
    private static void jj_la1_init_0() {
-      jj_la1_0 = new int[] {0x200,0x0,0x200,0x10014000,0x200,0x200,0x10000000,0x0,0x0,0x200,0x2000,0x2000,0x0,0x0,0x1f80000,0x0,0x5000,0x5000,0x10880,0x10880,0x0,0x200,0x0,0x1f80000,0x0,0x0,};
+      jj_la1_0 = new int[] {0x10014000,0x200,0x10014000,0x200,0x200,0x10000000,0x0,0x0,0x2000,0x2000,0x0,0x0,0x1f80000,0x0,0x5000,0x5000,0x10880,0x10880,0x0,0x200,0x0,0x1f80000,0x0,0x0,};
    }
    private static void jj_la1_init_1() {
-      jj_la1_1 = new int[] {0x238,0x238,0x0,0x30180,0x0,0xe0080000,0x100,0x38,0x238,0x238,0x0,0x0,0x70000,0x2,0x0,0x1,0x0,0x0,0x4,0x4,0x80000,0xe0000000,0x70000,0x0,0xe0000000,0x1ff00000,};
+      jj_la1_1 = new int[] {0x30180,0x238,0x30180,0x0,0xe0080000,0x100,0x38,0x238,0x0,0x0,0x70000,0x2,0x0,0x1,0x0,0x0,0x4,0x4,0x80000,0xe0000000,0x70000,0x0,0xe0000000,0x1ff00000,};
    }
    private static void jj_la1_init_2() {
-      jj_la1_2 = new int[] {0x20,0x20,0x20,0x0,0x20,0x3f,0x0,0x0,0x20,0x20,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x3f,0x0,0x0,0x1f,0x20,};
+      jj_la1_2 = new int[] {0x0,0x20,0x0,0x20,0x3f,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x3f,0x0,0x0,0x1f,0x20,};
    }
-  final private JJCalls[] jj_2_rtns = new JJCalls[2];
-  private boolean jj_rescan = false;
-  private int jj_gc = 0;
 
   /** Constructor with InputStream. */
   public RelationalQueryLanguage(java.io.InputStream stream) {
@@ -1640,8 +1402,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 26; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 24; i++) jj_la1[i] = -1;
   }
 
   /** Reinitialise. */
@@ -1655,8 +1416,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 26; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 24; i++) jj_la1[i] = -1;
   }
 
   /** Constructor. */
@@ -1666,8 +1426,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 26; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 24; i++) jj_la1[i] = -1;
   }
 
   /** Reinitialise. */
@@ -1677,8 +1436,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 26; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 24; i++) jj_la1[i] = -1;
   }
 
   /** Constructor with generated Token Manager. */
@@ -1687,8 +1445,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 26; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 24; i++) jj_la1[i] = -1;
   }
 
   /** Reinitialise. */
@@ -1697,8 +1454,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 26; i++) jj_la1[i] = -1;
-    for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
+    for (int i = 0; i < 24; i++) jj_la1[i] = -1;
   }
 
   private Token jj_consume_token(int kind) throws ParseException {
@@ -1708,17 +1464,6 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     jj_ntk = -1;
     if (token.kind == kind) {
       jj_gen++;
-      if (++jj_gc > 100) {
-        jj_gc = 0;
-        for (int i = 0; i < jj_2_rtns.length; i++) {
-          JJCalls c = jj_2_rtns[i];
-          while (c != null) {
-            if (c.gen < jj_gen) c.first = null;
-            c = c.next;
-          }
-        }
-      }
-      trace_token(token, "");
       return token;
     }
     token = oldToken;
@@ -1726,31 +1471,6 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     throw generateParseException();
   }
 
-  static private final class LookaheadSuccess extends java.lang.Error { }
-  final private LookaheadSuccess jj_ls = new LookaheadSuccess();
-  private boolean jj_scan_token(int kind) {
-    if (jj_scanpos == jj_lastpos) {
-      jj_la--;
-      if (jj_scanpos.next == null) {
-        jj_lastpos = jj_scanpos = jj_scanpos.next = token_source.getNextToken();
-      } else {
-        jj_lastpos = jj_scanpos = jj_scanpos.next;
-      }
-    } else {
-      jj_scanpos = jj_scanpos.next;
-    }
-    if (jj_rescan) {
-      int i = 0; Token tok = token;
-      while (tok != null && tok != jj_scanpos) { i++; tok = tok.next; }
-      if (tok != null) jj_add_error_token(kind, i);
-    } else {
-      trace_scan(jj_scanpos, kind);
-    }
-    if (jj_scanpos.kind != kind) return true;
-    if (jj_la == 0 && jj_scanpos == jj_lastpos) throw jj_ls;
-    return false;
-  }
-
 
 /** Get the next Token. */
   final public Token getNextToken() {
@@ -1758,7 +1478,6 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     else token = token.next = token_source.getNextToken();
     jj_ntk = -1;
     jj_gen++;
-      trace_token(token, " (in getNextToken)");
     return token;
   }
 
@@ -1782,33 +1501,6 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
   private java.util.List<int[]> jj_expentries = new java.util.ArrayList<int[]>();
   private int[] jj_expentry;
   private int jj_kind = -1;
-  private int[] jj_lasttokens = new int[100];
-  private int jj_endpos;
-
-  private void jj_add_error_token(int kind, int pos) {
-    if (pos >= 100) return;
-    if (pos == jj_endpos + 1) {
-      jj_lasttokens[jj_endpos++] = kind;
-    } else if (jj_endpos != 0) {
-      jj_expentry = new int[jj_endpos];
-      for (int i = 0; i < jj_endpos; i++) {
-        jj_expentry[i] = jj_lasttokens[i];
-      }
-      jj_entries_loop: for (java.util.Iterator<?> it = jj_expentries.iterator(); it.hasNext();) {
-        int[] oldentry = (int[])(it.next());
-        if (oldentry.length == jj_expentry.length) {
-          for (int i = 0; i < jj_expentry.length; i++) {
-            if (oldentry[i] != jj_expentry[i]) {
-              continue jj_entries_loop;
-            }
-          }
-          jj_expentries.add(jj_expentry);
-          break jj_entries_loop;
-        }
-      }
-      if (pos != 0) jj_lasttokens[(jj_endpos = pos) - 1] = kind;
-    }
-  }
 
   /** Generate ParseException. */
   public ParseException generateParseException() {
@@ -1818,7 +1510,7 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
       la1tokens[jj_kind] = true;
       jj_kind = -1;
     }
-    for (int i = 0; i < 26; i++) {
+    for (int i = 0; i < 24; i++) {
       if (jj_la1[i] == jj_gen) {
         for (int j = 0; j < 32; j++) {
           if ((jj_la1_0[i] & (1<<j)) != 0) {
@@ -1840,9 +1532,6 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
         jj_expentries.add(jj_expentry);
       }
     }
-    jj_endpos = 0;
-    jj_rescan_token();
-    jj_add_error_token(0, 0);
     int[][] exptokseq = new int[jj_expentries.size()][];
     for (int i = 0; i < jj_expentries.size(); i++) {
       exptokseq[i] = jj_expentries.get(i);
@@ -1850,91 +1539,12 @@ public class RelationalQueryLanguage implements RelationalQueryLanguageConstants
     return new ParseException(token, exptokseq, tokenImage);
   }
 
-  private int trace_indent = 0;
-  private boolean trace_enabled = true;
-
-/** Enable tracing. */
+  /** Enable tracing. */
   final public void enable_tracing() {
-    trace_enabled = true;
   }
 
-/** Disable tracing. */
+  /** Disable tracing. */
   final public void disable_tracing() {
-    trace_enabled = false;
-  }
-
-  private void trace_call(String s) {
-    if (trace_enabled) {
-      for (int i = 0; i < trace_indent; i++) { System.out.print(" "); }
-      System.out.println("Call:   " + s);
-    }
-    trace_indent = trace_indent + 2;
-  }
-
-  private void trace_return(String s) {
-    trace_indent = trace_indent - 2;
-    if (trace_enabled) {
-      for (int i = 0; i < trace_indent; i++) { System.out.print(" "); }
-      System.out.println("Return: " + s);
-    }
-  }
-
-  private void trace_token(Token t, String where) {
-    if (trace_enabled) {
-      for (int i = 0; i < trace_indent; i++) { System.out.print(" "); }
-      System.out.print("Consumed token: <" + tokenImage[t.kind]);
-      if (t.kind != 0 && !tokenImage[t.kind].equals("\"" + t.image + "\"")) {
-        System.out.print(": \"" + t.image + "\"");
-      }
-      System.out.println(" at line " + t.beginLine + " column " + t.beginColumn + ">" + where);
-    }
-  }
-
-  private void trace_scan(Token t1, int t2) {
-    if (trace_enabled) {
-      for (int i = 0; i < trace_indent; i++) { System.out.print(" "); }
-      System.out.print("Visited token: <" + tokenImage[t1.kind]);
-      if (t1.kind != 0 && !tokenImage[t1.kind].equals("\"" + t1.image + "\"")) {
-        System.out.print(": \"" + t1.image + "\"");
-      }
-      System.out.println(" at line " + t1.beginLine + " column " + t1.beginColumn + ">; Expected token: <" + tokenImage[t2] + ">");
-    }
-  }
-
-  private void jj_rescan_token() {
-    jj_rescan = true;
-    for (int i = 0; i < 2; i++) {
-    try {
-      JJCalls p = jj_2_rtns[i];
-      do {
-        if (p.gen > jj_gen) {
-          jj_la = p.arg; jj_lastpos = jj_scanpos = p.first;
-          switch (i) {
-            case 0: jj_3_1(); break;
-            case 1: jj_3_2(); break;
-          }
-        }
-        p = p.next;
-      } while (p != null);
-      } catch(LookaheadSuccess ls) { }
-    }
-    jj_rescan = false;
-  }
-
-  private void jj_save(int index, int xla) {
-    JJCalls p = jj_2_rtns[index];
-    while (p.gen > jj_gen) {
-      if (p.next == null) { p = p.next = new JJCalls(); break; }
-      p = p.next;
-    }
-    p.gen = jj_gen + xla - jj_la; p.first = token; p.arg = xla;
-  }
-
-  static final class JJCalls {
-    int gen;
-    Token first;
-    int arg;
-    JJCalls next;
   }
 
 }
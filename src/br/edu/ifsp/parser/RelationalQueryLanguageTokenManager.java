@@ -3,19 +3,23 @@ package br.edu.ifsp.parser;
 /*
  * Import session
  */
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import br.edu.ifsp.symbolTable.*;
 import br.edu.ifsp.syntacticTree.*;
 import br.edu.ifsp.syntacticTree.interfaces.*;
 import br.edu.ifsp.symbolTable.exceptions.*;
 import br.edu.ifsp.semanticAnalysis.RelationCheck;
 import br.edu.ifsp.codeGeneration.CodeGenerator;
+import br.edu.ifsp.codeGeneration.Dialect;
+import br.edu.ifsp.codeGeneration.DivisionStrategy;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.translator.BatchCompiler;
+import br.edu.ifsp.translator.BatchReport;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /** Token Manager. */
 public class RelationalQueryLanguageTokenManager implements RelationalQueryLanguageConstants
@@ -1,22 +1,42 @@
 package br.edu.ifsp.semanticAnalysis;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
 import br.edu.ifsp.symbolTable.*;
 import br.edu.ifsp.syntacticTree.*;
 
+/**
+ * Semantic analysis of the syntactic tree. The heading of the relation
+ * produced by every relational operation is recorded on its node, so the
+ * symbol table is only read.
+ */
 public class RelationCheck implements RelationalQueryLanguageConstants {
-	SymbolTable schema;
+
+	/**
+	 * Number of statements from which a program is analysed in parallel.
+	 */
+	public static final int PARALLEL_STATEMENTS = 8;
+
+	SchemaSnapshot schema;
 	int semanticErrors;
-	int globalScope;
+	List<String> semanticErrorMessages = new ArrayList<String>();
+	boolean verbose = true;
 	Set<Integer> numberConstants = new HashSet<Integer>();
 
 	public RelationCheck(SymbolTable st) {
-		schema = st;
+		this(SchemaSnapshot.of(st));
+	}
+
+	public RelationCheck(SchemaSnapshot schema) {
+		this.schema = schema;
 		semanticErrors = 0;
-		globalScope = 0;
 
 		// Fill the set of number constants in RQL
 		numberConstants.add(RelationalQueryLanguageConstants.INTEGER);
@@ -28,33 +48,66 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 
 	public void clearSemanticErrors() {
 		semanticErrors = 0;
+		semanticErrorMessages.clear();
 	}
 
 	public int getSemanticErrors() {
 		return semanticErrors;
 	}
 
+	public List<String> getSemanticErrorMessages() {
+		return semanticErrorMessages;
+	}
+
+	/**
+	 * Method used to enable or disable the messages on the standard output. The
+	 * errors are always available through getSemanticErrorMessages().
+	 */
+	public void setVerbose(boolean verbose) {
+		this.verbose = verbose;
+	}
+
+	/**
+	 * Method used to analyse the statements of a program. The statements are
+	 * independent, so a program with many statements is analysed in parallel
+	 * by a checker for each statement and the errors are reported in the
+	 * order of the program.
+	 */
 	public int semanticAnalysis(ListNode root) {
 		if (root == null) {
-			System.out.println("Nothing to be analysed");
+			if (verbose)
+				System.out.println("Nothing to be analysed");
 			return 0;
 		}
-		System.out.println("Starting the semantic analysis");
+		if (verbose)
+			System.out.println("Starting the semantic analysis");
 		relationalOperationsNodeListCheck(root);
 		return semanticErrors;
 	}
 
 	private void throwSemanticError(String message) {
 		semanticErrors++;
-		System.out.println(message);
+		semanticErrorMessages.add(message.trim());
+		if (verbose)
+			System.out.println(message);
 	}
 
 	private void relationalOperationsNodeListCheck(ListNode x) {
-		if (x == null) {
+		if (x.size() < PARALLEL_STATEMENTS) {
+			for (Node statement : x)
+				relationalOperationsNodeCheck((RelationalOperationsNode) statement);
 			return;
 		}
-		relationalOperationsNodeCheck((RelationalOperationsNode) x.getNode());
-		relationalOperationsNodeListCheck(x.getNext());
+
+		RelationCheck checks[] = new RelationCheck[x.size()];
+		IntStream.range(0, checks.length).parallel().forEach(i -> {
+			checks[i] = new RelationCheck(schema);
+			checks[i].setVerbose(false);
+			checks[i].relationalOperationsNodeCheck((RelationalOperationsNode) x.getNode(i));
+		});
+		for (RelationCheck check : checks)
+			for (String message : check.semanticErrorMessages)
+				throwSemanticError(message);
 	}
 
 	private void relationalOperationsNodeCheck(RelationalOperationsNode x) {
@@ -72,110 +125,94 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 		}
 	}
 
-	private void readyOnlyOperationsNodeCheck(ReadyOnlyOperationsNode x) {
+	private Relation readyOnlyOperationsNodeCheck(ReadyOnlyOperationsNode x) {
 		if (x == null)
-			return;
-		globalScope++;
-		schema.addRelation("temporaryRelation" + globalScope);
+			return new Relation();
+		Relation heading;
 		if (x.getNode() instanceof UnitaryOperationsNode) {
-			unitaryOperationsNodeCheck((UnitaryOperationsNode) x.getNode());
+			heading = unitaryOperationsNodeCheck((UnitaryOperationsNode) x.getNode());
 		} else {
-			binaryOperationsNodeCheck((BinaryOperationsNode) x.getNode());
+			heading = binaryOperationsNodeCheck((BinaryOperationsNode) x.getNode());
 		}
+		x.setHeading(heading);
+		return heading;
 	}
 
-	private void binaryOperationsNodeCheck(BinaryOperationsNode x) {
+	private Relation binaryOperationsNodeCheck(BinaryOperationsNode x) {
 		if (x == null)
-			return;
-		int scope = globalScope;
-		int binaryScopes[] = binarySetNodeCheck(x.getBinarySetNode());
+			return new Relation();
+		Relation binaryRelations[] = binarySetNodeCheck(x.getBinarySetNode());
+		Relation heading = new Relation();
 		if (x.getBinaryOperationsNodeChildren() instanceof JoinNode)
-			joinNodeCheck((JoinNode) x.getBinaryOperationsNodeChildren(), scope, binaryScopes);
+			heading = joinNodeCheck((JoinNode) x.getBinaryOperationsNodeChildren(), binaryRelations);
 		if (x.getBinaryOperationsNodeChildren() instanceof CrossJoinNode)
-			crossJoinNodeCheck((CrossJoinNode) x.getBinaryOperationsNodeChildren(), scope, binaryScopes);
+			heading = crossJoinNodeCheck((CrossJoinNode) x.getBinaryOperationsNodeChildren(), binaryRelations);
 		if (x.getBinaryOperationsNodeChildren() instanceof UnionNode)
-			unionNodeCheck((UnionNode) x.getBinaryOperationsNodeChildren(), scope, binaryScopes);
+			heading = unionNodeCheck((UnionNode) x.getBinaryOperationsNodeChildren(), binaryRelations);
 		if (x.getBinaryOperationsNodeChildren() instanceof IntersectionNode)
-			intersectionNodeCheck((IntersectionNode) x.getBinaryOperationsNodeChildren(), scope, binaryScopes);
+			heading = intersectionNodeCheck((IntersectionNode) x.getBinaryOperationsNodeChildren(), binaryRelations);
 		if (x.getBinaryOperationsNodeChildren() instanceof DifferenceNode)
-			differenceNodeCheck((DifferenceNode) x.getBinaryOperationsNodeChildren(), scope, binaryScopes);
+			heading = differenceNodeCheck((DifferenceNode) x.getBinaryOperationsNodeChildren(), binaryRelations);
 		if (x.getBinaryOperationsNodeChildren() instanceof DivisionNode)
-			divisionNodeCheck((DivisionNode) x.getBinaryOperationsNodeChildren(), scope, binaryScopes);
+			heading = divisionNodeCheck((DivisionNode) x.getBinaryOperationsNodeChildren(), binaryRelations);
+		x.setHeading(heading);
+		return heading;
 	}
 
-	private int[] binarySetNodeCheck(BinarySetNode x) {
-		if (x == null)
-			return null;
-		int binaryScopes[] = new int[2];
+	private Relation[] binarySetNodeCheck(BinarySetNode x) {
+		Relation binaryRelations[] = new Relation[2];
 
-		binaryScopes[0] = globalScope + 1;
 		if (x.getReadyOnlyOperationsNode1() != null) {
-			readyOnlyOperationsNodeCheck(x.getReadyOnlyOperationsNode1());
+			binaryRelations[0] = readyOnlyOperationsNodeCheck(x.getReadyOnlyOperationsNode1());
 		} else {
-			globalScope++;
-			schema.addRelation("temporaryRelation" + globalScope);
-			relationNodeCheck(x.getRelationNode1());
+			binaryRelations[0] = relationNodeCheck(x.getRelationNode1());
 		}
 
-		binaryScopes[1] = globalScope + 1;
 		if (x.getReadyOnlyOperationsNode2() != null) {
-			readyOnlyOperationsNodeCheck(x.getReadyOnlyOperationsNode2());
+			binaryRelations[1] = readyOnlyOperationsNodeCheck(x.getReadyOnlyOperationsNode2());
 		} else {
-			globalScope++;
-			schema.addRelation("temporaryRelation" + globalScope);
-			relationNodeCheck(x.getRelationNode2());
+			binaryRelations[1] = relationNodeCheck(x.getRelationNode2());
 		}
-		return binaryScopes;
+		return binaryRelations;
 	}
 
-	private void unionNodeCheck(UnionNode x, int scope, int[] binaryScopes) {
-		if (x == null)
-			return;
-		Relation relation1 = schema.getRelation("temporaryRelation" + (binaryScopes[0]));
-		Relation relation2 = schema.getRelation("temporaryRelation" + (binaryScopes[1]));
+	private Relation unionNodeCheck(UnionNode x, Relation[] binaryRelations) {
+		Relation relation1 = binaryRelations[0];
+		Relation relation2 = binaryRelations[1];
 		if (relation1.getNumberOfAttributes() != relation2.getNumberOfAttributes()) {
 			throwSemanticError(
 					"\tfor the union operation, the relations must have the same number of attributes : At the line "
 							+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
-		} else {
-			schema.replaceRelation("temporaryRelation" + scope, relation1);
 		}
+		return relation1;
 	}
 
-	private void intersectionNodeCheck(IntersectionNode x, int scope, int[] binaryScopes) {
-		if (x == null)
-			return;
-		Relation relation1 = schema.getRelation("temporaryRelation" + (binaryScopes[0]));
-		Relation relation2 = schema.getRelation("temporaryRelation" + (binaryScopes[1]));
+	private Relation intersectionNodeCheck(IntersectionNode x, Relation[] binaryRelations) {
+		Relation relation1 = binaryRelations[0];
+		Relation relation2 = binaryRelations[1];
 		if (relation1.getNumberOfAttributes() != relation2.getNumberOfAttributes()) {
 			throwSemanticError(
 					"\tfor the intersection operation, the relations must have the same number of attributes : At the line "
 							+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
-		}else{
-			schema.replaceRelation("temporaryRelation" + scope, relation1);
 		}
+		return relation1;
 	}
 
-	private void differenceNodeCheck(DifferenceNode x, int scope, int[] binaryScopes) {
-		if (x == null)
-			return;
-		Relation relation1 = schema.getRelation("temporaryRelation" + (binaryScopes[0]));
-		Relation relation2 = schema.getRelation("temporaryRelation" + (binaryScopes[1]));
+	private Relation differenceNodeCheck(DifferenceNode x, Relation[] binaryRelations) {
+		Relation relation1 = binaryRelations[0];
+		Relation relation2 = binaryRelations[1];
 		if (relation1.getNumberOfAttributes() != relation2.getNumberOfAttributes()) {
 			throwSemanticError(
 					"\tfor the difference operation, the relations must have the same number of attributes : At the line "
 							+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
-		}else{
-			schema.replaceRelation("temporaryRelation" + scope, relation1);
 		}
+		return relation1;
 	}
 
-	private void joinNodeCheck(JoinNode x, int scope, int[] binaryScopes) {
-		if (x == null)
-			return;
-		Relation relation1 = schema.getRelation("temporaryRelation" + (binaryScopes[0]));
-		Relation relation2 = schema.getRelation("temporaryRelation" + (binaryScopes[1]));
-		Relation join = schema.getRelation("temporaryRelation" + scope);
+	private Relation joinNodeCheck(JoinNode x, Relation[] binaryRelations) {
+		Relation relation1 = binaryRelations[0];
+		Relation relation2 = binaryRelations[1];
+		Relation join = new Relation();
 		// Add the attributes of the first relation
 		for (String s : relation1.getAttributeNames()) {
 			join.addAttribute(s, relation1.getAttribute(s));
@@ -184,14 +221,13 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 		for (String s : relation2.getAttributeNames()) {
 			join.addAttribute(s, relation2.getAttribute(s));
 		}
+		return join;
 	}
 
-	private void crossJoinNodeCheck(CrossJoinNode x, int scope, int[] binaryScopes) {
-		if (x == null)
-			return;
-		Relation relation1 = schema.getRelation("temporaryRelation" + (binaryScopes[0]));
-		Relation relation2 = schema.getRelation("temporaryRelation" + (binaryScopes[1]));
-		Relation join = schema.getRelation("temporaryRelation" + scope);
+	private Relation crossJoinNodeCheck(CrossJoinNode x, Relation[] binaryRelations) {
+		Relation relation1 = binaryRelations[0];
+		Relation relation2 = binaryRelations[1];
+		Relation join = new Relation();
 		// Add the attributes of the first relation
 		for (String s : relation1.getAttributeNames()) {
 			join.addAttribute(s, relation1.getAttribute(s));
@@ -200,14 +236,13 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 		for (String s : relation2.getAttributeNames()) {
 			join.addAttribute(s, relation2.getAttribute(s));
 		}
+		return join;
 	}
 
-	private void divisionNodeCheck(DivisionNode x, int scope, int[] binaryScopes) {
-		if (x == null)
-			return;
-		Relation relation1 = schema.getRelation("temporaryRelation" + (binaryScopes[0]));
-		Relation relation2 = schema.getRelation("temporaryRelation" + (binaryScopes[1]));
-		Relation division = schema.getRelation("temporaryRelation" + scope);
+	private Relation divisionNodeCheck(DivisionNode x, Relation[] binaryRelations) {
+		Relation relation1 = binaryRelations[0];
+		Relation relation2 = binaryRelations[1];
+		Relation division = new Relation();
 
 		if (relation1.getNumberOfAttributes() > relation2.getNumberOfAttributes()) {
 			Set<String> relation1Attributes = relation1.getAttributeNames();
@@ -229,73 +264,71 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 					+ x.getPosition().image + "\" at the line " + x.getPosition().beginLine + ", column "
 					+ x.getPosition().beginColumn);
 		}
+		return division;
 	}
 
-	private void unitaryOperationsNodeCheck(UnitaryOperationsNode x) {
+	private Relation unitaryOperationsNodeCheck(UnitaryOperationsNode x) {
 		if (x == null)
-			return;
-		int scope = globalScope;
+			return new Relation();
+		Relation scope;
 		if (x.getRelationNode() != null) {
-			relationNodeCheck(x.getRelationNode());
+			scope = relationNodeCheck(x.getRelationNode());
 		} else {
-			readyOnlyOperationsNodeCheck(x.getReadyOnlyOperationsNode());
+			scope = readyOnlyOperationsNodeCheck(x.getReadyOnlyOperationsNode());
 		}
+		Relation heading = scope;
 		if (x.getUnitaryOperationsChildrenNode() instanceof ProjectNode)
-			projectNodeCheck((ProjectNode) x.getUnitaryOperationsChildrenNode(), scope);
+			heading = projectNodeCheck((ProjectNode) x.getUnitaryOperationsChildrenNode(), scope);
 		else if (x.getUnitaryOperationsChildrenNode() instanceof RenameNode)
-			renameNodeCheck((RenameNode) x.getUnitaryOperationsChildrenNode(), scope);
+			heading = renameNodeCheck((RenameNode) x.getUnitaryOperationsChildrenNode(), scope);
 		else if (x.getUnitaryOperationsChildrenNode() instanceof SelectNode) {
 			selectNodeCheck((SelectNode) x.getUnitaryOperationsChildrenNode(), scope);
 		} else if (x.getUnitaryOperationsChildrenNode() instanceof TransitiveCloseNode)
-			if (x.getRelationNode() == null)
-				transitiveCloseNodeCheck((TransitiveCloseNode) x.getUnitaryOperationsChildrenNode(), (scope + 1));
-			else
-				transitiveCloseNodeCheck((TransitiveCloseNode) x.getUnitaryOperationsChildrenNode(), scope);
+			transitiveCloseNodeCheck((TransitiveCloseNode) x.getUnitaryOperationsChildrenNode(), scope);
+		x.setHeading(heading);
+		return heading;
 	}
 
-	private void transitiveCloseNodeCheck(TransitiveCloseNode x, int scope) {
+	private void transitiveCloseNodeCheck(TransitiveCloseNode x, Relation scope) {
 		if (x == null)
 			return;
-		Relation r = schema.getRelation("temporaryRelation" + scope);
-		if (r.getNumberOfAttributes() != 2) {
+		if (scope.getNumberOfAttributes() != 2) {
 			throwSemanticError("\tTransitive closure requires a binary relation: At the line "
 					+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
 		}
 	}
 
-	private void projectNodeCheck(ProjectNode x, int scope) {
-		if (x == null)
-			return;
-		attributeNodeListCheck(x.getProjectNodeList(), scope);
+	private Relation projectNodeCheck(ProjectNode x, Relation scope) {
+		Relation projection = new Relation();
+		attributeNodeListCheck(x.getProjectNodeList(), scope, projection);
+		return projection;
 	}
 
-	private void attributeNodeListCheck(ListNode x, int scope) {
+	private void attributeNodeListCheck(ListNode x, Relation scope, Relation projection) {
 		if (x == null)
 			return;
-		attributeNodeCheck((AttributeNode) x.getNode(), scope);
-		attributeNodeListCheck(x.getNext(), scope);
+		for (Node attribute : x)
+			attributeNodeCheck((AttributeNode) attribute, scope, projection);
 	}
 
-	private void attributeNodeCheck(AttributeNode x, int scope) {
+	private void attributeNodeCheck(AttributeNode x, Relation scope, Relation projection) {
 		if (x == null)
 			return;
-		Relation r = schema.getRelation("temporaryRelation" + (scope + 1));
-		if (r.hasAttribute(x.getPosition().image)) {
-			schema.getRelation("temporaryRelation" + scope).addAttribute(x.getPosition().image,
-					r.getAttribute(x.getPosition().image));
+		if (scope.hasAttribute(x.getPosition().image)) {
+			projection.addAttribute(x.getPosition().image, scope.getAttribute(x.getPosition().image));
 		} else {
 			throwSemanticError("\tAttribute does not exist: \"" + x.getPosition().image + "\" at the line "
 					+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
 		}
 	}
 
-	private void selectNodeCheck(SelectNode x, int scope) {
+	private void selectNodeCheck(SelectNode x, Relation scope) {
 		if (x == null)
 			return;
 		logicalSentenceNodeCheck(x.getLogicalSentenceNode(), scope);
 	}
 
-	private int logicalSentenceNodeCheck(LogicalSentenceNode x, int scope) {
+	private int logicalSentenceNodeCheck(LogicalSentenceNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		if (x.getConditionalSentenceNode() != null)
@@ -304,25 +337,39 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 			return logicalOperatorNodeCheck(x.getLogicalOperatorNode(), scope);
 	}
 
-	private int logicalOperatorNodeCheck(LogicalOperatorNode x, int scope) {
+	/*
+	 * The operators of a chain are checked without recursion: the operands are
+	 * checked from the first to the last and the operators from the last to
+	 * the first, so the errors keep the order of a recursive walk.
+	 */
+
+	private int logicalOperatorNodeCheck(LogicalOperatorNode x, Relation scope) {
 		if (x == null)
 			return 0;
-		int kind1, kind2;
-		kind1 = conditionalSentenceNodeCheck(x.getConditionalSentenceNode1(), scope);
-		if (x.getNextLogicalOperatorNode() == null)
-			kind2 = conditionalSentenceNodeCheck(x.getConditionalSentenceNode2(), scope);
-		else
-			kind2 = logicalOperatorNodeCheck(x.getNextLogicalOperatorNode(), scope);
+		List<LogicalOperatorNode> operators = new ArrayList<LogicalOperatorNode>();
+		List<Integer> kinds = new ArrayList<Integer>();
+		for (LogicalOperatorNode node = x; node != null; node = node.getNextLogicalOperatorNode()) {
+			operators.add(node);
+			kinds.add(conditionalSentenceNodeCheck(node.getConditionalSentenceNode1(), scope));
+		}
+		int kind2 = conditionalSentenceNodeCheck(operators.get(operators.size() - 1).getConditionalSentenceNode2(),
+				scope);
 		int trueConstant = RelationalQueryLanguageConstants.TRUE;
 		int falseConstant = RelationalQueryLanguageConstants.FALSE;
-		if ((kind1 != trueConstant && kind1 != falseConstant) || (kind2 != trueConstant && kind2 != falseConstant)) {
-			throwSemanticError("\tLogical operations requires two boolean values: At the line "
-					+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
+		for (int i = operators.size() - 1; i >= 0; i--) {
+			int kind1 = kinds.get(i);
+			if ((kind1 != trueConstant && kind1 != falseConstant)
+					|| (kind2 != trueConstant && kind2 != falseConstant)) {
+				throwSemanticError("\tLogical operations requires two boolean values: At the line "
+						+ operators.get(i).getPosition().beginLine + ", column "
+						+ operators.get(i).getPosition().beginColumn);
+			}
+			kind2 = kind1;
 		}
-		return kind1;
+		return kind2;
 	}
 
-	private int conditionalSentenceNodeCheck(ConditionalSentenceNode x, int scope) {
+	private int conditionalSentenceNodeCheck(ConditionalSentenceNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		int kind1 = comparisonSentenceNodeCheck(x.getComparisonSentenceNode(), scope);
@@ -330,15 +377,16 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 		return kind1;
 	}
 
-	private int ifNodeListCheck(ListNode x, int scope) {
+	private int ifNodeListCheck(ListNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		int kind1 = ifNodeCheck((IfNode) x.getNode(), scope);
-		ifNodeListCheck(x.getNext(), scope);
+		for (int i = 1; i < x.size(); i++)
+			ifNodeCheck((IfNode) x.getNode(i), scope);
 		return kind1;
 	}
 
-	private int ifNodeCheck(IfNode x, int scope) {
+	private int ifNodeCheck(IfNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		int kind1 = comparisonSentenceNodeCheck(x.getComparisonSentenceNode1(), scope);
@@ -346,7 +394,7 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 		return kind1;
 	}
 
-	private int comparisonSentenceNodeCheck(ComparisonSentenceNode x, int scope) {
+	private int comparisonSentenceNodeCheck(ComparisonSentenceNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		if (x.getInstanceofSentenceNode() != null)
@@ -355,25 +403,32 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 			return comparisonOperatorNodeCheck(x.getComparisonOperatorNode(), scope);
 	}
 
-	private int comparisonOperatorNodeCheck(ComparisonOperatorNode x, int scope) {
+	private int comparisonOperatorNodeCheck(ComparisonOperatorNode x, Relation scope) {
 		if (x == null)
 			return 0;
-		int kind1, kind2;
-		kind1 = instanceofSentenceNodeCheck(x.getInstanceofSentenceNode1(), scope);
-		if (x.getNextComparisonOperatorNode() == null)
-			kind2 = instanceofSentenceNodeCheck(x.getInstanceofSentenceNode2(), scope);
-		else
-			kind2 = comparisonOperatorNodeCheck(x.getNextComparisonOperatorNode(), scope);
-		if (x.getPosition().kind != RelationalQueryLanguageConstants.EQUALS
-				&& x.getPosition().kind != RelationalQueryLanguageConstants.NOT_EQUALS)
-			if (!numberConstants.contains(kind1) || !numberConstants.contains(kind2)) {
-				throwSemanticError("\tSize comparators requires two numeric operators : At the line "
-						+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
-			}
+		List<ComparisonOperatorNode> operators = new ArrayList<ComparisonOperatorNode>();
+		List<Integer> kinds = new ArrayList<Integer>();
+		for (ComparisonOperatorNode node = x; node != null; node = node.getNextComparisonOperatorNode()) {
+			operators.add(node);
+			kinds.add(instanceofSentenceNodeCheck(node.getInstanceofSentenceNode1(), scope));
+		}
+		int kind2 = instanceofSentenceNodeCheck(operators.get(operators.size() - 1).getInstanceofSentenceNode2(),
+				scope);
+		for (int i = operators.size() - 1; i >= 0; i--) {
+			ComparisonOperatorNode operator = operators.get(i);
+			int kind1 = kinds.get(i);
+			if (operator.getPosition().kind != RelationalQueryLanguageConstants.EQUALS
+					&& operator.getPosition().kind != RelationalQueryLanguageConstants.NOT_EQUALS)
+				if (!numberConstants.contains(kind1) || !numberConstants.contains(kind2)) {
+					throwSemanticError("\tSize comparators requires two numeric operators : At the line "
+							+ operator.getPosition().beginLine + ", column " + operator.getPosition().beginColumn);
+				}
+			kind2 = RelationalQueryLanguageConstants.TRUE;
+		}
 		return RelationalQueryLanguageConstants.TRUE;
 	}
 
-	private int instanceofSentenceNodeCheck(InstanceofSentenceNode x, int scope) {
+	private int instanceofSentenceNodeCheck(InstanceofSentenceNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		if (x.getType() == null)
@@ -382,7 +437,7 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 			return RelationalQueryLanguageConstants.TRUE;
 	}
 
-	private int additionSentenceNodeCheck(AdditionSentenceNode x, int scope) {
+	private int additionSentenceNodeCheck(AdditionSentenceNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		if (x.getMultiplicationSentenceNode() != null)
@@ -391,23 +446,30 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 			return additionOperatorNodeCheck(x.getAdditionOperatorNode(), scope);
 	}
 
-	private int additionOperatorNodeCheck(AdditionOperatorNode x, int scope) {
+	private int additionOperatorNodeCheck(AdditionOperatorNode x, Relation scope) {
 		if (x == null)
 			return 0;
-		int kind1, kind2;
-		kind1 = multiplicationSentenceNodeCheck(x.getMultiplicationSentenceNode1(), scope);
-		if (x.getNextAdditionOperatorNode() == null)
-			kind2 = multiplicationSentenceNodeCheck(x.getMultiplicationSentenceNode2(), scope);
-		else
-			kind2 = additionOperatorNodeCheck(x.getNextAdditionOperatorNode(), scope);
-		if (!numberConstants.contains(kind1) || !numberConstants.contains(kind2)) {
-			throwSemanticError("\tAddition or subtraction requires two numeric operators : At the line "
-					+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
+		List<AdditionOperatorNode> operators = new ArrayList<AdditionOperatorNode>();
+		List<Integer> kinds = new ArrayList<Integer>();
+		for (AdditionOperatorNode node = x; node != null; node = node.getNextAdditionOperatorNode()) {
+			operators.add(node);
+			kinds.add(multiplicationSentenceNodeCheck(node.getMultiplicationSentenceNode1(), scope));
 		}
-		return kind1;
+		int kind2 = multiplicationSentenceNodeCheck(
+				operators.get(operators.size() - 1).getMultiplicationSentenceNode2(), scope);
+		for (int i = operators.size() - 1; i >= 0; i--) {
+			int kind1 = kinds.get(i);
+			if (!numberConstants.contains(kind1) || !numberConstants.contains(kind2)) {
+				throwSemanticError("\tAddition or subtraction requires two numeric operators : At the line "
+						+ operators.get(i).getPosition().beginLine + ", column "
+						+ operators.get(i).getPosition().beginColumn);
+			}
+			kind2 = kind1;
+		}
+		return kind2;
 	}
 
-	private int multiplicationSentenceNodeCheck(MultiplicationSentenceNode x, int scope) {
+	private int multiplicationSentenceNodeCheck(MultiplicationSentenceNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		if (x.getFactorNode() != null)
@@ -416,36 +478,42 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 			return multiplicationOperatorNode(x.getMultiplicationOperatorNode(), scope);
 	}
 
-	private int multiplicationOperatorNode(MultiplicationOperatorNode x, int scope) {
+	private int multiplicationOperatorNode(MultiplicationOperatorNode x, Relation scope) {
 		if (x == null)
 			return 0;
-		int kind1, kind2;
-		kind1 = factorNodeCheck(x.getFactorNode1(), scope);
-		if (x.getNextMultiplicationOperatorNode() == null) {
-			kind2 = factorNodeCheck(x.getFactorNode2(), scope);
-		} else
-			kind2 = multiplicationOperatorNode(x.getNextMultiplicationOperatorNode(), scope);
-		if (!numberConstants.contains(kind1) || !numberConstants.contains(kind2)) {
-			throwSemanticError(
-					"\tMultiplication, division, power or MOD operation requires two numeric operators : At the line "
-							+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
+		List<MultiplicationOperatorNode> operators = new ArrayList<MultiplicationOperatorNode>();
+		List<Integer> kinds = new ArrayList<Integer>();
+		for (MultiplicationOperatorNode node = x; node != null; node = node.getNextMultiplicationOperatorNode()) {
+			operators.add(node);
+			kinds.add(factorNodeCheck(node.getFactorNode1(), scope));
 		}
-		return kind1;
+		int kind2 = factorNodeCheck(operators.get(operators.size() - 1).getFactorNode2(), scope);
+		for (int i = operators.size() - 1; i >= 0; i--) {
+			int kind1 = kinds.get(i);
+			if (!numberConstants.contains(kind1) || !numberConstants.contains(kind2)) {
+				throwSemanticError(
+						"\tMultiplication, division, power or MOD operation requires two numeric operators : At the line "
+								+ operators.get(i).getPosition().beginLine + ", column "
+								+ operators.get(i).getPosition().beginColumn);
+			}
+			kind2 = kind1;
+		}
+		return kind2;
 	}
 
-	private int factorNodeCheck(FactorNode x, int scope) {
+	private int factorNodeCheck(FactorNode x, Relation scope) {
 		if (x == null)
 			return 0;
 		if (x.getConditionalSentenceNode() != null)
 			return conditionalSentenceNodeCheck(x.getConditionalSentenceNode(), scope);
 		else {
 			if (x.getPosition().kind == RelationalQueryLanguageConstants.IDENTIFIER) {
-				if (!schema.getRelation("temporaryRelation" + (scope + 1)).hasAttribute(x.getPosition().image)) {
+				if (!scope.hasAttribute(x.getPosition().image)) {
 					throwSemanticError("\tAttribute does not exist: \"" + x.getPosition().image + "\" at the line "
 							+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
+					return 0;
 				}
-				Attribute attribute = schema.getRelation("temporaryRelation" + (scope + 1))
-						.getAttribute(x.getPosition().image);
+				Attribute attribute = scope.getAttribute(x.getPosition().image);
 				String type = attribute.getType();
 				return symbolTableTypeConvert(type);
 			}
@@ -465,27 +533,32 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 			return 0;
 	}
 
-	private void renameNodeCheck(RenameNode x, int scope) {
-		if (x == null)
-			return;
-		renameSetNodeListCheck(x.getRenameSetNodeList(), scope);
+	private Relation renameNodeCheck(RenameNode x, Relation scope) {
+		Map<String, String> renames = new HashMap<String, String>();
+		renameSetNodeListCheck(x.getRenameSetNodeList(), scope, renames);
+		// The attributes that are not renamed keep their names and positions
+		Relation rename = new Relation();
+		for (String attribute : scope.getAttributeNames()) {
+			String renamed = renames.get(attribute);
+			rename.addAttribute(renamed == null ? attribute : renamed, scope.getAttribute(attribute));
+		}
+		return rename;
 	}
 
-	private void renameSetNodeListCheck(ListNode x, int scope) {
+	private void renameSetNodeListCheck(ListNode x, Relation scope, Map<String, String> renames) {
 		if (x == null)
 			return;
-		renameSetNodeCheck((RenameSetNode) x.getNode(), scope);
-		renameSetNodeListCheck(x.getNext(), scope);
+		for (Node rename : x)
+			renameSetNodeCheck((RenameSetNode) rename, scope, renames);
 	}
 
-	private void renameSetNodeCheck(RenameSetNode x, int scope) {
+	private void renameSetNodeCheck(RenameSetNode x, Relation scope, Map<String, String> renames) {
 		if (x == null)
 			return;
-		Relation r = schema.getRelation("temporaryRelation" + (scope + 1));
 		String toRename = x.getToRenameAttributeNode().getPosition().image;
 		String renamed = x.getRenamedAttributeNode().getPosition().image;
-		if (r.hasAttribute(toRename)) {
-			schema.getRelation("temporaryRelation" + scope).addAttribute(renamed, r.getAttribute(toRename));
+		if (scope.hasAttribute(toRename)) {
+			renames.put(toRename, renamed);
 		} else {
 			throwSemanticError("\tAttribute does not exist: \"" + x.getToRenameAttributeNode().getPosition().image
 					+ "\" at the line " + x.getToRenameAttributeNode().getPosition().beginLine + ", column "
@@ -494,16 +567,17 @@ public class RelationCheck implements RelationalQueryLanguageConstants {
 
 	}
 
-	private void relationNodeCheck(RelationNode x) {
-		if (x == null)
-			return;
+	private Relation relationNodeCheck(RelationNode x) {
+		Relation relation;
 		if (schema.hasRelation(x.getPosition().image)) {
-			//System.out.println("DEFINING: temporaryRelation" + globalScope + " AS " + x.getPosition().image);
-			schema.replaceRelation("temporaryRelation" + globalScope, schema.getRelation(x.getPosition().image));
+			relation = schema.getRelation(x.getPosition().image).asHeading();
 		} else {
 			throwSemanticError("\tRelation does not exist: \"" + x.getPosition().image + "\" at the line "
 					+ x.getPosition().beginLine + ", column " + x.getPosition().beginColumn);
+			relation = new Relation();
 		}
+		x.setHeading(relation);
+		return relation;
 	}
 
 }
@@ -5,6 +5,7 @@
  */
 package br.edu.ifsp.symbolTable;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -15,13 +16,28 @@ import java.util.Set;
  */
 public class Attribute {
 
-	private Map<String, Object> features = new HashMap<String, Object>();
+	private Map<String, Object> features;
 
 	public Attribute(String name, String type) {
+		features = new HashMap<String, Object>();
 		features.put("name", name);
 		features.put("type", type);
 	}
 
+	private Attribute(Map<String, Object> features) {
+		this.features = features;
+	}
+
+	/**
+	 * Returns a copy of this attribute whose features can not be changed, with
+	 * the name interned.
+	 */
+	public Attribute frozenCopy() {
+		Map<String, Object> copy = new HashMap<String, Object>(features);
+		copy.put("name", getName().intern());
+		return new Attribute(Collections.unmodifiableMap(copy));
+	}
+
 	public String getName() {
 		return (String) features.get("name");
 	}
@@ -0,0 +1,36 @@
+package br.edu.ifsp.symbolTable;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Heading of a relation of a schema snapshot. It is shared by every
+ * compilation, so it can not be changed.
+ */
+class FrozenRelation extends Relation {
+
+	FrozenRelation(String attributeNames[], Attribute attributes[]) {
+		for (int i = 0; i < attributeNames.length; i++)
+			this.attributes.put(attributeNames[i], attributes[i]);
+	}
+
+	@Override
+	public void addAttribute(String name, Attribute attribute) {
+		throw new UnsupportedOperationException("The relations of a schema snapshot can not be changed");
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		throw new UnsupportedOperationException("The relations of a schema snapshot can not be changed");
+	}
+
+	@Override
+	public void renameAttribute(String name, String newName) {
+		throw new UnsupportedOperationException("The relations of a schema snapshot can not be changed");
+	}
+
+	@Override
+	public Set<String> getAttributeNames() {
+		return Collections.unmodifiableSet(super.getAttributeNames());
+	}
+}
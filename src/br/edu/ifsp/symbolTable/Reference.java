@@ -8,4 +8,12 @@ public class Reference {
 		this.relation = relation;
 		this.attribute = attribute;
 	}
+
+	public String getRelation() {
+		return relation;
+	}
+
+	public String getAttribute() {
+		return attribute;
+	}
 }
@@ -5,7 +5,7 @@
  */
 package br.edu.ifsp.symbolTable;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Set;
 
 /**
@@ -13,7 +13,7 @@ import java.util.Set;
  * @author Derick
  */
 public class Relation implements SchemaElement {
-	HashMap<String, Attribute> attributes = new HashMap<>();
+	LinkedHashMap<String, Attribute> attributes = new LinkedHashMap<>();
 
 	public void addAttribute(String name, Attribute attribute) {
 		attributes.put(name, attribute);
@@ -0,0 +1,115 @@
+package br.edu.ifsp.symbolTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable relation of a schema snapshot. The attributes are kept in arrays,
+ * in the order they were defined, and the positions of the primary key and of
+ * the foreign keys are computed once.
+ */
+public final class RelationSnapshot {
+
+	private final String name;
+	private final String attributeNames[];
+	private final Attribute attributes[];
+	private final Map<String, Integer> positions;
+	private final List<String> primaryKey;
+	private final List<String> foreignKeys;
+	private final Relation heading;
+	private final long rowCount;
+
+	RelationSnapshot(String name, Relation relation, long rowCount) {
+		this.name = name.intern();
+		this.rowCount = rowCount;
+		int size = relation.getNumberOfAttributes();
+		attributeNames = new String[size];
+		attributes = new Attribute[size];
+		Map<String, Integer> positions = new HashMap<String, Integer>();
+		List<String> primaryKey = new ArrayList<String>();
+		List<String> foreignKeys = new ArrayList<String>();
+
+		int i = 0;
+		for (String attributeName : relation.getAttributeNames()) {
+			attributeNames[i] = attributeName.intern();
+			attributes[i] = relation.getAttribute(attributeName).frozenCopy();
+			positions.put(attributeNames[i], i);
+			if (attributes[i].isPrimaryKey())
+				primaryKey.add(attributeNames[i]);
+			if (attributes[i].isForeignKey())
+				foreignKeys.add(attributeNames[i]);
+			i++;
+		}
+
+		this.positions = positions;
+		this.primaryKey = Collections.unmodifiableList(primaryKey);
+		this.foreignKeys = Collections.unmodifiableList(foreignKeys);
+		heading = new FrozenRelation(attributeNames, attributes);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getNumberOfAttributes() {
+		return attributes.length;
+	}
+
+	/**
+	 * @return the number of tuples given with the schema, or -1 if it is
+	 *         unknown
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	public String getAttributeName(int position) {
+		return attributeNames[position];
+	}
+
+	public Attribute getAttribute(int position) {
+		return attributes[position];
+	}
+
+	/**
+	 * @return the position of the attribute or -1 if the relation does not have
+	 *         it
+	 */
+	public int indexOf(String attributeName) {
+		Integer position = positions.get(attributeName);
+		return position == null ? -1 : position;
+	}
+
+	public boolean hasAttribute(String attributeName) {
+		return positions.containsKey(attributeName);
+	}
+
+	public Attribute getAttribute(String attributeName) {
+		Integer position = positions.get(attributeName);
+		return position == null ? null : attributes[position];
+	}
+
+	public List<String> getPrimaryKey() {
+		return primaryKey;
+	}
+
+	public List<String> getForeignKeys() {
+		return foreignKeys;
+	}
+
+	public Reference getReference(String attributeName) {
+		Attribute attribute = getAttribute(attributeName);
+		return attribute == null ? null : (Reference) attribute.getFeature("reference");
+	}
+
+	/**
+	 * Returns the relation as a heading for the semantic analysis. The heading
+	 * is shared, so it can not be changed.
+	 */
+	public Relation asHeading() {
+		return heading;
+	}
+}
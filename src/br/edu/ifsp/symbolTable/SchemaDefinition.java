@@ -0,0 +1,97 @@
+package br.edu.ifsp.symbolTable;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import br.edu.ifsp.symbolTable.exceptions.UnexistentForeignKeyException;
+
+/**
+ * Reads the attributes definition used by the --attributes-definition
+ * parameter, e.g. "Pessoa.idPessoa:INTEGER PRIMARY KEY;". The definition may
+ * also give the number of tuples of a relation, e.g. "Pessoa:ROWS 1000;",
+ * which the optimizer uses to order the joins.
+ */
+public class SchemaDefinition {
+
+	public static final String IDENTIFIER_REGEX = "([a-zA-Z_][a-zA-Z1-9_]*)";
+	public static final String TYPE_REGEX = "(VARCHAR|CHAR|INT|INTEGER|DOUBLE|DECIMAL|RATIONAL|FLOAT|LONG|BLOB)(\\([1-9]{1,3}\\))?";
+	public static final String PRIMARY_REGEX = "(PRIMARY\\s?KEY)?";
+	public static final String FOREIGN_REGEX = "(REFERENCES\\s?" + IDENTIFIER_REGEX + "." + IDENTIFIER_REGEX + ")?";
+	public static final String ATTRIBUTE_REGEX = IDENTIFIER_REGEX + "." + IDENTIFIER_REGEX + ":" + TYPE_REGEX
+			+ PRIMARY_REGEX + FOREIGN_REGEX + ";";
+	public static final String STATISTICS_REGEX = IDENTIFIER_REGEX + ":ROWS\\s?([0-9]{1,18});";
+
+	/**
+	 * Method used to check if a definition is well formed.
+	 */
+	public static boolean isValid(String definition) {
+		return definition.matches("(" + ATTRIBUTE_REGEX + "|" + STATISTICS_REGEX + ")+");
+	}
+
+	/**
+	 * Method used to build a symbol table from a definition.
+	 * 
+	 * @throws UnexistentForeignKeyException
+	 *             if an attribute references an attribute not defined before
+	 */
+	public static SymbolTable parse(String definition) {
+		SymbolTable symbolTable = new SymbolTable();
+		// An entry starts at the beginning or after the end of another entry
+		Pattern statistics = Pattern.compile("(?<![^;])" + STATISTICS_REGEX);
+		Matcher statisticsMatcher = statistics.matcher(definition);
+		while (statisticsMatcher.find())
+			symbolTable.setRowCount(statisticsMatcher.group(1), Long.parseLong(statisticsMatcher.group(2)));
+		definition = statisticsMatcher.replaceAll("");
+
+		Pattern pattern = Pattern.compile(ATTRIBUTE_REGEX);
+		Matcher matcher = pattern.matcher(definition);
+		while (matcher.find()) {
+			String relation = matcher.group(1);
+			String attribute = matcher.group(2);
+			String type = matcher.group(3);
+
+			Attribute newAttribute = new Attribute(attribute, type);
+
+			if (matcher.group(4) != null) {
+				int range = Integer.parseInt(matcher.group(4).replace("(", "").replace(")", ""));
+				newAttribute.addFeature("range", range);
+			}
+
+			if (matcher.group(5) != null) {
+				newAttribute.addFeature("primary", true);
+			}
+
+			String referenceRelation = matcher.group(7);
+			String referenceAttribute = matcher.group(8);
+
+			if (referenceRelation != null) {
+				// Checks the foreign key
+				if (symbolTable.hasRelation(referenceRelation)
+						&& symbolTable.getRelation(referenceRelation).hasAttribute(referenceAttribute)) {
+					newAttribute.addFeature("reference", new Reference(referenceRelation, referenceAttribute));
+				} else {
+					// Throw a exception for unexistent foreign key
+					throw new UnexistentForeignKeyException();
+				}
+			}
+
+			symbolTable.getRelation(relation).addAttribute(attribute, newAttribute);
+		}
+		return symbolTable;
+	}
+
+	/**
+	 * Method used to build a symbol table from a file with a definition. Line
+	 * breaks and blanks between the entries are ignored.
+	 */
+	public static SymbolTable read(Path file, Charset charset) throws IOException {
+		String definition = new String(Files.readAllBytes(file), charset).replaceAll("\\s+", "");
+		if (!isValid(definition))
+			throw new IllegalArgumentException("Invalid attributes definition in " + file);
+		return parse(definition);
+	}
+}
@@ -0,0 +1,32 @@
+package br.edu.ifsp.symbolTable;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current schema snapshot. Compilations read the snapshot without
+ * locks and a schema change replaces it atomically; compilations already
+ * running keep the snapshot they started with.
+ */
+public class SchemaRegistry {
+
+	private final AtomicReference<SchemaSnapshot> current;
+
+	public SchemaRegistry(SymbolTable table) {
+		current = new AtomicReference<SchemaSnapshot>(new SchemaSnapshot(table));
+	}
+
+	public SchemaSnapshot current() {
+		return current.get();
+	}
+
+	/**
+	 * Method used to publish a new version of the schema.
+	 * 
+	 * @return the snapshot that was published
+	 */
+	public SchemaSnapshot update(SymbolTable table) {
+		SchemaSnapshot next = new SchemaSnapshot(table);
+		current.set(next);
+		return next;
+	}
+}
@@ -0,0 +1,84 @@
+package br.edu.ifsp.symbolTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable copy of a symbol table. A snapshot is built once and can be read
+ * without locks by any number of concurrent compilations. Every snapshot has
+ * its own version, so the version identifies the schema a translation was
+ * made with.
+ */
+public final class SchemaSnapshot {
+
+	private static final AtomicLong versions = new AtomicLong();
+
+	private final long version;
+	private final Map<String, RelationSnapshot> relations;
+	private final Map<String, List<String>> referencingRelations;
+
+	public SchemaSnapshot(SymbolTable table) {
+		this.version = versions.incrementAndGet();
+		Map<String, RelationSnapshot> relations = new HashMap<String, RelationSnapshot>();
+		Map<String, List<String>> referencingRelations = new HashMap<String, List<String>>();
+
+		for (String name : table.getRelationNames()) {
+			RelationSnapshot relation = new RelationSnapshot(name, table.getRelation(name), table.getRowCount(name));
+			relations.put(relation.getName(), relation);
+		}
+		for (RelationSnapshot relation : relations.values()) {
+			for (String foreignKey : relation.getForeignKeys()) {
+				String referenced = relation.getReference(foreignKey).getRelation();
+				List<String> referencing = referencingRelations.get(referenced);
+				if (referencing == null) {
+					referencing = new ArrayList<String>();
+					referencingRelations.put(referenced, referencing);
+				}
+				if (!referencing.contains(relation.getName()))
+					referencing.add(relation.getName());
+			}
+		}
+		for (Map.Entry<String, List<String>> entry : referencingRelations.entrySet())
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+
+		this.relations = Collections.unmodifiableMap(relations);
+		this.referencingRelations = Collections.unmodifiableMap(referencingRelations);
+	}
+
+	public static SchemaSnapshot of(SymbolTable table) {
+		return new SchemaSnapshot(table);
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public boolean hasRelation(String name) {
+		return relations.containsKey(name);
+	}
+
+	/**
+	 * @return the relation or null if the schema does not have it
+	 */
+	public RelationSnapshot getRelation(String name) {
+		return relations.get(name);
+	}
+
+	public Set<String> getRelationNames() {
+		return relations.keySet();
+	}
+
+	/**
+	 * @return the names of the relations that have a foreign key to the given
+	 *         relation
+	 */
+	public List<String> getReferencingRelations(String name) {
+		List<String> referencing = referencingRelations.get(name);
+		return referencing == null ? Collections.<String> emptyList() : referencing;
+	}
+}
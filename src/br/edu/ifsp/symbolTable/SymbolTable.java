@@ -19,6 +19,7 @@ import javax.swing.text.html.HTMLDocument.Iterator;
 public class SymbolTable {
 
     private Map<String, SchemaElement> relations = new HashMap<String, SchemaElement>();
+    private Map<String, Long> rowCounts = new HashMap<String, Long>();
 
     public void addRelation(String name) {
         relations.put(name, new Relation());
@@ -54,6 +55,22 @@ public class SymbolTable {
 		return relations.keySet();
 	}
     
+    /**
+     * Method used to record the number of tuples of a relation, used to
+     * estimate the cost of the joins.
+     */
+    public void setRowCount(String name, long rows) {
+        rowCounts.put(name, rows);
+    }
+
+    /**
+     * @return the number of tuples of the relation, or -1 if it is unknown
+     */
+    public long getRowCount(String name) {
+        Long rows = rowCounts.get(name);
+        return rows == null ? -1 : rows;
+    }
+    
     public void printTable(){
     	for(String relation : this.getRelationNames()){
     		System.out.println(relation+":");
@@ -1,44 +1,85 @@
 package br.edu.ifsp.syntacticTree;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import br.edu.ifsp.parser.Token;
 
-public class ListNode extends Node {
+/**
+ * List of statements, attributes, renames or conditionals. The nodes are kept
+ * in an array that doubles when it is full, so an append takes constant time
+ * and the walkers iterate over the nodes instead of recursing on the list.
+ */
+public class ListNode extends Node implements Iterable<Node> {
+
+	private Node nodes[] = new Node[4];
+
+	private int size = 0;
 
-	private Node node = null;
-	
-	private ListNode next = null;
-	
 	public ListNode( Node node ) {
 		super(node.getPosition() );
-		this.node = node;	
+		add( node );
 	}
-	
+
+	/**
+	 * Method used to build a list with a node followed by the nodes of another
+	 * list, whose nodes are copied.
+	 */
 	public ListNode( Node node, ListNode next ) {
-		super( node.getPosition() );
-		this.node = node;
-		this.next = next;
+		this( node );
+		if ( next != null )
+			for ( Node nextNode : next )
+				add( nextNode );
 	}
-	
+
 	public void add( Node node ) {
-		
-		if ( next == null ) next = new ListNode( node );
-		else next.add( node );
+
+		if ( size == nodes.length ) nodes = Arrays.copyOf( nodes, size * 2 );
+		nodes[size++] = node;
 	}
-	
+
 	public void setNode( Node node ) {
-		this.node = node;
+		nodes[0] = node;
 	}
-	
+
+	/**
+	 * @return the first node of the list
+	 */
 	public Node getNode() {
-		return this.node;
+		return nodes[0];
 	}
-	
-	public ListNode getNext() {
-		return this.next;
+
+	public Node getNode( int index ) {
+		if ( index >= size ) throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + size );
+		return nodes[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<Node> iterator() {
+		return new Iterator<Node>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public Node next() {
+				if ( index >= size ) throw new NoSuchElementException();
+				return nodes[index++];
+			}
+		};
 	}
 
 	@Override
 	public Token getFirstToken() {
-		return node.getFirstToken();
+		return getNode().getFirstToken();
 	}
 }
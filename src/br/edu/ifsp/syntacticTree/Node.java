@@ -1,10 +1,12 @@
 package br.edu.ifsp.syntacticTree;
 
 import br.edu.ifsp.parser.Token;
+import br.edu.ifsp.symbolTable.Relation;
 
 public abstract class Node {
 
    private Token position;
+   private Relation heading;
    public int number;
    
    public Node( Token position ) {
@@ -19,5 +21,17 @@ public abstract class Node {
 	   this.position = position;
    }
    
+   /**
+    * Returns the heading of the relation produced by this node, filled by the
+    * semantic analysis.
+    */
+   public Relation getHeading() {
+	   return this.heading;
+   }
+   
+   public void setHeading( Relation heading ) {
+	   this.heading = heading;
+   }
+   
    public abstract Token getFirstToken();
 }
\ No newline at end of file
@@ -71,8 +71,8 @@ public class PrintTree {
 		if (x == null)
 			return;
 		x.number = kk++;
-		numberRelationalOperationsNode((RelationalOperationsNode) x.getNode());
-		numberRelationalOperationsNodeList(x.getNext());
+		for (Node statement : x)
+			numberRelationalOperationsNode((RelationalOperationsNode) statement);
 	}
 
 	public void numberRelationalOperationsNode(RelationalOperationsNode x) {
@@ -201,7 +201,8 @@ public class PrintTree {
 		if (x == null)
 			return;
 		x.number = kk++;
-		numberAttributeNodeList(x.getNext());
+		for (Node attribute : x)
+			attribute.number = kk++;
 	}
 
 	private void numberSelectNode(SelectNode x) {
@@ -246,8 +247,8 @@ public class PrintTree {
 		if (x == null)
 			return;
 		x.number = kk++;
-		numberIfNode((IfNode) x.getNode());
-		numberIfNodeList(x.getNext());
+		for (Node ifNode : x)
+			numberIfNode((IfNode) ifNode);
 	}
 
 	private void numberIfNode(IfNode x) {
@@ -352,8 +353,8 @@ public class PrintTree {
 		if (x == null)
 			return;
 		x.number = kk++;
-		numberRenameSetNode((RenameSetNode) x.getNode());
-		numberRenameSetNodeList(x.getNext());
+		for (Node rename : x)
+			numberRenameSetNode((RenameSetNode) rename);
 	}
 
 	private void numberRenameSetNode(RenameSetNode x) {
@@ -370,11 +371,19 @@ public class PrintTree {
 	private void printRelationalOperationsNodeList(ListNode x) {
 		if (x == null)
 			return;
-		System.out.println(x.number + ": ListNode (RelationalOperationsNodeList) ===> "
-				+ (x.getNode() == null ? "null" : String.valueOf(x.getNode().number)) + " "
-				+ (x.getNext() == null ? "null" : String.valueOf(x.getNext().number)));
-		printRelationalOperationsNode((RelationalOperationsNode) x.getNode());
-		printRelationalOperationsNodeList(x.getNext());
+		System.out.println(x.number + ": ListNode (RelationalOperationsNodeList) ===> " + listNumbers(x));
+		for (Node statement : x)
+			printRelationalOperationsNode((RelationalOperationsNode) statement);
+	}
+
+	/**
+	 * @return the numbers of the nodes of a list, separated by spaces
+	 */
+	private String listNumbers(ListNode x) {
+		StringBuilder numbers = new StringBuilder();
+		for (Node node : x)
+			numbers.append(numbers.length() == 0 ? "" : " ").append(node == null ? "null" : String.valueOf(node.number));
+		return numbers.toString();
 	}
 
 	private void printRelationalOperationsNode(RelationalOperationsNode x) {
@@ -492,10 +501,10 @@ public class PrintTree {
 	private void printProjectNodeList(ListNode x) {
 		if (x == null)
 			return;
-		System.out.println(x.number + ": ListNode (ProjectAttributeList) ===> "
-				+ (x.getNode() == null ? "null" : String.valueOf(x.getNode().getPosition().image)) + " "
-				+ (x.getNext() == null ? "null" : String.valueOf(x.getNext().number)));
-		printProjectNodeList(x.getNext());
+		StringBuilder attributes = new StringBuilder();
+		for (Node attribute : x)
+			attributes.append(attributes.length() == 0 ? "" : " ").append(attribute.getPosition().image);
+		System.out.println(x.number + ": ListNode (ProjectAttributeList) ===> " + attributes);
 	}
 
 	private void printSelectNode(SelectNode x) {
@@ -555,11 +564,9 @@ public class PrintTree {
 	private void printIfNodeList(ListNode x) {
 		if (x == null)
 			return;
-		System.out.println(
-				x.number + ": ListNode (IfNodeList) ===> " + (x.getNode() == null ? "null" : x.getNode().number) + " "
-						+ (x.getNext() == null ? "null" : x.getNext().number));
-		printIfNode((IfNode) x.getNode());
-		printIfNodeList(x.getNext());
+		System.out.println(x.number + ": ListNode (IfNodeList) ===> " + listNumbers(x));
+		for (Node ifNode : x)
+			printIfNode((IfNode) ifNode);
 	}
 
 	private void printIfNode(IfNode x) {
@@ -716,11 +723,9 @@ public class PrintTree {
 	private void printRenameSetNodeList(ListNode x) {
 		if (x == null)
 			return;
-		System.out.println(x.number + ": ListNode (RenameSetNodeList) ===> "
-				+ (x.getNode() == null ? "null" : String.valueOf(x.getNode().number)) + " "
-				+ (x.getNext() == null ? "null" : String.valueOf(x.getNext().number)));
-		printRenameSetNode((RenameSetNode) x.getNode());
-		printRenameSetNodeList(x.getNext());
+		System.out.println(x.number + ": ListNode (RenameSetNodeList) ===> " + listNumbers(x));
+		for (Node rename : x)
+			printRenameSetNode((RenameSetNode) rename);
 	}
 
 	private void printRenameSetNode(RenameSetNode x) {
@@ -741,11 +746,20 @@ public class PrintTree {
 	private String toGraphRelationalOperationsNodeList(ListNode x) {
 		if (x == null)
 			return "";
-		String temp = "\n" + (x.number + " [label=\"ListNode(RelationalOperationsNodeList)\"];"
-				+ (x.getNode() == null ? "" : "\n" + x.number + " -> " + String.valueOf(x.getNode().number) + ";")
-				+ (x.getNext() == null ? "" : "\n" + x.number + " -> " + String.valueOf(x.getNext().number) + ";"));
-		temp += toGraphRelationalOperationsNode((RelationalOperationsNode) x.getNode());
-		return temp + toGraphRelationalOperationsNodeList(x.getNext());
+		StringBuilder temp = new StringBuilder("\n" + x.number + " [label=\"ListNode(RelationalOperationsNodeList)\"];");
+		toGraphListEdges(temp, x);
+		for (Node statement : x)
+			temp.append(toGraphRelationalOperationsNode((RelationalOperationsNode) statement));
+		return temp.toString();
+	}
+
+	/**
+	 * Appends the edges from a list to each one of its nodes.
+	 */
+	private void toGraphListEdges(StringBuilder temp, ListNode x) {
+		for (Node node : x)
+			if (node != null)
+				temp.append("\n").append(x.number).append(" -> ").append(node.number).append(";");
 	}
 
 	private String toGraphRelationalOperationsNode(RelationalOperationsNode x) {
@@ -902,11 +916,10 @@ public class PrintTree {
 	private String toGraphProjectNodeList(ListNode x) {
 		if (x == null)
 			return "";
-		String temp = "\n" + (x.number + " [label=\"ListNode(ProjectAttributeList)\"];" + (x.getNode() == null ? ""
-				: "\n" + x.number + " -> \"" + String.valueOf(x.getNode().getPosition().image) + " ("
-						+ String.valueOf(x.number) + ")\";")
-				+ (x.getNext() == null ? "" : "\n" + x.number + " -> " + String.valueOf(x.getNext().number) + ";"));
-		return temp + toGraphProjectNodeList(x.getNext());
+		StringBuilder temp = new StringBuilder("\n" + x.number + " [label=\"ListNode(ProjectAttributeList)\"];");
+		for (Node attribute : x)
+			temp.append("\n" + x.number + " -> \"" + attribute.getPosition().image + " (" + attribute.number + ")\";");
+		return temp.toString();
 	}
 
 	private String toGraphSelectNode(SelectNode x) {
@@ -961,11 +974,11 @@ public class PrintTree {
 	private String toGraphIfListNode(ListNode x) {
 		if (x == null)
 			return "";
-		String temp = "\n" + x.number + " [label=\"ListNode(IfList)\"];"
-				+ (x.getNode() == null ? "" : "\n" + x.number + " -> " + x.getNode().number + ";")
-				+ (x.getNext() == null ? "" : "\n" + x.number + " -> " + x.getNext().number + ";");
-
-		return temp + toGraphIfNode((IfNode) x.getNode()) + toGraphIfListNode(x.getNext());
+		StringBuilder temp = new StringBuilder("\n" + x.number + " [label=\"ListNode(IfList)\"];");
+		toGraphListEdges(temp, x);
+		for (Node ifNode : x)
+			temp.append(toGraphIfNode((IfNode) ifNode));
+		return temp.toString();
 	}
 
 	private String toGraphIfNode(IfNode x) {
@@ -1090,10 +1103,11 @@ public class PrintTree {
 	private String toGraphRenameSetNodeList(ListNode x) {
 		if (x == null)
 			return "";
-		String temp = "\n" + (x.number + " [label=\"ListNode(RenameSetNodeList)\"];"
-				+ (x.getNode() == null ? "" : "\n" + x.number + " -> " + String.valueOf(x.getNode().number) + ";")
-				+ (x.getNext() == null ? "" : "\n" + x.number + " -> " + String.valueOf(x.getNext().number) + ";"));
-		return temp + toGraphRenameSetNode((RenameSetNode) x.getNode()) + toGraphRenameSetNodeList(x.getNext());
+		StringBuilder temp = new StringBuilder("\n" + x.number + " [label=\"ListNode(RenameSetNodeList)\"];");
+		toGraphListEdges(temp, x);
+		for (Node rename : x)
+			temp.append(toGraphRenameSetNode((RenameSetNode) rename));
+		return temp.toString();
 	}
 
 	private String toGraphRenameSetNode(RenameSetNode x) {
@@ -0,0 +1,199 @@
+package br.edu.ifsp.translator;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.translator.exceptions.TranslationException;
+
+/**
+ * Translates many RQL files at once on a fork-join pool.
+ *
+ * The list of files is split in halves until every task has one file, so idle
+ * threads steal the halves that are still waiting. Every thread of the pool
+ * compiles with its own parser, checker and generator, through a shared
+ * RqlTranslator, and all of them read the same schema snapshot.
+ *
+ * The files of a directory are found recursively and their SQL files keep the
+ * same relative path in the output directory; a file given by itself is
+ * written in the output directory with its name. The extension .rql is
+ * replaced by .sql. A file whose SQL file would be the one of a file before
+ * it, as two files with the same name in different directories, is not
+ * compiled and is reported as failed.
+ */
+public class BatchCompiler {
+
+	public static final String SOURCE_EXTENSION = ".rql";
+	public static final String OUTPUT_EXTENSION = ".sql";
+
+	private final RqlTranslator translator = new RqlTranslator();
+	private final SchemaSnapshot schema;
+	private final GenerationOptions options;
+	private final int parallelism;
+	private Charset charset = Charset.defaultCharset();
+	private String version;
+
+	/**
+	 * Method used to initialize a compiler that uses every processor.
+	 */
+	public BatchCompiler(SchemaSnapshot schema, GenerationOptions options) {
+		this(schema, options, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism
+	 *            is the number of threads that compile files
+	 */
+	public BatchCompiler(SchemaSnapshot schema, GenerationOptions options, int parallelism) {
+		if (schema == null)
+			throw new IllegalArgumentException("A batch compilation needs a schema");
+		if (parallelism < 1)
+			throw new IllegalArgumentException("The parallelism must be positive");
+		this.schema = schema;
+		this.options = options;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Method used to set the charset of the RQL files and of the SQL files.
+	 */
+	public void setCharset(Charset charset) {
+		this.charset = charset;
+	}
+
+	/**
+	 * Method used to set the version written in the header of every SQL file;
+	 * the header is omitted when the version is null.
+	 */
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
+	/**
+	 * Method used to translate the RQL files of the inputs, which are files or
+	 * directories.
+	 *
+	 * @return the result of every file; a file with errors does not stop the
+	 *         others
+	 * @throws IOException
+	 *             if an input can not be listed
+	 */
+	public BatchReport compile(List<Path> inputs, Path outputDirectory) throws IOException {
+		List<Path> sources = new ArrayList<Path>();
+		List<Path> outputs = new ArrayList<Path>();
+		for (Path input : inputs) {
+			if (Files.isDirectory(input)) {
+				for (Path source : find(input)) {
+					sources.add(source);
+					outputs.add(outputDirectory.resolve(outputName(input.relativize(source).toString())));
+				}
+			} else {
+				sources.add(input);
+				outputs.add(outputDirectory.resolve(outputName(input.getFileName().toString())));
+			}
+		}
+
+		BatchReport.Result results[] = new BatchReport.Result[sources.size()];
+		Map<Path, Path> writers = new HashMap<Path, Path>();
+		for (int i = 0; i < sources.size(); i++) {
+			Path writer = writers.putIfAbsent(outputs.get(i).toAbsolutePath().normalize(), sources.get(i));
+			if (writer != null)
+				results[i] = new BatchReport.Result(sources.get(i), outputs.get(i), Collections.singletonList(
+						"The output file " + outputs.get(i) + " is already the output of " + writer), 0);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		long start = System.nanoTime();
+		try {
+			if (!sources.isEmpty())
+				pool.invoke(new CompileTask(sources, outputs, results, 0, sources.size()));
+		} finally {
+			pool.shutdown();
+		}
+		return new BatchReport(Arrays.asList(results), parallelism, System.nanoTime() - start);
+	}
+
+	private static List<Path> find(Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			return paths.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(SOURCE_EXTENSION))
+					.sorted().collect(Collectors.toList());
+		}
+	}
+
+	private static String outputName(String sourceName) {
+		if (sourceName.endsWith(SOURCE_EXTENSION))
+			sourceName = sourceName.substring(0, sourceName.length() - SOURCE_EXTENSION.length());
+		return sourceName + OUTPUT_EXTENSION;
+	}
+
+	/**
+	 * Method used to translate one file and write its SQL.
+	 */
+	private BatchReport.Result compile(Path source, Path output) {
+		long start = System.nanoTime();
+		List<String> errors = Collections.emptyList();
+		try {
+			String sql = translator.translate(new String(Files.readAllBytes(source), charset), schema, options);
+			if (output.getParent() != null)
+				Files.createDirectories(output.getParent());
+			String header = version == null ? "" : "/*" + version + "*/\r\n\r\n";
+			Files.write(output, (header + sql).getBytes(charset));
+		} catch (TranslationException exception) {
+			errors = exception.getErrors();
+		} catch (IOException exception) {
+			errors = Collections.singletonList(exception.toString());
+		} catch (RuntimeException exception) {
+			// A failure of the compiler must not stop the other files
+			errors = Collections.singletonList(exception.toString());
+		}
+		return new BatchReport.Result(source, output, errors, System.nanoTime() - start);
+	}
+
+	/**
+	 * Compiles the files of a range of the list, splitting it in halves.
+	 */
+	private class CompileTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Path> sources;
+		private final List<Path> outputs;
+		private final BatchReport.Result results[];
+		private final int begin;
+		private final int end;
+
+		CompileTask(List<Path> sources, List<Path> outputs, BatchReport.Result results[], int begin, int end) {
+			this.sources = sources;
+			this.outputs = outputs;
+			this.results = results;
+			this.begin = begin;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - begin == 1) {
+				// The files with the output of another file already have their result
+				if (results[begin] == null)
+					results[begin] = compile(sources.get(begin), outputs.get(begin));
+				return;
+			}
+			int middle = (begin + end) >>> 1;
+			invokeAll(new CompileTask(sources, outputs, results, begin, middle),
+					new CompileTask(sources, outputs, results, middle, end));
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package br.edu.ifsp.translator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of a batch compilation: the result of every input file, in the order
+ * the files were given, and the time the batch took.
+ */
+public final class BatchReport {
+
+	/**
+	 * Result of the translation of one file.
+	 */
+	public static final class Result {
+
+		private final Path input;
+		private final Path output;
+		private final List<String> errors;
+		private final long elapsedNanos;
+
+		Result(Path input, Path output, List<String> errors, long elapsedNanos) {
+			this.input = input;
+			this.output = output;
+			this.errors = Collections.unmodifiableList(errors);
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		public Path getInput() {
+			return input;
+		}
+
+		/**
+		 * @return the SQL file, which is not written when there are errors
+		 */
+		public Path getOutput() {
+			return output;
+		}
+
+		/**
+		 * @return the lexical, syntactic, semantic or input/output errors, empty
+		 *         if the file was translated
+		 */
+		public List<String> getErrors() {
+			return errors;
+		}
+
+		public boolean isTranslated() {
+			return errors.isEmpty();
+		}
+
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+	}
+
+	private final List<Result> results;
+	private final int parallelism;
+	private final long elapsedNanos;
+
+	BatchReport(List<Result> results, int parallelism, long elapsedNanos) {
+		this.results = Collections.unmodifiableList(results);
+		this.parallelism = parallelism;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public List<Result> getResults() {
+		return results;
+	}
+
+	public int getTranslatedCount() {
+		int count = 0;
+		for (Result result : results)
+			if (result.isTranslated())
+				count++;
+		return count;
+	}
+
+	public int getFailedCount() {
+		return results.size() - getTranslatedCount();
+	}
+
+	/**
+	 * @return the number of threads that compiled the files
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Writes the totals followed by the errors of every file that was not
+	 * translated.
+	 */
+	public void write(Appendable out) throws IOException {
+		out.append(String.format("Compiled %d file(s) in %d ms on %d thread(s): %d translated, %d failed.%n",
+				results.size(), elapsedNanos / 1000000, parallelism, getTranslatedCount(), getFailedCount()));
+		for (Result result : results) {
+			if (result.isTranslated())
+				continue;
+			out.append(result.getInput().toString()).append(':').append(System.lineSeparator());
+			for (String error : result.getErrors())
+				out.append("    ").append(error).append(System.lineSeparator());
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		try {
+			write(text);
+		} catch (IOException exception) {
+			// StringBuilder does not throw IOException
+			throw new IllegalStateException(exception);
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,358 @@
+package br.edu.ifsp.translator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.edu.ifsp.codeGeneration.CodeGenerator;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.parser.MappedCharStream;
+import br.edu.ifsp.parser.ParseException;
+import br.edu.ifsp.parser.RelationalQueryLanguage;
+import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
+import br.edu.ifsp.parser.RelationalQueryLanguageTokenManager;
+import br.edu.ifsp.parser.Token;
+import br.edu.ifsp.parser.TokenMgrError;
+import br.edu.ifsp.semanticAnalysis.RelationCheck;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.syntacticTree.ListNode;
+import br.edu.ifsp.translator.exceptions.TranslationException;
+
+/**
+ * Compilation of a RQL text that is compiled again after every change, as the
+ * text of an editor.
+ *
+ * The text is read by the lexer once and split in statements after its
+ * semicolon tokens, so its comments, string constants and invalid strings are
+ * the ones RqlTranslator finds, and every statement is parsed from its tokens,
+ * checked and translated by itself. What is found for a statement is kept
+ * with its text, so after a change only the statements whose text is new are
+ * parsed and checked; the others reuse their syntactic tree, their errors
+ * and their SQL. A statement that only moved has the positions of its tokens
+ * shifted, unless it has errors, whose messages have the positions in them,
+ * or a tab in its first line, which makes the columns after it depend on
+ * where it starts; then it is compiled again.
+ *
+ * Every statement is translated as if it was alone, as CodeGenerator does for
+ * the statements of a program, so the SQL of a session is the SQL that
+ * RqlTranslator gives for the same text. A syntax error is reported for its
+ * statement and does not hide the errors of the other statements.
+ *
+ * A session is used by one thread at a time.
+ */
+public class CompilationSession {
+
+	private final RelationalQueryLanguageTokenManager lexer = new RelationalQueryLanguageTokenManager(
+			new MappedCharStream(""));
+	private final ReplayTokenManager tokenManager = new ReplayTokenManager();
+	private final RelationalQueryLanguage parser = new RelationalQueryLanguage(tokenManager);
+	private SchemaSnapshot schema;
+	private GenerationOptions options;
+	private List<Statement> statements = Collections.emptyList();
+	private int reusedCount;
+
+	public CompilationSession(SchemaSnapshot schema) {
+		this(schema, GenerationOptions.DEFAULT);
+	}
+
+	public CompilationSession(SchemaSnapshot schema, GenerationOptions options) {
+		if (schema == null)
+			throw new IllegalArgumentException("A compilation session needs a schema");
+		this.schema = schema;
+		this.options = options;
+		parser.disable_tracing();
+	}
+
+	/**
+	 * Method used to change the schema; the statements are checked again with
+	 * it by the next update.
+	 */
+	public void setSchema(SchemaSnapshot schema) {
+		if (schema == null)
+			throw new IllegalArgumentException("A compilation session needs a schema");
+		this.schema = schema;
+	}
+
+	public SchemaSnapshot getSchema() {
+		return schema;
+	}
+
+	/**
+	 * Method used to change the generation options; the SQL is generated again
+	 * with them when it is asked for.
+	 */
+	public void setOptions(GenerationOptions options) {
+		this.options = options;
+	}
+
+	public GenerationOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * Method used to compile a new version of the text.
+	 *
+	 * @param rql
+	 *            is the whole RQL text
+	 * @return the lexical, syntactic and semantic errors of the text in the
+	 *         order of the statements, which is empty when the text can be
+	 *         translated
+	 */
+	public List<String> update(String rql) {
+		Map<String, Deque<Statement>> previous = new HashMap<String, Deque<Statement>>();
+		for (Statement statement : statements)
+			previous.computeIfAbsent(statement.text, text -> new ArrayDeque<Statement>()).add(statement);
+
+		List<Statement> current = new ArrayList<Statement>();
+		reusedCount = 0;
+		char text[] = rql.toCharArray();
+		MappedCharStream stream = new MappedCharStream(text, 0, text.length);
+		lexer.ReInit(stream);
+		int begin = 0;
+		int startLine = 1;
+		int startColumn = 1;
+		while (begin < text.length) {
+			List<Token> tokens = new ArrayList<Token>();
+			int lexicalErrors = lexer.foundLexError();
+			TokenMgrError error = null;
+			Token last = null;
+			try {
+				do {
+					last = lexer.getNextToken();
+					tokens.add(last);
+				} while (last.kind != RelationalQueryLanguageConstants.SEMICOLON
+						&& last.kind != RelationalQueryLanguageConstants.EOF);
+			} catch (TokenMgrError exception) {
+				// The lexer can not go on, so the rest of the text is the statement
+				error = exception;
+				last = null;
+			}
+			lexicalErrors = lexer.foundLexError() - lexicalErrors;
+			int end = last != null && last.kind == RelationalQueryLanguageConstants.SEMICOLON ? stream.getPosition()
+					: text.length;
+			String statementText = rql.substring(begin, end);
+
+			Deque<Statement> same = previous.get(statementText);
+			Statement statement = same == null ? null : same.poll();
+			if (statement != null && statement.moveTo(startLine, startColumn))
+				reusedCount++;
+			else
+				statement = parse(statementText, tokens, startLine, startColumn, lexicalErrors, error);
+			check(statement);
+			current.add(statement);
+			begin = end;
+			if (last != null) {
+				startLine = last.endLine;
+				startColumn = last.endColumn + 1;
+			}
+		}
+		statements = current;
+		return getErrors();
+	}
+
+	/**
+	 * Method used to parse the tokens of a statement, which end with its
+	 * semicolon, its end of file or where the lexer found an error.
+	 */
+	private Statement parse(String statementText, List<Token> tokens, int startLine, int startColumn,
+			int lexicalErrors, TokenMgrError error) {
+		Statement statement = new Statement(statementText, tokens, startLine, startColumn);
+		if (error != null) {
+			statement.errors.add(error.getMessage());
+		} else {
+			Token last = tokens.get(tokens.size() - 1);
+			if (last.kind != RelationalQueryLanguageConstants.EOF) {
+				// The statement ends where its semicolon ends, as if it was alone
+				Token eof = Token.newToken(RelationalQueryLanguageConstants.EOF, "");
+				eof.beginLine = eof.endLine = last.endLine;
+				eof.beginColumn = eof.endColumn = last.endColumn;
+				tokens.add(eof);
+			}
+			tokenManager.tokens = tokens;
+			tokenManager.next = 0;
+			parser.ReInit(tokenManager);
+			try {
+				statement.tree = parser.program();
+				statement.errors.addAll(RqlTranslator.messages(parser.getSyntaxErrors()));
+			} catch (ParseException exception) {
+				statement.errors.add(exception.getMessage());
+			} finally {
+				tokenManager.tokens = null;
+			}
+		}
+		// As in RqlTranslator, lexical errors are reported only without other errors
+		if (lexicalErrors != 0 && statement.errors.isEmpty())
+			statement.errors.add(lexicalErrors + " lexical error(s) were found");
+		if (!statement.errors.isEmpty())
+			statement.tree = null;
+		return statement;
+	}
+
+	/**
+	 * Method used to check a statement with the current schema, unless it was
+	 * already checked with it.
+	 */
+	private void check(Statement statement) {
+		if (statement.tree == null || statement.schemaVersion == schema.getVersion())
+			return;
+		RelationCheck rc = new RelationCheck(schema);
+		rc.setVerbose(false);
+		rc.semanticAnalysis(statement.tree);
+		statement.errors.clear();
+		statement.errors.addAll(rc.getSemanticErrorMessages());
+		statement.schemaVersion = schema.getVersion();
+		statement.sql = null;
+	}
+
+	/**
+	 * @return the errors found by the last update in the order of the
+	 *         statements
+	 */
+	public List<String> getErrors() {
+		List<String> errors = new ArrayList<String>();
+		for (Statement statement : statements)
+			errors.addAll(statement.errors);
+		return errors;
+	}
+
+	/**
+	 * Method used to get the SQL of the text of the last update. Only the
+	 * statements that were changed, or whose SQL was made with other options,
+	 * are generated.
+	 *
+	 * @return the SQL statements, each one terminated by a semicolon
+	 * @throws TranslationException
+	 *             if the text has lexical, syntactic or semantic errors
+	 */
+	public String getSql() {
+		List<String> errors = getErrors();
+		if (!errors.isEmpty())
+			throw new TranslationException(errors);
+
+		StringBuilder sql = new StringBuilder();
+		for (Statement statement : statements) {
+			if (statement.tree == null)
+				continue;
+			if (statement.sql == null || !statement.sqlOptions.equals(options)) {
+				StringBuilder statementSql = new StringBuilder();
+				try {
+					CodeGenerator generator = new CodeGenerator(schema, statementSql, null);
+					generator.setOptions(options);
+					generator.generate(statement.tree);
+				} catch (IOException exception) {
+					// StringBuilder does not throw IOException
+					throw new IllegalStateException(exception);
+				}
+				statement.sql = statementSql.toString();
+				statement.sqlOptions = options;
+			}
+			sql.append(statement.sql);
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * @return the number of statements of the text, counting the text after
+	 *         the last semicolon
+	 */
+	public int getStatementCount() {
+		return statements.size();
+	}
+
+	/**
+	 * @return the number of statements of the last update that were not
+	 *         parsed again
+	 */
+	public int getReusedCount() {
+		return reusedCount;
+	}
+
+	/**
+	 * A statement with its text, the position where it starts and what was
+	 * found for it. The tree is null when the statement has lexical or
+	 * syntactic errors or when its text has no tokens.
+	 */
+	private static final class Statement {
+
+		final String text;
+		final List<Token> tokens;
+		final List<String> errors = new ArrayList<String>();
+		int line;
+		int column;
+		ListNode tree;
+		long schemaVersion = -1;
+		String sql;
+		GenerationOptions sqlOptions;
+
+		Statement(String text, List<Token> tokens, int line, int column) {
+			this.text = text;
+			this.tokens = tokens;
+			this.line = line;
+			this.column = column;
+		}
+
+		/**
+		 * Method used to move the statement to the position where its text is
+		 * now by shifting the positions of its tokens; only the tokens of its
+		 * first line change their columns.
+		 *
+		 * @return false if the statement can not be moved and must be parsed
+		 *         again
+		 */
+		boolean moveTo(int newLine, int newColumn) {
+			if (newLine == line && newColumn == column)
+				return true;
+			if (!errors.isEmpty() || (newColumn != column && hasTabInFirstLine()))
+				return false;
+			int lines = newLine - line;
+			int columns = newColumn - column;
+			for (Token token : tokens) {
+				if (token.beginLine == line)
+					token.beginColumn += columns;
+				if (token.endLine == line)
+					token.endColumn += columns;
+				token.beginLine += lines;
+				token.endLine += lines;
+			}
+			line = newLine;
+			column = newColumn;
+			return true;
+		}
+
+		private boolean hasTabInFirstLine() {
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c == '\t')
+					return true;
+				if (c == '\n' || c == '\r')
+					return false;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Token manager that gives the parser the tokens of the statement being
+	 * parsed.
+	 */
+	private static final class ReplayTokenManager extends RelationalQueryLanguageTokenManager {
+
+		List<Token> tokens;
+		int next;
+
+		ReplayTokenManager() {
+			super(new MappedCharStream(""));
+		}
+
+		@Override
+		public Token getNextToken() {
+			/* The end of file is given again if the parser reads past it */
+			return tokens.get(Math.min(next++, tokens.size() - 1));
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package br.edu.ifsp.translator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.edu.ifsp.codeGeneration.CodeGenerator;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.parser.MappedCharStream;
+import br.edu.ifsp.parser.ParseException;
+import br.edu.ifsp.parser.RelationalQueryLanguage;
+import br.edu.ifsp.parser.RelationalQueryLanguageTokenManager;
+import br.edu.ifsp.parser.Token;
+import br.edu.ifsp.parser.TokenMgrError;
+import br.edu.ifsp.semanticAnalysis.RelationCheck;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.symbolTable.SymbolTable;
+import br.edu.ifsp.syntacticTree.ListNode;
+import br.edu.ifsp.translator.exceptions.TranslationException;
+
+/**
+ * Library entry point that translates RQL texts into SQL.
+ * 
+ * A translator can be shared by any number of threads: every thread keeps its
+ * own parser and lexer, which are reinitialized for each translation and read
+ * the text in place through a MappedCharStream, and all the other compilation state
+ * lives only during a call to translate. The schema is an
+ * immutable snapshot, so the same snapshot can be used by concurrent
+ * translations; a SchemaRegistry publishes new versions of it.
+ * 
+ * A translator built with a TranslationCache reads the tokens of every text
+ * once, looks them up in the cache and parses them only if the translation is
+ * not there.
+ */
+public class RqlTranslator {
+
+	private final ThreadLocal<RelationalQueryLanguage> parsers = new ThreadLocal<RelationalQueryLanguage>() {
+		@Override
+		protected RelationalQueryLanguage initialValue() {
+			RelationalQueryLanguage parser = new RelationalQueryLanguage(
+					new RelationalQueryLanguageTokenManager(new MappedCharStream("")));
+			parser.disable_tracing();
+			return parser;
+		}
+	};
+
+	private final ThreadLocal<RelationalQueryLanguageTokenManager> lexers = new ThreadLocal<RelationalQueryLanguageTokenManager>() {
+		@Override
+		protected RelationalQueryLanguageTokenManager initialValue() {
+			return new RelationalQueryLanguageTokenManager(new MappedCharStream(""));
+		}
+	};
+
+	private final TranslationCache cache;
+
+	public RqlTranslator() {
+		this(null);
+	}
+
+	/**
+	 * @param cache
+	 *            is the cache of translations, which can be shared by other
+	 *            translators, or null to compile every text
+	 */
+	public RqlTranslator(TranslationCache cache) {
+		this.cache = cache;
+	}
+
+	public TranslationCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Method used to translate the statements of a RQL text with the default
+	 * generation options.
+	 * 
+	 * @see #translate(String, SchemaSnapshot, GenerationOptions)
+	 */
+	public String translate(String rql, SchemaSnapshot schema) {
+		return translate(rql, schema, GenerationOptions.DEFAULT);
+	}
+
+	/**
+	 * Method used to translate the statements of a RQL text.
+	 * 
+	 * @param rql
+	 *            is the RQL text
+	 * @param schema
+	 *            is the schema used by the semantic analysis
+	 * @param options
+	 *            are the choices of the code generator for this translation
+	 * @return the SQL statements, each one terminated by a semicolon
+	 * @throws TranslationException
+	 *             if the text has lexical, syntactic or semantic errors
+	 */
+	public String translate(String rql, SchemaSnapshot schema, GenerationOptions options) {
+		if (cache == null)
+			return compile(rql, schema, options);
+
+		/* The text is read once: its tokens are the key and are parsed again on a miss */
+		RelationalQueryLanguageTokenManager lexer = lexers.get();
+		lexer.ReInit(new MappedCharStream(rql));
+		List<Token> tokens = new ArrayList<Token>();
+		int lexicalErrors;
+		try {
+			lexicalErrors = TranslationCache.tokenize(lexer, tokens);
+		} catch (TokenMgrError error) {
+			throw new TranslationException(error.getMessage());
+		}
+		if (lexicalErrors != 0) {
+			/* Not cached, but reported as an uncached translation would */
+			parse(new ReplayTokenManager(tokens));
+			checkLexicalErrors(lexicalErrors);
+		}
+
+		String normalizedRql = TranslationCache.normalize(tokens);
+		String sql = cache.get(normalizedRql, schema.getVersion(), options);
+		if (sql == null) {
+			sql = compile(parse(new ReplayTokenManager(tokens)), schema, options);
+			cache.put(normalizedRql, schema.getVersion(), options, sql);
+		}
+		return sql;
+	}
+
+	/**
+	 * Method used to translate the statements of a RQL text with a snapshot
+	 * of the given symbol table. Every call makes a new snapshot, so the
+	 * translation is not cached.
+	 * 
+	 * @see #translate(String, SchemaSnapshot)
+	 */
+	public String translate(String rql, SymbolTable schema) {
+		return compile(rql, SchemaSnapshot.of(schema), GenerationOptions.DEFAULT);
+	}
+
+	private String compile(String rql, SchemaSnapshot schema, GenerationOptions options) {
+		RelationalQueryLanguageTokenManager lexer = lexers.get();
+		lexer.ReInit(new MappedCharStream(rql));
+		int lexicalErrors = lexer.foundLexError();
+		ListNode root = parse(lexer);
+		checkLexicalErrors(lexer.foundLexError() - lexicalErrors);
+		return compile(root, schema, options);
+	}
+
+	private String compile(ListNode root, SchemaSnapshot schema, GenerationOptions options) {
+		RelationCheck rc = new RelationCheck(schema);
+		rc.setVerbose(false);
+		if (rc.semanticAnalysis(root) != 0)
+			throw new TranslationException(new ArrayList<String>(rc.getSemanticErrorMessages()));
+
+		StringBuilder sql = new StringBuilder();
+		try {
+			CodeGenerator generator = new CodeGenerator(schema, sql, null);
+			generator.setOptions(options);
+			generator.generate(root);
+		} catch (IOException exception) {
+			// StringBuilder does not throw IOException
+			throw new IllegalStateException(exception);
+		}
+		return sql.toString();
+	}
+
+	private ListNode parse(RelationalQueryLanguageTokenManager tokenManager) {
+		RelationalQueryLanguage parser = parsers.get();
+		parser.ReInit(tokenManager);
+		ListNode root;
+		try {
+			root = parser.program();
+		} catch (ParseException exception) {
+			throw new TranslationException(exception.getMessage());
+		} catch (TokenMgrError error) {
+			throw new TranslationException(error.getMessage());
+		}
+		if (!parser.getSyntaxErrors().isEmpty())
+			throw new TranslationException(messages(parser.getSyntaxErrors()));
+		return root;
+	}
+
+	private static void checkLexicalErrors(int lexicalErrors) {
+		if (lexicalErrors != 0)
+			throw new TranslationException(lexicalErrors + " lexical error(s) were found");
+	}
+
+	static List<String> messages(List<ParseException> syntaxErrors) {
+		List<String> messages = new ArrayList<String>();
+		for (ParseException exception : syntaxErrors)
+			messages.add(exception.getMessage());
+		return messages;
+	}
+
+	/**
+	 * Token manager that gives the parser the tokens already read from a text.
+	 */
+	private static class ReplayTokenManager extends RelationalQueryLanguageTokenManager {
+
+		private final List<Token> tokens;
+		private int next;
+
+		ReplayTokenManager(List<Token> tokens) {
+			super(new MappedCharStream(""));
+			this.tokens = tokens;
+		}
+
+		@Override
+		public Token getNextToken() {
+			/* The end of file is given again if the parser reads past it */
+			return tokens.get(Math.min(next++, tokens.size() - 1));
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package br.edu.ifsp.translator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.parser.MappedCharStream;
+import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
+import br.edu.ifsp.parser.RelationalQueryLanguageTokenManager;
+import br.edu.ifsp.parser.Token;
+import br.edu.ifsp.parser.TokenMgrError;
+
+/**
+ * Bounded cache of translations used by RqlTranslator. The entries are kept
+ * in least recently used order and the eldest ones are evicted when the cache
+ * has more entries than its size or more characters, counting the RQL key and
+ * the SQL, than its weight.
+ *
+ * A translation is found by its normalized RQL text, which is made of its
+ * tokens, so blanks and comments do not count, by the version of the schema
+ * and by the generation options it was made with.
+ */
+public class TranslationCache {
+
+	private final int maximumSize;
+	private final long maximumWeight;
+	private final LinkedHashMap<Key, String> entries = new LinkedHashMap<Key, String>(16, 0.75f, true);
+	private long weight;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * @param maximumSize
+	 *            is the maximum number of translations
+	 * @param maximumWeight
+	 *            is the maximum number of characters of all translations
+	 */
+	public TranslationCache(int maximumSize, long maximumWeight) {
+		if (maximumSize <= 0 || maximumWeight <= 0)
+			throw new IllegalArgumentException("The size and the weight of the cache must be positive");
+		this.maximumSize = maximumSize;
+		this.maximumWeight = maximumWeight;
+	}
+
+	/**
+	 * @return the SQL of the translation or null if it is not in the cache
+	 */
+	public synchronized String get(String normalizedRql, long schemaVersion, GenerationOptions options) {
+		String sql = entries.get(new Key(normalizedRql, schemaVersion, options));
+		if (sql == null)
+			misses++;
+		else
+			hits++;
+		return sql;
+	}
+
+	public synchronized void put(String normalizedRql, long schemaVersion, GenerationOptions options, String sql) {
+		Key key = new Key(normalizedRql, schemaVersion, options);
+		long entryWeight = weight(key, sql);
+		if (entryWeight > maximumWeight)
+			return;
+
+		String previous = entries.put(key, sql);
+		if (previous != null)
+			weight -= weight(key, previous);
+		weight += entryWeight;
+
+		Iterator<Map.Entry<Key, String>> eldest = entries.entrySet().iterator();
+		while (entries.size() > maximumSize || weight > maximumWeight) {
+			Map.Entry<Key, String> entry = eldest.next();
+			weight -= weight(entry.getKey(), entry.getValue());
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Method used to normalize a RQL text: the images of its tokens, as the
+	 * lexer reads them, separated by single spaces, so texts with the same
+	 * tokens have the same normalized text whatever blanks and comments they
+	 * have.
+	 *
+	 * @return the normalized text, or null if the text has lexical errors,
+	 *         whose translation is not cached
+	 */
+	public static String normalize(String rql) {
+		List<Token> tokens = new ArrayList<Token>();
+		try {
+			if (tokenize(new RelationalQueryLanguageTokenManager(new MappedCharStream(rql)), tokens) != 0)
+				return null;
+		} catch (TokenMgrError error) {
+			return null;
+		}
+		return normalize(tokens);
+	}
+
+	/**
+	 * Method used to normalize the tokens read by tokenize.
+	 */
+	static String normalize(List<Token> tokens) {
+		StringBuilder normalized = new StringBuilder();
+		for (Token token : tokens) {
+			if (token.kind == RelationalQueryLanguageConstants.EOF)
+				break;
+			if (normalized.length() > 0)
+				normalized.append(' ');
+			normalized.append(token.image);
+		}
+		return normalized.toString();
+	}
+
+	/**
+	 * Method used to read every token of the text of the token manager, up to
+	 * and including the end of file.
+	 *
+	 * @return the number of lexical errors found
+	 * @throws TokenMgrError
+	 *             if the lexer finds a character it does not accept
+	 */
+	static int tokenize(RelationalQueryLanguageTokenManager tokenManager, List<Token> tokens) {
+		int lexicalErrors = tokenManager.foundLexError();
+		Token token;
+		do {
+			token = tokenManager.getNextToken();
+			tokens.add(token);
+		} while (token.kind != RelationalQueryLanguageConstants.EOF);
+		return tokenManager.foundLexError() - lexicalErrors;
+	}
+
+	private static long weight(Key key, String sql) {
+		return key.rql.length() + sql.length();
+	}
+
+	private static final class Key {
+		final String rql;
+		final long schemaVersion;
+		final GenerationOptions options;
+
+		Key(String rql, long schemaVersion, GenerationOptions options) {
+			this.rql = rql;
+			this.schemaVersion = schemaVersion;
+			this.options = options;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key))
+				return false;
+			Key key = (Key) other;
+			return schemaVersion == key.schemaVersion && rql.equals(key.rql) && options.equals(key.options);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * rql.hashCode() + (int) (schemaVersion ^ (schemaVersion >>> 32))) + options.hashCode();
+		}
+	}
+}
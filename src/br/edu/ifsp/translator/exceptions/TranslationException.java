@@ -0,0 +1,28 @@
+package br.edu.ifsp.translator.exceptions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when a RQL text cannot be translated because of lexical, syntactic or
+ * semantic errors.
+ */
+public class TranslationException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> errors;
+
+	public TranslationException(String error) {
+		this(Collections.singletonList(error));
+	}
+
+	public TranslationException(List<String> errors) {
+		super(String.join("\n", errors));
+		this.errors = Collections.unmodifiableList(errors);
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+}
@@ -0,0 +1,112 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.translator.BatchCompiler;
+import br.edu.ifsp.translator.BatchReport;
+import br.edu.ifsp.translator.RqlTranslator;
+
+public class BatchCompilerTest {
+
+	static final SchemaSnapshot SCHEMA = SchemaSnapshot.of(SchemaDefinition.parse(
+			"Pessoa.idPessoa:INTEGERPRIMARYKEY;Pessoa.nome:VARCHAR(45);Telefone.numero:VARCHAR(17);"));
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path write(File directory, String name, String rql) throws IOException {
+		Path path = directory.toPath().resolve(name);
+		Files.createDirectories(path.getParent());
+		Files.write(path, rql.getBytes(StandardCharsets.UTF_8));
+		return path;
+	}
+
+	@Test
+	public void directoryTest() throws IOException {
+		File sources = folder.newFolder("sources");
+		write(sources, "pessoa.rql", "Pessoa;");
+		write(sources, "nested/telefone.rql", "Telefone;");
+		Path broken = write(sources, "nested/broken.rql", "Unknown;");
+		write(sources, "notes.txt", "Pessoa;");
+		Path single = write(folder.newFolder("single"), "join.rql", "Pessoa [] Telefone;");
+		Path output = folder.newFolder("output").toPath();
+
+		BatchCompiler compiler = new BatchCompiler(SCHEMA, GenerationOptions.DEFAULT, 3);
+		compiler.setCharset(StandardCharsets.UTF_8);
+		BatchReport report = compiler.compile(Arrays.asList(sources.toPath(), single), output);
+
+		assertEquals(4, report.getResults().size());
+		assertEquals(3, report.getTranslatedCount());
+		assertEquals(1, report.getFailedCount());
+		assertEquals(3, report.getParallelism());
+
+		// The sources of a directory are sorted and keep their relative paths
+		BatchReport.Result failed = report.getResults().get(0);
+		assertEquals(broken, failed.getInput());
+		assertFalse(failed.isTranslated());
+		assertFalse(Files.exists(failed.getOutput()));
+		assertTrue(report.toString().contains(broken.toString()));
+
+		RqlTranslator translator = new RqlTranslator();
+		assertEquals(translator.translate("Telefone;", SCHEMA), read(output.resolve("nested/telefone.sql")));
+		assertEquals(translator.translate("Pessoa;", SCHEMA), read(output.resolve("pessoa.sql")));
+		assertEquals(translator.translate("Pessoa [] Telefone;", SCHEMA), read(output.resolve("join.sql")));
+		assertFalse(Files.exists(output.resolve("notes.sql")));
+	}
+
+	@Test
+	public void headerTest() throws IOException {
+		Path source = write(folder.getRoot(), "pessoa.rql", "Pessoa;");
+		Path output = folder.newFolder("output").toPath();
+
+		BatchCompiler compiler = new BatchCompiler(SCHEMA, GenerationOptions.DEFAULT);
+		compiler.setVersion("1.0");
+		assertEquals(1, compiler.compile(Arrays.asList(source), output).getTranslatedCount());
+		assertTrue(read(output.resolve("pessoa.sql")).startsWith("/*1.0*/\r\n\r\n"));
+	}
+
+	@Test
+	public void sameOutputTest() throws IOException {
+		Path first = write(folder.getRoot(), "a/q.rql", "Pessoa;");
+		Path second = write(folder.getRoot(), "b/q.rql", "Telefone;");
+		File sources = folder.newFolder("sources");
+		write(sources, "nested/q.rql", "Pessoa;");
+		File copies = folder.newFolder("copies");
+		Path copy = write(copies, "nested/q.rql", "Telefone;");
+		Path output = folder.newFolder("output").toPath();
+
+		// The first file keeps the output and the next ones are not compiled
+		BatchCompiler compiler = new BatchCompiler(SCHEMA, GenerationOptions.DEFAULT, 2);
+		BatchReport report = compiler.compile(Arrays.asList(first, second, sources.toPath(), copies.toPath()), output);
+		assertEquals(2, report.getTranslatedCount());
+		assertEquals(2, report.getFailedCount());
+		assertFalse(report.getResults().get(1).isTranslated());
+		assertTrue(report.getResults().get(1).getErrors().get(0).contains(first.toString()));
+		assertEquals(copy, report.getResults().get(3).getInput());
+		assertFalse(report.getResults().get(3).isTranslated());
+
+		RqlTranslator translator = new RqlTranslator();
+		assertEquals(translator.translate("Pessoa;", SCHEMA), read(output.resolve("q.sql")));
+		assertEquals(translator.translate("Pessoa;", SCHEMA), read(output.resolve("nested/q.sql")));
+	}
+
+	private static String read(Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+	}
+}
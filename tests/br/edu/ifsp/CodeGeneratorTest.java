@@ -0,0 +1,106 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import br.edu.ifsp.codeGeneration.CodeGenerator;
+import br.edu.ifsp.codeGeneration.DivisionStrategy;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+
+public class CodeGeneratorTest {
+
+	/* Project and select tokens of RQL */
+	static final String PROJECT = "";
+	static final String SELECT = "";
+
+	static SchemaSnapshot schema;
+
+	@BeforeClass
+	public static void setUp() {
+		schema = SchemaSnapshot.of(SchemaDefinition.parse("Pessoa.idPessoa:INTEGERPRIMARYKEY;Pessoa.nome:VARCHAR(45);"
+				+ "Telefone.numero:VARCHAR(17);Telefone.idPessoa:INTEGERREFERENCESPessoa.idPessoa;"));
+	}
+
+	static String generate(String rql, String version, GenerationOptions options) throws Exception {
+		StringBuilder sql = new StringBuilder();
+		CodeGenerator generator = new CodeGenerator(schema, sql, version);
+		generator.setOptions(options);
+		generator.generate(LogicalPlanTest.check(rql, schema));
+		return sql.toString();
+	}
+
+	static String generate(String rql) throws Exception {
+		return generate(rql, null, GenerationOptions.DEFAULT);
+	}
+
+	@Test
+	public void appendableTest() throws Exception {
+		/* Every statement is appended in order after the version header */
+		assertEquals("/*1.0*/\r\n\r\nSELECT * FROM Pessoa;\r\nSELECT DISTINCT * FROM Telefone;\r\n",
+				generate("Pessoa;\nTelefone;", "1.0", GenerationOptions.DEFAULT));
+		assertEquals("SELECT * FROM Pessoa;\r\n", generate("Pessoa;"));
+	}
+
+	@Test
+	public void setOperationTest() throws Exception {
+		/* Relations are written by name and the other operands are aliased derived tables */
+		assertEquals("SELECT * FROM Pessoa UNION SELECT * FROM Telefone;\r\n", generate("Pessoa v Telefone;"));
+		assertEquals("SELECT * FROM (SELECT idPessoa FROM Pessoa) AS temporaryRelation2 EXCEPT SELECT * FROM"
+				+ " (SELECT DISTINCT idPessoa FROM Telefone) AS temporaryRelation3;\r\n",
+				generate("(" + PROJECT + " idPessoa (Pessoa)) - (" + PROJECT + " idPessoa (Telefone));"));
+	}
+
+	@Test
+	public void operandsWrittenOnceTest() throws Exception {
+		String divisor = "FROM Pessoa WHERE nome = 'a'";
+		String division = "Telefone / (" + PROJECT + " idPessoa (" + SELECT + " nome = \"a\" (Pessoa)));";
+		for (DivisionStrategy strategy : DivisionStrategy.values()) {
+			String sql = generate(division, null, GenerationOptions.DEFAULT.withDivisionStrategy(strategy));
+			assertEquals(strategy.toString(), 1, occurrences(sql, divisor));
+		}
+
+		String sql = generate("<<" + PROJECT + " idPessoa, numero (Telefone)>>;");
+		assertEquals(1, occurrences(sql, "FROM Telefone"));
+	}
+
+	@Test
+	public void divisionStrategiesTest() throws Exception {
+		String divisor = "WITH temporaryRelation2 AS (SELECT idPessoa FROM Pessoa WHERE idPessoa = 9) ";
+		String division = "Telefone / (" + PROJECT + " idPessoa (" + SELECT + " idPessoa = 9 (Pessoa)));";
+
+		/* Every strategy keeps every candidate of an empty divisor: both counts are zero, ... */
+		assertEquals(DivisionStrategy.COUNT, GenerationOptions.DEFAULT.getDivisionStrategy());
+		assertEquals(divisor + "SELECT DISTINCT temporaryRelation1_1.numero FROM Telefone AS temporaryRelation1_1"
+				+ " WHERE (SELECT COUNT(*) FROM (SELECT DISTINCT idPessoa FROM temporaryRelation2) AS temporaryRelation1_3"
+				+ " WHERE EXISTS (SELECT * FROM Telefone AS temporaryRelation1_2"
+				+ " WHERE temporaryRelation1_2.numero = temporaryRelation1_1.numero"
+				+ " AND temporaryRelation1_2.idPessoa = temporaryRelation1_3.idPessoa))"
+				+ " = (SELECT COUNT(*) FROM (SELECT DISTINCT idPessoa FROM temporaryRelation2) AS temporaryRelation1_4);\r\n",
+				generate(division));
+		/* ... there is no divisor row without a match ... */
+		assertEquals("SELECT DISTINCT temporaryRelation1_1.numero FROM Telefone AS temporaryRelation1_1"
+				+ " WHERE NOT EXISTS (SELECT * FROM (SELECT idPessoa FROM Pessoa WHERE idPessoa = 9) AS temporaryRelation1_3"
+				+ " WHERE NOT EXISTS (SELECT * FROM Telefone AS temporaryRelation1_2"
+				+ " WHERE temporaryRelation1_2.numero = temporaryRelation1_1.numero"
+				+ " AND temporaryRelation1_2.idPessoa = temporaryRelation1_3.idPessoa));\r\n",
+				generate(division, null, GenerationOptions.DEFAULT.withDivisionStrategy(DivisionStrategy.NOT_EXISTS)));
+		/* ... and the outer join gives every candidate a group with no matches */
+		assertEquals(divisor + "SELECT temporaryRelation1_1.numero FROM Telefone AS temporaryRelation1_1"
+				+ " LEFT JOIN temporaryRelation2 AS temporaryRelation1_2"
+				+ " ON temporaryRelation1_1.idPessoa = temporaryRelation1_2.idPessoa"
+				+ " GROUP BY temporaryRelation1_1.numero HAVING COUNT(DISTINCT temporaryRelation1_2.idPessoa)"
+				+ " = (SELECT COUNT(*) FROM (SELECT DISTINCT idPessoa FROM temporaryRelation2) AS temporaryRelation1_3);\r\n",
+				generate(division, null, GenerationOptions.DEFAULT.withDivisionStrategy(DivisionStrategy.GROUP_BY)));
+	}
+
+	private static int occurrences(String text, String fragment) {
+		int count = 0;
+		for (int i = text.indexOf(fragment); i >= 0; i = text.indexOf(fragment, i + 1))
+			count++;
+		return count;
+	}
+}
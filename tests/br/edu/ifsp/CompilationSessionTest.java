@@ -0,0 +1,130 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import br.edu.ifsp.codeGeneration.Dialect;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.translator.CompilationSession;
+import br.edu.ifsp.translator.RqlTranslator;
+import br.edu.ifsp.translator.exceptions.TranslationException;
+
+public class CompilationSessionTest {
+
+	static final String SCHEMA = "Pessoa.idPessoa:INTEGERPRIMARYKEY;Pessoa.nome:VARCHAR(45);"
+			+ "Telefone.numero:VARCHAR(17);Telefone.idPessoa:INTEGER;";
+
+	static final String SELECT = "";
+
+	private final RqlTranslator translator = new RqlTranslator();
+
+	private final SchemaSnapshot schema = SchemaSnapshot.of(SchemaDefinition.parse(SCHEMA));
+
+	@Test
+	public void editTest() {
+		CompilationSession session = new CompilationSession(schema);
+		String rql = "Pessoa;\r\n// a comment; with a semicolon\r\nPessoa [] Telefone; " + SELECT
+				+ " nome = \"a;b\" (Pessoa);\r\n";
+
+		assertTrue(session.update(rql).isEmpty());
+		assertEquals(4, session.getStatementCount());
+		assertEquals(0, session.getReusedCount());
+		assertEquals(translator.translate(rql, schema), session.getSql());
+
+		/* Only the edited statement is parsed again */
+		rql = rql.replace("Pessoa [] Telefone", "Pessoa - Pessoa");
+		assertTrue(session.update(rql).isEmpty());
+		assertEquals(3, session.getReusedCount());
+		assertEquals(translator.translate(rql, schema), session.getSql());
+
+		/* The new lines belong to the first statement and the others are moved */
+		rql = "\r\n\r\n" + rql;
+		assertTrue(session.update(rql).isEmpty());
+		assertEquals(3, session.getReusedCount());
+		assertEquals(translator.translate(rql, schema), session.getSql());
+	}
+
+	@Test
+	public void errorsTest() {
+		CompilationSession session = new CompilationSession(schema);
+		String rql = "Pessoa;\nCarro;\nPessoa [] Telefone;\n";
+
+		List<String> errors = session.update(rql);
+		assertEquals(expectedErrors(rql), errors);
+		try {
+			session.getSql();
+			fail();
+		} catch (TranslationException exception) {
+			assertEquals(errors, exception.getErrors());
+		}
+
+		/* A statement with errors is checked again when it moves */
+		rql = "\n" + rql;
+		errors = session.update(rql);
+		assertEquals(2, session.getReusedCount());
+		assertEquals(expectedErrors(rql), errors);
+		assertTrue(errors.get(0).contains("line 3"));
+
+		/* A syntax error does not hide the errors of the other statements */
+		errors = session.update(rql + "Pessoa [] ;\nMoto;\n");
+		assertEquals(3, errors.size());
+		assertTrue(errors.get(0).contains("Carro"));
+		assertTrue(errors.get(1).contains("line 5, column 11"));
+		assertTrue(errors.get(2).contains("Moto"));
+
+		/* A new schema checks every statement again */
+		session.setSchema(SchemaSnapshot.of(SchemaDefinition.parse(SCHEMA + "Carro.idCarro:INTEGER;")));
+		assertTrue(session.update(rql).isEmpty());
+		assertEquals(translator.translate(rql, session.getSchema()), session.getSql());
+	}
+
+	@Test
+	public void lexerTest() {
+		CompilationSession session = new CompilationSession(schema);
+
+		// "/**" opens a documentation comment even when "*/" follows it
+		String rql = "Pessoa;\n/**/ Telefone;\nPessoa;\n/* x */ Telefone;";
+		assertTrue(session.update(rql).isEmpty());
+		assertEquals(2, session.getStatementCount());
+		assertEquals(translator.translate(rql, schema), session.getSql());
+
+		/* A comment ends only at a line feed */
+		rql = "Pessoa; // a comment\rTelefone;\nPessoa [] Telefone;";
+		assertTrue(session.update(rql).isEmpty());
+		assertEquals(2, session.getStatementCount());
+		assertEquals(translator.translate(rql, schema), session.getSql());
+
+		/* A semicolon in an invalid string does not end a statement */
+		rql = "Pessoa;\nPessoa;/* c */Telefone;\nTelefone;";
+		assertEquals(expectedErrors(rql), session.update(rql));
+		assertEquals(3, session.getStatementCount());
+	}
+
+	@Test
+	public void optionsTest() {
+		CompilationSession session = new CompilationSession(schema);
+		String rql = "Pessoa - Pessoa;\nPessoa [] Telefone;\n";
+		session.update(rql);
+		session.getSql();
+
+		GenerationOptions options = GenerationOptions.DEFAULT.withDialect(Dialect.MYSQL);
+		session.setOptions(options);
+		assertEquals(translator.translate(rql, schema, options), session.getSql());
+	}
+
+	private List<String> expectedErrors(String rql) {
+		try {
+			translator.translate(rql, schema);
+		} catch (TranslationException exception) {
+			return exception.getErrors();
+		}
+		throw new AssertionError();
+	}
+}
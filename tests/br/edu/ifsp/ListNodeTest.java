@@ -0,0 +1,99 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import br.edu.ifsp.parser.Token;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.syntacticTree.AttributeNode;
+import br.edu.ifsp.syntacticTree.ListNode;
+import br.edu.ifsp.syntacticTree.Node;
+import br.edu.ifsp.translator.RqlTranslator;
+
+public class ListNodeTest {
+
+	@Test
+	public void listTest() {
+		ListNode next = new ListNode(attribute("b"));
+		for (int i = 0; i < 10; i++)
+			next.add(attribute("c" + i));
+		ListNode list = new ListNode(attribute("a"), next);
+
+		/* The nodes of the next list are copied after the first node */
+		assertEquals(12, list.size());
+		assertEquals(11, next.size());
+		assertEquals("a", ((AttributeNode) list.getNode()).getPosition().image);
+		assertSame(next.getNode(0), list.getNode(1));
+		assertSame(next.getNode(10), list.getNode(11));
+		List<Node> nodes = new ArrayList<Node>();
+		for (Node node : list)
+			nodes.add(node);
+		assertEquals(12, nodes.size());
+		assertSame(list.getNode(5), nodes.get(5));
+		assertEquals(1, new ListNode(attribute("a"), null).size());
+		try {
+			list.getNode(12);
+			fail();
+		} catch (IndexOutOfBoundsException exception) {
+		}
+
+		/* The list is no longer a linked list, so it has no next list */
+		try {
+			ListNode.class.getMethod("getNext");
+			fail();
+		} catch (NoSuchMethodException exception) {
+		}
+	}
+
+	@Test
+	public void largeProgramTest() {
+		RqlTranslator translator = new RqlTranslator();
+		SchemaSnapshot schema = SchemaSnapshot.of(SchemaDefinition.parse("Pessoa.idPessoa:INTEGERPRIMARYKEY;"));
+
+		/* The statements and the attributes are not walked by recursion */
+		StringBuilder rql = new StringBuilder();
+		StringBuilder sql = new StringBuilder();
+		for (int i = 0; i < 50000; i++) {
+			rql.append("Pessoa;\n");
+			sql.append("SELECT * FROM Pessoa;\r\n");
+		}
+		assertEquals(sql.toString(), translator.translate(rql.toString(), schema));
+
+		StringBuilder definition = new StringBuilder("Grande.atributo:INTEGERPRIMARYKEY;");
+		rql = new StringBuilder(LogicalPlanTest.PROJECT + " atributo");
+		sql = new StringBuilder("SELECT atributo");
+		for (int i = 1; i < 20000; i++) {
+			definition.append("Grande.").append(name(i)).append(":INTEGER;");
+			rql.append(", ").append(name(i));
+			sql.append(", ").append(name(i));
+		}
+		// An attribute is left out, so the projection is written
+		definition.append("Grande.outro:INTEGER;");
+		rql.append(" (Grande);");
+		sql.append(" FROM Grande;\r\n");
+		schema = SchemaSnapshot.of(SchemaDefinition.parse(definition.toString()));
+		assertEquals(sql.toString(), translator.translate(rql.toString(), schema));
+	}
+
+	/**
+	 * @return a name made of letters, since the names of a schema definition do
+	 *         not have zeros, that is not read as a hexadecimal constant
+	 */
+	private static String name(int index) {
+		StringBuilder name = new StringBuilder("atributo");
+		for (; index > 0; index /= 26)
+			name.append((char) ('a' + index % 26));
+		return name.toString();
+	}
+
+	private static AttributeNode attribute(String name) {
+		return new AttributeNode(new Token(0, name));
+	}
+}
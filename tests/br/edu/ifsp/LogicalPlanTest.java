@@ -0,0 +1,228 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import br.edu.ifsp.codeGeneration.CodeGenerator;
+import br.edu.ifsp.logicalPlan.AttributeReference;
+import br.edu.ifsp.logicalPlan.BinaryExpression;
+import br.edu.ifsp.logicalPlan.Constant;
+import br.edu.ifsp.logicalPlan.EmptyRelation;
+import br.edu.ifsp.logicalPlan.Expression;
+import br.edu.ifsp.logicalPlan.Join;
+import br.edu.ifsp.logicalPlan.PlanBuilder;
+import br.edu.ifsp.logicalPlan.PlanNode;
+import br.edu.ifsp.logicalPlan.Project;
+import br.edu.ifsp.logicalPlan.Rename;
+import br.edu.ifsp.logicalPlan.Scan;
+import br.edu.ifsp.logicalPlan.Select;
+import br.edu.ifsp.optimizer.ConstantFolding;
+import br.edu.ifsp.optimizer.JoinReordering;
+import br.edu.ifsp.optimizer.PredicatePushdown;
+import br.edu.ifsp.optimizer.ProjectionPruning;
+import br.edu.ifsp.optimizer.Rule;
+import br.edu.ifsp.optimizer.RuleEngine;
+import br.edu.ifsp.parser.RelationalQueryLanguage;
+import br.edu.ifsp.parser.RelationalQueryLanguageConstants;
+import br.edu.ifsp.semanticAnalysis.RelationCheck;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.syntacticTree.ListNode;
+import br.edu.ifsp.syntacticTree.QueryNode;
+import br.edu.ifsp.syntacticTree.ReadyOnlyOperationsNode;
+import br.edu.ifsp.syntacticTree.RelationalOperationsNode;
+
+public class LogicalPlanTest {
+
+	/* Project, select and rename tokens of RQL */
+	static final String PROJECT = "";
+	static final String SELECT = "";
+	static final String RENAME = "";
+
+	static SchemaSnapshot schema;
+
+	@BeforeClass
+	public static void setUp() {
+		schema = SchemaSnapshot.of(SchemaDefinition.parse("Pessoa.idPessoa:INTEGERPRIMARYKEY;Pessoa.nome:VARCHAR(45);"
+				+ "Telefone.numero:VARCHAR(17);Telefone.idPessoa:INTEGERREFERENCESPessoa.idPessoa;"));
+	}
+
+	static ListNode check(String rql) throws Exception {
+		return check(rql, schema);
+	}
+
+	static ListNode check(String rql, SchemaSnapshot schema) throws Exception {
+		RelationalQueryLanguage parser = new RelationalQueryLanguage(new StringReader(rql));
+		parser.disable_tracing();
+		ListNode root = parser.program();
+		RelationCheck rc = new RelationCheck(schema);
+		rc.setVerbose(false);
+		assertEquals(0, rc.semanticAnalysis(root));
+		return root;
+	}
+
+	static PlanNode plan(String rql) throws Exception {
+		return plan(rql, schema);
+	}
+
+	static PlanNode plan(String rql, SchemaSnapshot schema) throws Exception {
+		QueryNode query = (QueryNode) ((RelationalOperationsNode) check(rql, schema).getNode()).getNode();
+		return new PlanBuilder().build((ReadyOnlyOperationsNode) query.getNode());
+	}
+
+	@Test
+	public void planTest() throws Exception {
+		PlanNode plan = plan(PROJECT + " numero ((" + RENAME + " nome numero (Pessoa)) [] Telefone);");
+
+		Project project = (Project) plan;
+		Join join = (Join) project.getInput();
+		Rename rename = (Rename) join.getLeft();
+		assertEquals(Join.Type.NATURAL, join.getType());
+		assertEquals("Pessoa", ((Scan) rename.getInput()).getRelationName());
+		assertEquals(Arrays.asList("idPessoa", "numero"), rename.getAttributeNames());
+		assertEquals(Arrays.asList("numero"), project.getAttributeNames());
+	}
+
+	@Test
+	public void precedenceTest() throws Exception {
+		Select select = (Select) plan(SELECT + " idPessoa = 1 v idPessoa = 2 ^ nome = \"a\" (Pessoa);");
+
+		BinaryExpression or = (BinaryExpression) select.getCondition();
+		assertEquals("OR", or.getOperator());
+		assertEquals("AND", ((BinaryExpression) or.getRight()).getOperator());
+		assertEquals("=", ((BinaryExpression) or.getLeft()).getOperator());
+		assertEquals(Arrays.asList("idPessoa", "nome"), Arrays.asList(select.getCondition().getAttributes().toArray()));
+	}
+
+	@Test
+	public void ruleEngineTest() throws Exception {
+		/* Removes a projection over a projection to the same attributes */
+		Rule rule = new Rule() {
+			@Override
+			public PlanNode apply(PlanNode node) {
+				if (node instanceof Project && ((Project) node).getInput() instanceof Project) {
+					Project inner = (Project) ((Project) node).getInput();
+					if (inner.getAttributes().equals(((Project) node).getAttributes()))
+						return inner;
+				}
+				return node;
+			}
+		};
+		RuleEngine engine = new RuleEngine(rule);
+		String rql = PROJECT + " nome (" + PROJECT + " nome (" + PROJECT + " nome (Pessoa)));";
+
+		PlanNode optimized = engine.optimize(plan(rql));
+		assertTrue(((Project) optimized).getInput() instanceof Scan);
+		PlanNode scan = plan("Pessoa;");
+		assertSame(scan, engine.optimize(scan));
+
+		StringWriter sql = new StringWriter();
+		CodeGenerator generator = new CodeGenerator(schema, sql, null);
+		generator.setOptimizer(engine);
+		generator.generate(check(rql));
+		assertEquals("SELECT DISTINCT nome FROM Pessoa;\r\n", sql.toString());
+	}
+
+	@Test
+	public void predicatePushdownTest() throws Exception {
+		RuleEngine engine = new RuleEngine(new PredicatePushdown());
+		PlanNode plan = engine.optimize(plan(SELECT + " nome = \"a\" ^ idPessoa = 1 ^ numero = \"1\" ((" + RENAME
+				+ " nome nome (Pessoa)) [] Telefone);"));
+
+		Join join = (Join) plan;
+		Rename rename = (Rename) join.getLeft();
+		Select left = (Select) rename.getInput();
+		Select right = (Select) join.getRight();
+		assertEquals(Arrays.asList("nome", "idPessoa"), Arrays.asList(left.getCondition().getAttributes().toArray()));
+		assertEquals(Arrays.asList("idPessoa", "numero"), Arrays.asList(right.getCondition().getAttributes().toArray()));
+		assertTrue(left.getInput() instanceof Scan);
+
+		/* A condition over both sides of a cross join becomes the join condition */
+		join = (Join) engine.optimize(plan(SELECT + " nome = numero ((" + RENAME + " idPessoa id (Pessoa)) x Telefone);"));
+		assertEquals(Join.Type.INNER, join.getType());
+		assertEquals(Arrays.asList("nome", "numero"), Arrays.asList(join.getCondition().getAttributes().toArray()));
+
+		/* Without schema the selection stays over the join */
+		PlanNode unknown = new Select(new Join(Join.Type.NATURAL, new Scan("A", null), new Scan("B", null), null),
+				new BinaryExpression("=", Expression.Level.COMPARISON, new AttributeReference("a"), new AttributeReference("b")));
+		assertSame(unknown, engine.optimize(unknown));
+		assertNull(unknown.getHeading());
+	}
+
+	@Test
+	public void projectionPruningTest() throws Exception {
+		RuleEngine engine = new RuleEngine(new ProjectionPruning());
+		String rql = PROJECT + " numero ((" + SELECT + " nome = \"a\" (Pessoa)) [] Telefone);";
+		Project project = (Project) engine.optimize(plan(rql));
+
+		Join join = (Join) project.getInput();
+		Project left = (Project) join.getLeft();
+		assertEquals(Arrays.asList("idPessoa"), left.getAttributes());
+		assertTrue(left.getInput() instanceof Select);
+		/* Relations are not narrowed */
+		assertTrue(join.getRight() instanceof Scan);
+		assertSame(project, engine.optimize(project));
+	}
+
+	@Test
+	public void constantFoldingTest() throws Exception {
+		RuleEngine engine = new RuleEngine(new ConstantFolding());
+		Select select = (Select) engine.optimize(plan(SELECT + " idPessoa = 5 * 4 + 3 ^ TRUE (Pessoa);"));
+		BinaryExpression condition = (BinaryExpression) select.getCondition();
+		assertEquals(new Constant("23", RelationalQueryLanguageConstants.INTEGER), condition.getRight());
+		assertTrue(engine.optimize(plan(SELECT + " 1 = 1 v nome = \"a\" (Pessoa);")) instanceof Scan);
+
+		/* An empty selection empties the join and is removed from the union */
+		PlanNode empty = engine.optimize(plan(PROJECT + " numero ((" + SELECT + " TRUE ^ 5 > 6 + 7 * 3 (Pessoa)) [] Telefone);"));
+		assertTrue(empty instanceof EmptyRelation);
+		assertEquals(Arrays.asList("numero"), empty.getAttributeNames());
+		assertTrue(engine.optimize(plan("Pessoa v (" + SELECT + " 2 < 1 (Pessoa));")) instanceof Scan);
+
+		StringWriter sql = new StringWriter();
+		CodeGenerator generator = new CodeGenerator(schema, sql, null);
+		generator.generate(check(PROJECT + " nome (" + SELECT + " TRUE = FALSE (Pessoa));"));
+		assertEquals("SELECT nome FROM Pessoa WHERE 1 = 0;\r\n", sql.toString());
+
+		/* Strings are compared by the database, whose collation may ignore case */
+		Select strings = (Select) engine.optimize(plan(SELECT + " \"a\" = \"A\" (Pessoa);"));
+		assertTrue(strings.getCondition() instanceof BinaryExpression);
+	}
+
+	@Test
+	public void joinReorderingTest() throws Exception {
+		SchemaSnapshot addresses = SchemaSnapshot.of(SchemaDefinition.parse("Pessoa.idPessoa:INTEGERPRIMARYKEY;"
+				+ "Bairro.idBairro:INTEGERPRIMARYKEY;Bairro.nomeBairro:VARCHAR(45);"
+				+ "Endereco.idPessoa:INTEGERREFERENCESPessoa.idPessoa;Endereco.idBairro:INTEGERREFERENCESBairro.idBairro;"
+				+ "Pessoa:ROWS1000;Bairro:ROWS50;Endereco:ROWS1200;"));
+		RuleEngine engine = new RuleEngine(new JoinReordering(addresses));
+		String rql = "Pessoa [] (Endereco [] (" + SELECT + " nomeBairro = \"Centro\" (Bairro)));";
+		PlanNode plan = plan(rql, addresses);
+		PlanNode optimized = engine.optimize(plan);
+
+		/* The selected neighbourhood is joined before the people, from the left */
+		Join join = (Join) optimized;
+		assertEquals("Pessoa", ((Scan) join.getRight()).getRelationName());
+		assertTrue(((Join) join.getLeft()).getRight() instanceof Select);
+		assertEquals(plan.getAttributeNames(), optimized.getAttributeNames());
+		assertSame(optimized, engine.optimize(optimized));
+
+		/* Without statistics the written chain is kept */
+		PlanNode chain = plan("(Pessoa [] Endereco) [] Bairro;", addresses);
+		assertSame(chain, new RuleEngine(new JoinReordering()).optimize(chain));
+
+		StringWriter sql = new StringWriter();
+		CodeGenerator generator = new CodeGenerator(addresses, sql, null);
+		generator.generate(check(rql, addresses));
+		assertEquals("SELECT DISTINCT * FROM Endereco NATURAL JOIN (SELECT * FROM Bairro WHERE nomeBairro = 'Centro') "
+				+ "AS temporaryRelation2 NATURAL JOIN Pessoa;\r\n", sql.toString());
+	}
+}
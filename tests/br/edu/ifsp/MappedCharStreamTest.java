@@ -0,0 +1,118 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import br.edu.ifsp.parser.MappedCharStream;
+import br.edu.ifsp.parser.ParseException;
+import br.edu.ifsp.parser.RelationalQueryLanguage;
+import br.edu.ifsp.parser.RelationalQueryLanguageTokenManager;
+import br.edu.ifsp.parser.SimpleCharStream;
+import br.edu.ifsp.parser.Token;
+import br.edu.ifsp.syntacticTree.ListNode;
+
+public class MappedCharStreamTest {
+
+	/* Line breaks of every kind, tabs, comments and a long string constant */
+	static final String TEXT = "Pessoa;\r\n/*\t*/ idPessoa = 1 /*\t*/(Pessoa);\r\r\n// comment\n/* multi\r\n line */"
+			+ " Pessoa [] Telefone;\n  /*\t\t*/ nome (Pessoa);\r nome = \"a\tb\" (Pessoa);\n nome = \""
+			+ new String(new char[5000]).replace('\0', 'x') + "\" (Pessoa);";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * @return the kind, image and position of every token
+	 */
+	private static String tokens(SimpleCharStream stream) {
+		return tokens(stream, -1, 0, 0);
+	}
+
+	/**
+	 * @return the kind, image and position of every token, moving the token
+	 *         with the given index to the given line and column
+	 */
+	private static String tokens(SimpleCharStream stream, int moved, int line, int column) {
+		RelationalQueryLanguageTokenManager tokenManager = new RelationalQueryLanguageTokenManager(stream);
+		StringBuilder tokens = new StringBuilder();
+		Token token;
+		int index = 0;
+		do {
+			token = tokenManager.getNextToken();
+			if (index++ == moved) {
+				stream.adjustBeginLineColumn(line, column);
+				token.beginLine = stream.getBeginLine();
+				token.beginColumn = stream.getBeginColumn();
+				token.endLine = stream.getEndLine();
+				token.endColumn = stream.getEndColumn();
+			}
+			tokens.append(token.kind).append(' ').append(token.image).append(' ').append(token.beginLine).append(':')
+					.append(token.beginColumn).append('-').append(token.endLine).append(':').append(token.endColumn)
+					.append('\n');
+		} while (token.kind != 0);
+		return tokens.toString();
+	}
+
+	@Test
+	public void positionsTest() {
+		String expected = tokens(new SimpleCharStream(new StringReader(TEXT)));
+		assertEquals(expected, tokens(new MappedCharStream(TEXT)));
+		assertEquals(tokens(new SimpleCharStream(new StringReader(""))), tokens(new MappedCharStream("")));
+
+		/* A stream over a piece of a text starts at the position of the piece */
+		String piece = "/*\t*/" + TEXT;
+		assertEquals(tokens(new SimpleCharStream(new StringReader(piece), 7, 12)),
+				tokens(new MappedCharStream(("Pessoa;" + piece).toCharArray(), 7, piece.length(), 7, 12)));
+	}
+
+	@Test
+	public void adjustTest() {
+		/* The lines after the moved token are shifted, and so is the rest of its line */
+		String text = "Pessoa;\r\n// comment\r\nPessoa [] Telefone;\n/* multi\r line */ Pessoa;\rTelefone;";
+		assertEquals("69 Pessoa 1:1-1:6\n18 ; 1:7-1:7\n69 Pessoa 20:7-20:12\n40 [] 20:14-20:15\n"
+				+ "69 Telefone 20:17-20:24\n18 ; 20:25-20:25\n69 Pessoa 22:10-22:15\n18 ; 22:16-22:16\n"
+				+ "69 Telefone 23:1-23:8\n18 ; 23:9-23:9\n0  23:9-23:9\n", tokens(new MappedCharStream(text), 2, 20, 7));
+
+		/* The widths of the tabs after it do not change */
+		assertEquals("69 Pessoa 1:3-1:8\n40 [] 1:22-1:23\n69 Telefone 1:25-1:32\n0  1:32-1:32\n",
+				tokens(new MappedCharStream("Pessoa /*\t*/ [] Telefone"), 0, 1, 3));
+		assertEquals(tokens(new MappedCharStream(text)), tokens(new MappedCharStream(text), 0, 1, 1));
+	}
+
+	@Test
+	public void fileTest() throws IOException {
+		Path file = folder.newFile("statements.rql").toPath();
+		Files.write(file, TEXT.getBytes(StandardCharsets.ISO_8859_1));
+
+		assertEquals(tokens(new SimpleCharStream(new StringReader(TEXT))),
+				tokens(MappedCharStream.open(file, StandardCharsets.ISO_8859_1)));
+	}
+
+	@Test
+	public void imagesTest() throws ParseException {
+		RelationalQueryLanguage parser = new RelationalQueryLanguage(
+				new RelationalQueryLanguageTokenManager(new MappedCharStream("Pessoa; Telefone; Pessoa;")));
+		parser.disable_tracing();
+		ListNode statements = parser.program();
+
+		Token first = statements.getNode(0).getFirstToken();
+		Token last = statements.getNode(2).getFirstToken();
+		assertEquals("Pessoa", first.image);
+		assertSame(first.image, last.image);
+
+		// The tree does not keep the consumed tokens linked
+		assertNull(first.next);
+		assertNull(last.next);
+	}
+}
@@ -1,10 +1,14 @@
 package br.edu.ifsp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Set;
+
 import br.edu.ifsp.parser.Token;
 import br.edu.ifsp.semanticAnalysis.RelationCheck;
 import br.edu.ifsp.symbolTable.Attribute;
@@ -378,4 +382,45 @@ public class RelationCheckTest {
 		assertEquals(0, rc.semanticAnalysis(root));
 		rc.clearSemanticErrors();
 	}
+	
+	@Test
+	public void headingSemanticTest() {
+		
+		rc = new RelationCheck(table);
+		Set<String> relations = table.getRelationNames();
+		int numberOfRelations = relations.size();
+		
+		/* The heading of every operation is recorded on its node
+		 * Equivalent query:
+		 *  idPessoa id ( idPessoa, nome (Pessoa));
+		 *  */
+		ListNode list = new ListNode(new AttributeNode(new Token(0, "idPessoa")));
+		list.add(new AttributeNode(new Token(0, "nome")));
+		ReadyOnlyOperationsNode projection = new ReadyOnlyOperationsNode(
+				new UnitaryOperationsNode(
+						new ProjectNode(list), 
+						new ReadyOnlyOperationsNode(
+								new UnitaryOperationsNode(
+										new RelationNode(
+												new Token(0, "Pessoa"))))));
+		ReadyOnlyOperationsNode rename = new ReadyOnlyOperationsNode(
+				new UnitaryOperationsNode(
+						new RenameNode(
+								new ListNode(
+										new RenameSetNode(
+												new Token(0, "idPessoa"), new Token(0, "id")))), 
+						projection));
+		ListNode root = new ListNode(new RelationalOperationsNode(new QueryNode(rename)));
+		
+		assertEquals(0, rc.semanticAnalysis(root));
+		assertEquals(Arrays.asList("idPessoa", "nome"), 
+				Arrays.asList(projection.getHeading().getAttributeNames().toArray()));
+		assertEquals(Arrays.asList("id", "nome"), 
+				Arrays.asList(rename.getHeading().getAttributeNames().toArray()));
+		
+		/* The symbol table is not changed by the analysis */
+		assertEquals(numberOfRelations, table.getRelationNames().size());
+		assertTrue(table.hasRelation("Pessoa"));
+		rc.clearSemanticErrors();
+	}
 }
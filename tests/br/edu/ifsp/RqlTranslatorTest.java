@@ -0,0 +1,366 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import br.edu.ifsp.codeGeneration.CodeGenerator;
+import br.edu.ifsp.codeGeneration.Dialect;
+import br.edu.ifsp.codeGeneration.DivisionStrategy;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.parser.MappedCharStream;
+import br.edu.ifsp.parser.ParseException;
+import br.edu.ifsp.parser.RelationalQueryLanguage;
+import br.edu.ifsp.parser.RelationalQueryLanguageTokenManager;
+import br.edu.ifsp.symbolTable.Attribute;
+import br.edu.ifsp.symbolTable.Relation;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.symbolTable.SymbolTable;
+import br.edu.ifsp.syntacticTree.ListNode;
+import br.edu.ifsp.translator.RqlTranslator;
+import br.edu.ifsp.translator.exceptions.TranslationException;
+
+public class RqlTranslatorTest {
+
+	/* Project, select and rename tokens of RQL */
+	static final String PROJECT = "";
+	static final String SELECT = "";
+	static final String RENAME = "";
+
+	static SymbolTable table;
+
+	/* Schema with the primary and foreign keys */
+	static SchemaSnapshot schema;
+
+	@BeforeClass
+	public static void setUp() {
+		table = new SymbolTable();
+		Relation pessoa = new Relation();
+		Relation telefone = new Relation();
+
+		Attribute idPessoa = new Attribute("idPessoa", "INTEGER");
+		Attribute nome = new Attribute("nome", "VARCHAR");
+		Attribute numero = new Attribute("numero", "VARCHAR");
+
+		pessoa.addAttribute("idPessoa", idPessoa);
+		pessoa.addAttribute("nome", nome);
+		telefone.addAttribute("numero", numero);
+		telefone.addAttribute("idPessoa", idPessoa);
+
+		table.addRelation("Pessoa", pessoa);
+		table.addRelation("Telefone", telefone);
+
+		schema = SchemaSnapshot.of(SchemaDefinition.parse("Pessoa.idPessoa:INTEGERPRIMARYKEY;Pessoa.nome:VARCHAR(45);"
+				+ "Telefone.numero:VARCHAR(17);Telefone.idPessoa:INTEGERREFERENCESPessoa.idPessoa;"));
+	}
+
+	@Test
+	public void translationTest() {
+		RqlTranslator translator = new RqlTranslator();
+
+		assertEquals("SELECT DISTINCT * FROM Pessoa;\r\n", translator.translate("Pessoa;", table));
+		assertEquals("SELECT DISTINCT idPessoa FROM Pessoa;\r\n",
+				translator.translate(PROJECT + " idPessoa (Pessoa);", table));
+		assertEquals("SELECT DISTINCT * FROM Pessoa NATURAL JOIN Telefone;\r\n"
+				+ "SELECT DISTINCT * FROM Pessoa WHERE idPessoa = 5;\r\n",
+				translator.translate("Pessoa [] Telefone; " + SELECT + " idPessoa = 5 (Pessoa);", table));
+	}
+
+	@Test
+	public void transitiveCloseTest() {
+		RqlTranslator translator = new RqlTranslator();
+
+		/* A closed binary operation may start with a relation */
+		assertEquals("WITH RECURSIVE temporaryRelation1_0 AS (SELECT * FROM Telefone UNION SELECT * FROM Telefone),"
+				+ " temporaryRelation1(numero, idPessoa) AS (SELECT numero, idPessoa FROM temporaryRelation1_0"
+				+ " UNION SELECT temporaryRelation1_1.numero, temporaryRelation1_2.idPessoa"
+				+ " FROM temporaryRelation1 AS temporaryRelation1_1 INNER JOIN temporaryRelation1_0 AS temporaryRelation1_2"
+				+ " ON temporaryRelation1_1.idPessoa = temporaryRelation1_2.numero) SELECT * FROM temporaryRelation1;\r\n",
+				translator.translate("<<Telefone v Telefone>>;", table));
+	}
+
+	@Test
+	public void divisionTest() {
+		RqlTranslator translator = new RqlTranslator();
+		SchemaSnapshot snapshot = SchemaSnapshot.of(table);
+		String rql = "Telefone / (" + PROJECT + " idPessoa (Pessoa));";
+
+		assertEquals("SELECT DISTINCT temporaryRelation1_1.numero FROM Telefone AS temporaryRelation1_1"
+				+ " WHERE NOT EXISTS (SELECT * FROM (SELECT DISTINCT idPessoa FROM Pessoa) AS temporaryRelation1_3"
+				+ " WHERE NOT EXISTS (SELECT * FROM Telefone AS temporaryRelation1_2"
+				+ " WHERE temporaryRelation1_2.numero = temporaryRelation1_1.numero"
+				+ " AND temporaryRelation1_2.idPessoa = temporaryRelation1_3.idPessoa));\r\n",
+				translator.translate(rql, snapshot, GenerationOptions.DEFAULT.withDivisionStrategy(DivisionStrategy.NOT_EXISTS)));
+		/* The divisor is repeated, so it is a common table expression */
+		assertEquals("WITH temporaryRelation2 AS (SELECT DISTINCT idPessoa FROM Pessoa)"
+				+ " SELECT temporaryRelation1_1.numero FROM Telefone AS temporaryRelation1_1"
+				+ " LEFT JOIN temporaryRelation2 AS temporaryRelation1_2"
+				+ " ON temporaryRelation1_1.idPessoa = temporaryRelation1_2.idPessoa"
+				+ " GROUP BY temporaryRelation1_1.numero"
+				+ " HAVING COUNT(DISTINCT temporaryRelation1_2.idPessoa) = (SELECT COUNT(*)"
+				+ " FROM (SELECT DISTINCT idPessoa FROM temporaryRelation2) AS temporaryRelation1_3);\r\n",
+				translator.translate(rql, snapshot, GenerationOptions.DEFAULT.withDivisionStrategy(DivisionStrategy.GROUP_BY)));
+	}
+
+	@Test
+	public void closureTest() {
+		RqlTranslator translator = new RqlTranslator();
+
+		assertEquals("WITH RECURSIVE temporaryRelation1(idPessoa, nome) AS (SELECT idPessoa, nome FROM Pessoa"
+				+ " UNION SELECT temporaryRelation1_1.idPessoa, temporaryRelation1_2.nome"
+				+ " FROM temporaryRelation1 AS temporaryRelation1_1 INNER JOIN Pessoa AS temporaryRelation1_2"
+				+ " ON temporaryRelation1_1.nome = temporaryRelation1_2.idPessoa) SELECT * FROM temporaryRelation1;\r\n",
+				translator.translate("<<Pessoa>>;", table));
+	}
+
+	@Test
+	public void schemaIsNotModifiedTest() {
+		RqlTranslator translator = new RqlTranslator();
+		int relations = table.getRelationNames().size();
+
+		translator.translate(RENAME + " idPessoa id (" + PROJECT + " idPessoa (Pessoa));", table);
+
+		assertEquals(relations, table.getRelationNames().size());
+	}
+
+	@Test
+	public void errorsTest() {
+		RqlTranslator translator = new RqlTranslator();
+
+		try {
+			translator.translate("Carro;", table);
+			fail();
+		} catch (TranslationException exception) {
+			assertEquals(1, exception.getErrors().size());
+		}
+
+		try {
+			translator.translate("Pessoa [] ;", table);
+			fail();
+		} catch (TranslationException exception) {
+			assertEquals(1, exception.getErrors().size());
+		}
+
+		/* The parser of the thread is reused after an error */
+		assertEquals("SELECT DISTINCT * FROM Telefone;\r\n", translator.translate("Telefone;", table));
+	}
+
+	@Test
+	public void syntaxErrorsTest() throws ParseException {
+		String rql = "Pessoa [] ;\nTelefone;\n(Pessoa;\nPessoa v ;\nPessoa;\n";
+
+		/* Every statement with a syntax error is reported */
+		try {
+			new RqlTranslator().translate(rql, table);
+			fail();
+		} catch (TranslationException exception) {
+			assertEquals(3, exception.getErrors().size());
+			assertTrue(exception.getErrors().get(0).contains("line 1, column 11"));
+			assertTrue(exception.getErrors().get(1).contains("line 3, column 8"));
+			assertTrue(exception.getErrors().get(2).contains("line 4, column 10"));
+		}
+
+		/* The valid statements still have their trees */
+		RelationalQueryLanguage parser = new RelationalQueryLanguage(
+				new RelationalQueryLanguageTokenManager(new MappedCharStream(rql)));
+		parser.disable_tracing();
+		ListNode statements = parser.program();
+		assertEquals(2, statements.size());
+		assertEquals("Telefone", statements.getFirstToken().image);
+		assertEquals(3, parser.getSyntaxErrors().size());
+	}
+
+	@Test
+	public void concurrentTranslationTest() throws Exception {
+		final RqlTranslator translator = new RqlTranslator();
+		final String rql = PROJECT + " nome (Pessoa [] Telefone);";
+		final String expected = translator.translate(rql, table);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int i = 0; i < 200; i++) {
+				results.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						return expected.equals(translator.translate(rql, table));
+					}
+				}));
+			}
+			for (Future<Boolean> result : results)
+				assertTrue(result.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void distinctTest() {
+		RqlTranslator translator = new RqlTranslator();
+
+		/* The primary key makes the tuples distinct */
+		assertEquals("SELECT * FROM Pessoa;\r\n", translator.translate("Pessoa;", schema));
+		assertEquals("SELECT idPessoa FROM Pessoa;\r\n",
+				translator.translate(PROJECT + " idPessoa (Pessoa);", schema));
+		assertEquals("SELECT DISTINCT nome FROM Pessoa;\r\n",
+				translator.translate(PROJECT + " nome (Pessoa);", schema));
+		assertEquals("SELECT DISTINCT * FROM Telefone NATURAL JOIN Pessoa;\r\n",
+				translator.translate("Telefone [] Pessoa;", schema));
+
+		/* Selections of different values of an attribute are disjoint */
+		assertEquals("SELECT * FROM (SELECT * FROM Pessoa WHERE idPessoa = 1) AS temporaryRelation2"
+				+ " UNION ALL SELECT * FROM (SELECT * FROM Pessoa WHERE idPessoa = 2) AS temporaryRelation3;\r\n",
+				translator.translate("(" + SELECT + " idPessoa = 1 (Pessoa)) v (" + SELECT + " idPessoa = 2 (Pessoa));",
+						schema));
+		/* Strings that differ may be equal in the collation of the database */
+		assertEquals("SELECT * FROM (SELECT * FROM Pessoa WHERE nome = 'a') AS temporaryRelation2"
+				+ " UNION SELECT * FROM (SELECT * FROM Pessoa WHERE nome = 'A') AS temporaryRelation3;\r\n",
+				translator.translate("(" + SELECT + " nome = \"a\" (Pessoa)) v (" + SELECT + " nome = \"A\" (Pessoa));",
+						schema));
+		assertEquals("SELECT * FROM Telefone UNION SELECT * FROM Telefone;\r\n",
+				translator.translate("(Telefone) v (Telefone);", schema));
+	}
+
+	@Test
+	public void semiJoinTest() {
+		RqlTranslator translator = new RqlTranslator();
+		GenerationOptions options = GenerationOptions.DEFAULT.withSemiJoins(true);
+		String difference = "Pessoa - (" + SELECT + " nome = \"a\" (Pessoa));";
+
+		assertEquals("SELECT * FROM Pessoa EXCEPT SELECT * FROM (SELECT * FROM Pessoa WHERE nome = 'a')"
+				+ " AS temporaryRelation2;\r\n", translator.translate(difference, schema));
+		/* The tuples of restrictions of the same relation are matched by its primary key */
+		assertEquals("SELECT * FROM Pessoa AS temporaryRelation1_1 WHERE NOT EXISTS (SELECT * FROM"
+				+ " (SELECT * FROM Pessoa WHERE nome = 'a') AS temporaryRelation1_2"
+				+ " WHERE temporaryRelation1_2.idPessoa = temporaryRelation1_1.idPessoa);\r\n",
+				translator.translate(difference, schema, options));
+		assertEquals("SELECT * FROM (SELECT idPessoa FROM Pessoa WHERE nome = 'a') AS temporaryRelation1_1"
+				+ " WHERE EXISTS (SELECT * FROM (SELECT idPessoa FROM Pessoa WHERE idPessoa > 2) AS temporaryRelation1_2"
+				+ " WHERE temporaryRelation1_2.idPessoa = temporaryRelation1_1.idPessoa);\r\n",
+				translator.translate("(" + PROJECT + " idPessoa (" + SELECT + " nome = \"a\" (Pessoa))) ^ ("
+						+ PROJECT + " idPessoa (" + SELECT + " idPessoa > 2 (Pessoa)));", schema, options));
+		/* Without a primary key every attribute would be compared, so the set operation is kept */
+		assertEquals("SELECT * FROM Telefone INTERSECT SELECT * FROM (SELECT DISTINCT * FROM Telefone WHERE numero = '1')"
+				+ " AS temporaryRelation2;\r\n",
+				translator.translate("Telefone ^ (" + SELECT + " numero = \"1\" (Telefone));", schema, options));
+	}
+
+	@Test
+	public void dialectTest() {
+		RqlTranslator translator = new RqlTranslator();
+		GenerationOptions mysql = GenerationOptions.DEFAULT.withDialect(Dialect.MYSQL);
+		GenerationOptions sqlServer = GenerationOptions.DEFAULT.withDialect(Dialect.SQLSERVER);
+
+		assertEquals(Dialect.ANSI, Dialect.fromOptionName("SQL92"));
+		assertEquals("SELECT * FROM Pessoa WHERE (nome = 'a' OR idPessoa = 1) AND NOT (nome = 'a' AND idPessoa = 1);\r\n",
+				translator.translate(SELECT + " nome = \"a\" _v_ idPessoa = 1 (Pessoa);", schema));
+		assertEquals("SELECT * FROM Pessoa WHERE nome = \"a\" XOR idPessoa = 1;\r\n",
+				translator.translate(SELECT + " nome = \"a\" _v_ idPessoa = 1 (Pessoa);", schema, mysql));
+		/* The quotient of integers is decimal in MySQL, so it is not folded */
+		assertEquals("SELECT * FROM Pessoa WHERE 7 / 2 > 3;\r\n",
+				translator.translate(SELECT + " 7 / 2 > 3 (Pessoa);", schema, mysql));
+
+		/* Without EXCEPT every attribute is compared with the null-safe equality */
+		assertEquals("SELECT DISTINCT * FROM Telefone AS temporaryRelation1_1 WHERE NOT EXISTS (SELECT * FROM"
+				+ " (SELECT DISTINCT * FROM Telefone WHERE numero = \"1\") AS temporaryRelation1_2"
+				+ " WHERE temporaryRelation1_2.numero <=> temporaryRelation1_1.numero"
+				+ " AND temporaryRelation1_2.idPessoa <=> temporaryRelation1_1.idPessoa);\r\n",
+				translator.translate("Telefone - (" + SELECT + " numero = \"1\" (Telefone));", schema, mysql));
+
+		/* Without NATURAL JOIN the common attributes are compared and projected away */
+		assertEquals("SELECT DISTINCT idPessoa, nome, numero FROM Pessoa INNER JOIN (SELECT DISTINCT numero,"
+				+ " idPessoa AS idPessoa_1 FROM Telefone) AS temporaryRelation2 ON idPessoa = idPessoa_1;\r\n",
+				translator.translate("Pessoa [] Telefone;", schema, sqlServer));
+
+		/* Without UNION in recursive expressions the closure is computed in a temporary table */
+		assertEquals("SELECT DISTINCT idPessoa, nome INTO #temporaryRelation1 FROM Pessoa;\r\n"
+				+ "WHILE @@ROWCOUNT > 0 INSERT INTO #temporaryRelation1 SELECT temporaryRelation1_1.idPessoa,"
+				+ " temporaryRelation1_2.nome FROM #temporaryRelation1 AS temporaryRelation1_1"
+				+ " INNER JOIN Pessoa AS temporaryRelation1_2 ON temporaryRelation1_1.nome = temporaryRelation1_2.idPessoa"
+				+ " EXCEPT SELECT idPessoa, nome FROM #temporaryRelation1;\r\n"
+				+ "SELECT * FROM #temporaryRelation1;\r\n"
+				+ "DROP TABLE #temporaryRelation1;\r\n",
+				translator.translate("<<Pessoa>>;", SchemaSnapshot.of(table), sqlServer));
+		/* A derived operand is saved first, since every step reads it */
+		String closure = translator.translate("<<" + SELECT + " idPessoa > 1 (Telefone)>>;", schema, sqlServer);
+		assertTrue(closure.startsWith("SELECT * INTO #temporaryRelation1_0 FROM (SELECT DISTINCT * FROM Telefone"
+				+ " WHERE idPessoa > 1) AS temporaryRelation2;\r\n"
+				+ "SELECT DISTINCT numero, idPessoa INTO #temporaryRelation1 FROM #temporaryRelation1_0;\r\n"));
+		assertTrue(closure.endsWith("DROP TABLE #temporaryRelation1_0, #temporaryRelation1;\r\n"));
+	}
+
+	@Test
+	public void flatteningTest() {
+		RqlTranslator translator = new RqlTranslator();
+		String rql = PROJECT + " id, nome (" + RENAME + " idPessoa id (" + SELECT + " nome = \"a\" (Pessoa)));";
+
+		assertEquals("SELECT DISTINCT idPessoa AS id, nome FROM Pessoa WHERE nome = 'a';\r\n",
+				translator.translate(rql, table));
+		assertEquals("SELECT DISTINCT nome FROM Pessoa NATURAL JOIN Telefone;\r\n",
+				translator.translate(PROJECT + " nome (Pessoa [] Telefone);", table));
+	}
+
+	@Test
+	public void selfJoinTest() {
+		RqlTranslator translator = new RqlTranslator();
+
+		/* A relation written again in the FROM clause of a regrouped join gets an alias */
+		assertEquals("SELECT DISTINCT numero FROM Telefone NATURAL JOIN Telefone AS temporaryRelation2"
+				+ " NATURAL JOIN Pessoa;\r\n",
+				translator.translate(PROJECT + " numero (Telefone [] (Pessoa [] Telefone));", table));
+		assertEquals("SELECT DISTINCT * FROM Telefone NATURAL JOIN Telefone AS temporaryRelation2;\r\n",
+				translator.translate("Telefone [] Telefone;", table));
+	}
+
+	@Test
+	public void commonSubexpressionTest() {
+		RqlTranslator translator = new RqlTranslator();
+		String selection = "(" + SELECT + " idPessoa > 1 (Pessoa))";
+		String statement = selection + " v " + selection + ";";
+
+		String sql = "WITH temporaryRelation2 AS (SELECT DISTINCT * FROM Pessoa WHERE idPessoa > 1)"
+				+ " SELECT * FROM temporaryRelation2 AS temporaryRelation3"
+				+ " UNION SELECT * FROM temporaryRelation2 AS temporaryRelation4;\r\n";
+		assertEquals(sql, translator.translate(statement, table));
+		/* Equal subexpressions of different statements are not shared */
+		assertEquals(sql + sql, translator.translate(statement + statement, table));
+	}
+
+	@Test
+	public void parallelStatementsTest() {
+		RqlTranslator translator = new RqlTranslator();
+		String statements[] = { "Pessoa;", "Telefone / (" + PROJECT + " idPessoa (Pessoa));", "<<Pessoa>>;",
+				"Pessoa [] Telefone;", SELECT + " idPessoa > 1 (Pessoa);", "Pessoa - Pessoa;" };
+
+		/* Every statement numbers its scopes as if it was alone */
+		StringBuilder rql = new StringBuilder();
+		StringBuilder sql = new StringBuilder();
+		for (int i = 0; i < CodeGenerator.PARALLEL_STATEMENTS * 2; i++) {
+			String statement = statements[i % statements.length];
+			rql.append(statement).append("\r\n");
+			sql.append(translator.translate(statement, table));
+		}
+		assertEquals(sql.toString(), translator.translate(rql.toString(), table));
+
+		/* The errors are reported in the order of the statements */
+		rql.append("Carro;\r\nPessoa;\r\nMoto;\r\n");
+		try {
+			translator.translate(rql.toString(), table);
+			fail();
+		} catch (TranslationException exception) {
+			assertEquals(2, exception.getErrors().size());
+			assertTrue(exception.getErrors().get(0).contains("Carro"));
+			assertTrue(exception.getErrors().get(1).contains("Moto"));
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import br.edu.ifsp.symbolTable.Attribute;
+import br.edu.ifsp.symbolTable.RelationSnapshot;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaRegistry;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.symbolTable.SymbolTable;
+import br.edu.ifsp.symbolTable.exceptions.UnexistentForeignKeyException;
+
+public class SchemaSnapshotTest {
+
+	static final String DEFINITION = "Pessoa.idPessoa:INTEGERPRIMARYKEY;Pessoa.nome:VARCHAR(45);"
+			+ "Telefone.numero:VARCHAR(17);Telefone.idPessoa:INTEGERREFERENCESPessoa.idPessoa;";
+
+	static SymbolTable table;
+
+	@BeforeClass
+	public static void setUp() {
+		table = SchemaDefinition.parse(DEFINITION);
+	}
+
+	@Test
+	public void indexesTest() {
+		SchemaSnapshot schema = SchemaSnapshot.of(table);
+		RelationSnapshot pessoa = schema.getRelation("Pessoa");
+		RelationSnapshot telefone = schema.getRelation("Telefone");
+
+		assertEquals(2, pessoa.getNumberOfAttributes());
+		assertEquals("idPessoa", pessoa.getAttributeName(0));
+		assertEquals(1, pessoa.indexOf("nome"));
+		assertEquals(-1, pessoa.indexOf("numero"));
+		assertEquals(Arrays.asList("idPessoa"), pessoa.getPrimaryKey());
+		assertEquals(Collections.emptyList(), telefone.getPrimaryKey());
+		assertEquals(Arrays.asList("idPessoa"), telefone.getForeignKeys());
+		assertEquals("Pessoa", telefone.getReference("idPessoa").getRelation());
+		assertNull(telefone.getReference("numero"));
+		assertEquals(Arrays.asList("Telefone"), schema.getReferencingRelations("Pessoa"));
+		assertFalse(schema.hasRelation("Endereco"));
+		assertNull(schema.getRelation("Endereco"));
+	}
+
+	@Test
+	public void immutabilityTest() {
+		SchemaSnapshot schema = SchemaSnapshot.of(table);
+		Attribute nome = schema.getRelation("Pessoa").getAttribute("nome");
+
+		try {
+			nome.addFeature("primary", true);
+			fail("The attribute of a snapshot must not change");
+		} catch (UnsupportedOperationException exception) {
+		}
+		try {
+			schema.getRelation("Pessoa").asHeading().removeAttribute("nome");
+			fail("The heading of a snapshot must not change");
+		} catch (UnsupportedOperationException exception) {
+		}
+
+		// Changes on the symbol table are not seen by the snapshot
+		table.getRelation("Pessoa").getAttribute("nome").addFeature("range", 60);
+		assertEquals(45, nome.getFeature("range"));
+		table.getRelation("Pessoa").getAttribute("nome").addFeature("range", 45);
+	}
+
+	@Test
+	public void registryTest() {
+		SchemaRegistry registry = new SchemaRegistry(table);
+		SchemaSnapshot first = registry.current();
+		assertSame(first, registry.current());
+
+		SchemaSnapshot second = registry.update(SchemaDefinition.parse("Endereco.rua:VARCHAR(45);"));
+		assertNotSame(first, second);
+		assertSame(second, registry.current());
+		assertTrue(second.getVersion() > first.getVersion());
+		assertTrue(second.hasRelation("Endereco"));
+		assertTrue(first.hasRelation("Pessoa"));
+	}
+
+	@Test(expected = UnexistentForeignKeyException.class)
+	public void definitionTest() {
+		assertTrue(SchemaDefinition.isValid(DEFINITION));
+		assertFalse(SchemaDefinition.isValid("Pessoa.idPessoa"));
+		SchemaDefinition.parse("Telefone.idPessoa:INTEGERREFERENCESPessoa.idPessoa;");
+	}
+
+	@Test
+	public void rowCountTest() {
+		String definition = "Pessoa:ROWS1000;" + DEFINITION + "Telefone:ROWS2500;";
+		assertTrue(SchemaDefinition.isValid(definition));
+		SchemaSnapshot schema = SchemaSnapshot.of(SchemaDefinition.parse(definition));
+		assertEquals(1000, schema.getRelation("Pessoa").getRowCount());
+		assertEquals(2500, schema.getRelation("Telefone").getRowCount());
+		assertEquals(Arrays.asList("idPessoa"), schema.getRelation("Telefone").getForeignKeys());
+		assertEquals(-1, SchemaSnapshot.of(table).getRelation("Pessoa").getRowCount());
+	}
+}
@@ -0,0 +1,108 @@
+package br.edu.ifsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import br.edu.ifsp.codeGeneration.DivisionStrategy;
+import br.edu.ifsp.codeGeneration.GenerationOptions;
+import br.edu.ifsp.symbolTable.SchemaDefinition;
+import br.edu.ifsp.symbolTable.SchemaRegistry;
+import br.edu.ifsp.symbolTable.SchemaSnapshot;
+import br.edu.ifsp.translator.RqlTranslator;
+import br.edu.ifsp.translator.TranslationCache;
+import br.edu.ifsp.translator.exceptions.TranslationException;
+
+public class TranslationCacheTest {
+
+	static SchemaRegistry registry;
+
+	@BeforeClass
+	public static void setUp() {
+		registry = new SchemaRegistry(SchemaDefinition.parse("Pessoa.idPessoa:INTEGERPRIMARYKEY;Pessoa.nome:VARCHAR(45);"));
+	}
+
+	@Test
+	public void normalizationTest() {
+		assertEquals("Pessoa ;", TranslationCache.normalize("  Pessoa;\r\n"));
+		assertEquals("Pessoa [] Pessoa ;", TranslationCache.normalize("Pessoa /* comment */ []\n\nPessoa; // comment"));
+		assertEquals("Pessoa ;", TranslationCache.normalize("/** documentation */Pessoa;"));
+		assertEquals(" idPessoa , nome ( Pessoa ) ;", TranslationCache.normalize(" idPessoa,nome (Pessoa) ;"));
+		assertEquals("\"a  // b\"", TranslationCache.normalize("\"a  // b\""));
+
+		// "/**/" opens a documentation comment, which ends at the next comment
+		String comments = "Pessoa;\n/**/ Telefone;\n/* x */ Pessoa;";
+		assertEquals("Pessoa ; Pessoa ;", TranslationCache.normalize(comments));
+		// ";/" is read as one invalid token, so the text is not cached
+		assertNull(TranslationCache.normalize("Pessoa;/* c */Telefone;"));
+		assertNull(TranslationCache.normalize("Pessoa;\tTelefone;"));
+
+		SchemaSnapshot schema = SchemaSnapshot.of(SchemaDefinition.parse("Pessoa.idPessoa:INTEGERPRIMARYKEY;"
+				+ "Telefone.numero:VARCHAR(17);"));
+		RqlTranslator translator = new RqlTranslator(new TranslationCache(100, 10000));
+		translator.translate("Pessoa; Telefone; Pessoa;", schema);
+		assertEquals(new RqlTranslator().translate(comments, schema), translator.translate(comments, schema));
+		try {
+			translator.translate("Pessoa;/* c */Telefone;", schema);
+			fail();
+		} catch (TranslationException exception) {
+			assertEquals(errors(new RqlTranslator(), "Pessoa;/* c */Telefone;", schema), exception.getErrors());
+		}
+		assertEquals(0, translator.getCache().getHits());
+	}
+
+	static List<String> errors(RqlTranslator translator, String rql, SchemaSnapshot schema) {
+		try {
+			translator.translate(rql, schema);
+		} catch (TranslationException exception) {
+			return exception.getErrors();
+		}
+		fail();
+		return null;
+	}
+
+	@Test
+	public void hitsTest() {
+		RqlTranslator translator = new RqlTranslator(new TranslationCache(100, 10000));
+		TranslationCache cache = translator.getCache();
+
+		String sql = translator.translate("Pessoa;", registry.current());
+		assertEquals(sql, translator.translate("Pessoa ; // again", registry.current()));
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.getHits());
+
+		// A new version of the schema does not use the old translations
+		registry.update(SchemaDefinition.parse("Pessoa.idPessoa:INTEGER;"));
+		translator.translate("Pessoa;", registry.current());
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.size());
+
+		// Other options do not use the translations of the default options
+		translator.translate("Pessoa;", registry.current(),
+				GenerationOptions.DEFAULT.withDivisionStrategy(DivisionStrategy.GROUP_BY));
+		assertEquals(3, cache.getMisses());
+	}
+
+	@Test
+	public void evictionTest() {
+		TranslationCache cache = new TranslationCache(2, 20);
+
+		cache.put("A;", 1, GenerationOptions.DEFAULT, "SQL A");
+		cache.put("B;", 1, GenerationOptions.DEFAULT, "SQL B");
+		cache.get("A;", 1, GenerationOptions.DEFAULT);
+		cache.put("C;", 1, GenerationOptions.DEFAULT, "SQL C");
+		assertNull(cache.get("B;", 1, GenerationOptions.DEFAULT));
+		assertEquals(2, cache.size());
+
+		// The weight counts the characters of the key and of the SQL
+		cache.put("D;", 1, GenerationOptions.DEFAULT, "A long SQL text");
+		assertEquals(1, cache.size());
+		assertEquals(17, cache.getWeight());
+		assertEquals(3, cache.getEvictions());
+	}
+}